@@ -0,0 +1,85 @@
+/*
+ * Command-line tool for bulk JSONC validation and conversion.
+ *
+ * Packaged as an executable JAR that bundles the library and Jackson:
+ *   java -jar jackson-databind-jsonc-cli-<version>.jar validate configs/
+ */
+
+plugins {
+    java
+}
+
+group = "jp.vemi"
+// Same version resolution as :lib (PROJECT_VERSION > -Pversion > default)
+run {
+    val envVersion = System.getenv("PROJECT_VERSION")?.trim().orEmpty()
+    val propVersion = findProperty("version")?.toString()?.trim().orEmpty()
+    version = when {
+        envVersion.isNotEmpty() -> envVersion
+        propVersion.isNotEmpty() -> propVersion
+        else -> "0.0.0-SNAPSHOT"
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    implementation(project(":lib"))
+    // Jackson依存
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.20.0")
+
+    // テスト依存
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
+}
+
+tasks {
+    // 実行可能JAR - lib と Jackson 関連のみ同梱（Guava, Commons-Mathは除外）
+    jar {
+        archiveFileName.set("jackson-databind-jsonc-cli-${project.version}.jar")
+        duplicatesStrategy = DuplicatesStrategy.EXCLUDE
+        dependsOn(configurations.runtimeClasspath)
+
+        from({
+            configurations.runtimeClasspath.get()
+                .filter { it.name.contains("jackson") && it.name.endsWith("jar") }
+                .map { zipTree(it) }
+        }) {
+            exclude("META-INF/*.SF")
+            exclude("META-INF/*.DSA")
+            exclude("META-INF/*.RSA")
+            exclude("META-INF/DEPENDENCIES")
+            exclude("META-INF/LICENSE*")
+            exclude("META-INF/NOTICE*")
+            exclude("META-INF/versions/**/module-info.class")
+            exclude("module-info.class")
+        }
+
+        manifest {
+            attributes(mapOf(
+                "Main-Class" to "jp.vemi.jsoncmapper.cli.JsoncCli",
+                "Implementation-Title" to "jackson-databind-jsonc-cli",
+                "Implementation-Version" to project.version,
+                "Multi-Release" to "true"
+            ))
+        }
+    }
+
+    named<Test>("test") {
+        useJUnitPlatform()
+    }
+}
+
+// Use --release 8 to generate Java 8 compatible bytecode, same as :lib
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+    options.release.set(8)
+}
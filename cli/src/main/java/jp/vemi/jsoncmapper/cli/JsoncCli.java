@@ -0,0 +1,464 @@
+package jp.vemi.jsoncmapper.cli;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import jp.vemi.jsoncmapper.JsoncMapper;
+import jp.vemi.jsoncmapper.JsoncValidationResult;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Command-line tool for validating and converting many JSONC files in parallel.
+ *
+ * <p>Walks the given files and directories and runs one command per file on a fixed
+ * thread pool (one thread per available core by default). Every file gets a status
+ * line with its processing time; the process exit code summarizes the run.
+ *
+ * <p>Commands:
+ * <ul>
+ *   <li>{@code validate} - stream each file through the tokenizer and report the first syntax error</li>
+ *   <li>{@code strip} - remove comments and apply the enabled JSON5 options, keeping the layout;
+ *       {@code +1}, {@code Infinity} and {@code NaN} are kept as written, so the output is not
+ *       standard JSON when those options are enabled</li>
+ *   <li>{@code minify} - write compact standard JSON</li>
+ *   <li>{@code convert} - write pretty-printed standard JSON</li>
+ * </ul>
+ *
+ * <p>JSON5 options map one-to-one onto {@link JsoncMapper.Builder} feature flags.
+ *
+ * @since 1.1.0
+ * @see JsoncMapper
+ */
+public final class JsoncCli {
+
+    /** Exit code when every file was processed successfully. */
+    public static final int EXIT_OK = 0;
+
+    /** Exit code when at least one file failed. */
+    public static final int EXIT_FAILURE = 1;
+
+    /** Exit code for invalid command-line usage. */
+    public static final int EXIT_USAGE = 2;
+
+    private static final String USAGE =
+        "Usage: jsonc <validate|strip|minify|convert> [options] <file-or-dir>...\n" +
+        "\n" +
+        "Options:\n" +
+        "  -o, --output <dir>      write results under <dir>, mirroring the input layout\n" +
+        "                          (required for strip/minify/convert unless the input is a single file)\n" +
+        "  -t, --threads <n>       number of worker threads (default: available processors)\n" +
+        "  -e, --extensions <list> comma-separated extensions to pick up when walking directories\n" +
+        "                          (default: json,jsonc,json5)\n" +
+        "  -q, --quiet             only report failed files\n" +
+        "      --json5             enable core JSON5 features\n" +
+        "      --trailing-commas   allow trailing commas\n" +
+        "      --single-quotes     allow single-quoted strings\n" +
+        "      --hex-numbers       allow hexadecimal numbers\n" +
+        "      --plus-numbers      allow explicit plus signs on numbers\n" +
+        "      --infinity-nan      allow Infinity and NaN\n" +
+        "      --multiline-strings allow multiline strings\n" +
+        "      --control-chars     allow unescaped control characters in strings\n" +
+        "  -h, --help              show this help\n" +
+        "\n" +
+        "Exit codes: 0 = all files succeeded, 1 = at least one file failed, 2 = usage error\n";
+
+    /**
+     * Supported per-file commands.
+     */
+    enum Command {
+        VALIDATE, STRIP, MINIFY, CONVERT;
+
+        boolean writesOutput() {
+            return this != VALIDATE;
+        }
+    }
+
+    private JsoncCli() {
+    }
+
+    /**
+     * Entry point of the executable JAR.
+     *
+     * @param args command-line arguments
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs the tool without terminating the JVM.
+     *
+     * @param args command-line arguments
+     * @param out stream for converted content and status lines
+     * @param err stream for usage errors (and status lines when content goes to {@code out})
+     * @return process exit code ({@link #EXIT_OK}, {@link #EXIT_FAILURE} or {@link #EXIT_USAGE})
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println("Error: " + e.getMessage());
+            err.print(USAGE);
+            return EXIT_USAGE;
+        }
+
+        if (options.help) {
+            out.print(USAGE);
+            return EXIT_OK;
+        }
+
+        List<Target> targets;
+        try {
+            targets = collectTargets(options);
+        } catch (IOException e) {
+            err.println("Error: " + e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        boolean toStdout = options.command.writesOutput() && options.output == null;
+        if (toStdout && (targets.size() != 1 || !targets.get(0).singleFile)) {
+            err.println("Error: --output is required when " + options.command.name().toLowerCase(Locale.ROOT)
+                        + " processes a directory or several files");
+            return EXIT_USAGE;
+        }
+
+        PrintStream report = toStdout ? err : out;
+        JsoncMapper mapper = options.builder.build();
+        long start = System.nanoTime();
+        int failed = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(options.threads, targets.size())));
+        try {
+            List<Future<FileResult>> futures = new ArrayList<>(targets.size());
+            for (Target target : targets) {
+                futures.add(executor.submit(() -> process(target, options, mapper, toStdout ? out : null)));
+            }
+            // Report in input order while workers keep running ahead
+            for (int i = 0; i < futures.size(); i++) {
+                FileResult result = await(futures.get(i), targets.get(i));
+                if (!result.success) {
+                    failed++;
+                }
+                if (!result.success || !options.quiet) {
+                    report.println(result.format());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double totalMillis = (System.nanoTime() - start) / 1_000_000.0;
+        report.println(String.format(Locale.ROOT, "%d file(s), %d failed, %.3f ms total",
+                                     targets.size(), failed, totalMillis));
+        return failed == 0 ? EXIT_OK : EXIT_FAILURE;
+    }
+
+    /**
+     * Waits for a worker result, converting unexpected failures into a failed file result.
+     */
+    private static FileResult await(Future<FileResult> future, Target target) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new FileResult(target.source, false, 0L, "interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return new FileResult(target.source, false, 0L, String.valueOf(cause));
+        }
+    }
+
+    /**
+     * Expands the command-line paths into the list of files to process.
+     */
+    private static List<Target> collectTargets(Options options) throws IOException {
+        List<Target> targets = new ArrayList<>();
+        for (Path input : options.inputs) {
+            if (Files.isDirectory(input)) {
+                List<Path> files = new ArrayList<>();
+                try (Stream<Path> walk = Files.walk(input)) {
+                    walk.filter(Files::isRegularFile)
+                        .filter(p -> options.accepts(p))
+                        .forEach(files::add);
+                }
+                Collections.sort(files);
+                for (Path file : files) {
+                    targets.add(new Target(file, input.relativize(file), false));
+                }
+            } else if (Files.isRegularFile(input)) {
+                targets.add(new Target(input, input.getFileName(), true));
+            } else {
+                throw new FileNotFoundException("No such file or directory: " + input);
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Runs the command for a single file. Never throws for per-file errors.
+     */
+    static FileResult process(Target target, Options options, JsoncMapper mapper, PrintStream stdout) {
+        long start = System.nanoTime();
+        try {
+            switch (options.command) {
+                case VALIDATE:
+                    JsoncValidationResult validation = mapper.validate(target.source);
+                    if (!validation.isValid()) {
+                        return new FileResult(target.source, false, System.nanoTime() - start,
+                                              "line " + validation.getLine() + ", column " + validation.getColumn()
+                                              + ": " + validation.getMessage());
+                    }
+                    break;
+                case STRIP:
+                    try (Writer writer = openWriter(target, options, stdout)) {
+                        mapper.preprocess(target.source, writer);
+                    }
+                    break;
+                case MINIFY:
+                case CONVERT:
+                    try (JsonParser parser = mapper.createParser(target.source.toFile());
+                         Writer writer = openWriter(target, options, stdout);
+                         JsonGenerator generator = mapper.createGenerator(writer)) {
+                        if (options.command == Command.CONVERT) {
+                            generator.useDefaultPrettyPrinter();
+                        }
+                        // Copy token by token instead of building a tree of the whole file
+                        if (parser.nextToken() != null) {
+                            generator.copyCurrentStructure(parser);
+                        }
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown command: " + options.command);
+            }
+            return new FileResult(target.source, true, System.nanoTime() - start, null);
+        } catch (JsonProcessingException e) {
+            String message = e.getOriginalMessage();
+            if (e.getLocation() != null) {
+                message = "line " + e.getLocation().getLineNr() + ", column " + e.getLocation().getColumnNr()
+                          + ": " + message;
+            }
+            return new FileResult(target.source, false, System.nanoTime() - start, message);
+        } catch (IOException | RuntimeException e) {
+            return new FileResult(target.source, false, System.nanoTime() - start, String.valueOf(e));
+        }
+    }
+
+    /**
+     * Opens the destination for a transformed file: stdout in single-file mode, otherwise
+     * a {@code .json} file under the output directory.
+     */
+    private static Writer openWriter(Target target, Options options, PrintStream stdout) throws IOException {
+        if (options.output == null) {
+            // Do not close the shared stdout stream
+            return new FilterWriter(new OutputStreamWriter(stdout, StandardCharsets.UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+
+        Path destination = options.output.resolve(replaceExtension(target.relative));
+        Path parent = destination.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return Files.newBufferedWriter(destination, StandardCharsets.UTF_8);
+    }
+
+    private static String replaceExtension(Path relative) {
+        String name = relative.toString();
+        int dot = name.lastIndexOf('.');
+        int separator = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\'));
+        if (dot > separator + 1) {
+            name = name.substring(0, dot);
+        }
+        return name + ".json";
+    }
+
+    /**
+     * A file to process together with its path relative to the command-line argument.
+     */
+    static final class Target {
+        final Path source;
+        final Path relative;
+        final boolean singleFile;
+
+        Target(Path source, Path relative, boolean singleFile) {
+            this.source = source;
+            this.relative = relative;
+            this.singleFile = singleFile;
+        }
+    }
+
+    /**
+     * Outcome and timing of processing one file.
+     */
+    static final class FileResult {
+        final Path source;
+        final boolean success;
+        final long elapsedNanos;
+        final String message;
+
+        FileResult(Path source, boolean success, long elapsedNanos, String message) {
+            this.source = source;
+            this.success = success;
+            this.elapsedNanos = elapsedNanos;
+            this.message = message;
+        }
+
+        String format() {
+            String line = String.format(Locale.ROOT, "%-4s %10.3f ms  %s",
+                                        success ? "OK" : "FAIL", elapsedNanos / 1_000_000.0, source);
+            return message == null ? line : line + ": " + message;
+        }
+    }
+
+    /**
+     * Parsed command-line options.
+     */
+    static final class Options {
+        Command command;
+        final List<Path> inputs = new ArrayList<>();
+        Path output;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> extensions = new ArrayList<>();
+        boolean quiet;
+        boolean help;
+        final JsoncMapper.Builder builder = new JsoncMapper.Builder();
+
+        boolean accepts(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            for (String extension : extensions) {
+                if (name.endsWith("." + extension)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        static Options parse(String[] args) {
+            if (args == null) {
+                throw new IllegalArgumentException("Arguments cannot be null");
+            }
+
+            Options options = new Options();
+            String extensions = "json,jsonc,json5";
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "-h":
+                    case "--help":
+                        options.help = true;
+                        return options;
+                    case "-o":
+                    case "--output":
+                        options.output = Paths.get(requireValue(args, ++i, arg));
+                        break;
+                    case "-t":
+                    case "--threads":
+                        try {
+                            options.threads = Integer.parseInt(requireValue(args, ++i, arg));
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Invalid thread count: " + args[i]);
+                        }
+                        if (options.threads < 1) {
+                            throw new IllegalArgumentException("Thread count must be positive: " + args[i]);
+                        }
+                        break;
+                    case "-e":
+                    case "--extensions":
+                        extensions = requireValue(args, ++i, arg);
+                        break;
+                    case "-q":
+                    case "--quiet":
+                        options.quiet = true;
+                        break;
+                    case "--json5":
+                        options.builder.enableJson5Features(true);
+                        break;
+                    case "--trailing-commas":
+                        options.builder.allowTrailingCommas(true);
+                        break;
+                    case "--single-quotes":
+                        options.builder.allowSingleQuotes(true);
+                        break;
+                    case "--hex-numbers":
+                        options.builder.allowHexNumbers(true);
+                        break;
+                    case "--plus-numbers":
+                        options.builder.allowPlusNumbers(true);
+                        break;
+                    case "--infinity-nan":
+                        options.builder.allowInfinityAndNaN(true);
+                        break;
+                    case "--multiline-strings":
+                        options.builder.allowMultilineStrings(true);
+                        break;
+                    case "--control-chars":
+                        options.builder.allowUnescapedControlChars(true);
+                        break;
+                    default:
+                        if (arg.startsWith("-") && arg.length() > 1) {
+                            throw new IllegalArgumentException("Unknown option: " + arg);
+                        }
+                        if (options.command == null) {
+                            options.command = parseCommand(arg);
+                        } else {
+                            options.inputs.add(Paths.get(arg));
+                        }
+                }
+            }
+
+            if (options.command == null) {
+                throw new IllegalArgumentException("Missing command");
+            }
+            if (options.inputs.isEmpty()) {
+                throw new IllegalArgumentException("Missing input file or directory");
+            }
+            for (String extension : extensions.split(",")) {
+                String trimmed = extension.trim().toLowerCase(Locale.ROOT);
+                if (trimmed.startsWith(".")) {
+                    trimmed = trimmed.substring(1);
+                }
+                if (!trimmed.isEmpty()) {
+                    options.extensions.add(trimmed);
+                }
+            }
+            return options;
+        }
+
+        private static Command parseCommand(String value) {
+            for (Command command : Command.values()) {
+                if (command.name().equalsIgnoreCase(value)) {
+                    return command;
+                }
+            }
+            throw new IllegalArgumentException("Unknown command: " + value);
+        }
+
+        private static String requireValue(String[] args, int index, String option) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            return args[index];
+        }
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Command-line front end for bulk JSONC processing.
+ *
+ * <p>{@link jp.vemi.jsoncmapper.cli.JsoncCli} validates, strips, minifies or converts
+ * whole directory trees of JSONC files in parallel, using the same preprocessing and
+ * {@link jp.vemi.jsoncmapper.JsoncMapper.Builder} feature flags as the library.
+ *
+ * @since 1.1.0
+ */
+package jp.vemi.jsoncmapper.cli;
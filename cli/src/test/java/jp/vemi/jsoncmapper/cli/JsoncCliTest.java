@@ -0,0 +1,132 @@
+package jp.vemi.jsoncmapper.cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class JsoncCliTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private int run(String... args) {
+        return JsoncCli.run(args, new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    private static Path write(Path file, String content) throws Exception {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testValidateDirectory(@TempDir Path tempDir) throws Exception {
+        write(tempDir.resolve("a.jsonc"), "{ /* comment */ \"key\": \"value\" }");
+        write(tempDir.resolve("nested/b.json"), "[1, 2, 3] // trailing comment");
+        write(tempDir.resolve("ignored.txt"), "not json");
+
+        int exitCode = run("validate", tempDir.toString());
+
+        assertEquals(JsoncCli.EXIT_OK, exitCode);
+        String report = out.toString("UTF-8");
+        assertTrue(report.contains("a.jsonc"));
+        assertTrue(report.contains("b.json"));
+        assertFalse(report.contains("ignored.txt"));
+        assertTrue(report.contains("2 file(s), 0 failed"));
+    }
+
+    @Test
+    public void testValidateReportsFailures(@TempDir Path tempDir) throws Exception {
+        write(tempDir.resolve("good.jsonc"), "{ \"key\": 1 }");
+        write(tempDir.resolve("bad.jsonc"), "{ \"key\": 1, }");
+
+        int exitCode = run("validate", "--threads", "2", tempDir.toString());
+
+        assertEquals(JsoncCli.EXIT_FAILURE, exitCode);
+        String report = out.toString("UTF-8");
+        assertTrue(report.contains("FAIL"));
+        assertTrue(report.contains("bad.jsonc"));
+        assertTrue(report.contains("1 failed"));
+    }
+
+    @Test
+    public void testFeatureFlagsApply(@TempDir Path tempDir) throws Exception {
+        write(tempDir.resolve("config.json5"), "{ 'key': 0x10, 'list': [1, 2,], }");
+
+        assertEquals(JsoncCli.EXIT_FAILURE, run("validate", tempDir.toString()));
+        out.reset();
+        assertEquals(JsoncCli.EXIT_OK, run("validate", "--json5", tempDir.toString()));
+    }
+
+    @Test
+    public void testConvertWritesMirroredTree(@TempDir Path tempDir) throws Exception {
+        Path input = tempDir.resolve("in");
+        Path output = tempDir.resolve("out");
+        write(input.resolve("sub/config.jsonc"), "{\n  // comment\n  \"key\": \"value\"\n}");
+
+        int exitCode = run("convert", "-o", output.toString(), input.toString());
+
+        assertEquals(JsoncCli.EXIT_OK, exitCode);
+        Path converted = output.resolve("sub/config.json");
+        assertTrue(Files.exists(converted));
+        assertTrue(read(converted).contains("\"key\" : \"value\""));
+    }
+
+    @Test
+    public void testMinifySingleFileToStdout(@TempDir Path tempDir) throws Exception {
+        Path file = write(tempDir.resolve("config.jsonc"), "{\n  \"a\": [1, 2], /* c */\n  \"b\": true\n}");
+
+        int exitCode = run("minify", file.toString());
+
+        assertEquals(JsoncCli.EXIT_OK, exitCode);
+        assertEquals("{\"a\":[1,2],\"b\":true}", out.toString("UTF-8"));
+        assertTrue(err.toString("UTF-8").contains("1 file(s), 0 failed"));
+    }
+
+    @Test
+    public void testStripKeepsLayout(@TempDir Path tempDir) throws Exception {
+        Path file = write(tempDir.resolve("config.jsonc"), "{\n  \"a\": 1, // c\n  \"b\": 2,\n}");
+
+        int exitCode = run("strip", "--trailing-commas", file.toString());
+
+        assertEquals(JsoncCli.EXIT_OK, exitCode);
+        assertEquals("{\n  \"a\": 1, \n  \"b\": 2\n}", out.toString("UTF-8"));
+    }
+
+    @Test
+    public void testStripAppliesJson5Options(@TempDir Path tempDir) throws Exception {
+        Path file = write(tempDir.resolve("config.json5"), "{\n  'a': 0x10, // c\n  \"b\": 'x',\n}");
+
+        int exitCode = run("strip", "--json5", file.toString());
+
+        assertEquals(JsoncCli.EXIT_OK, exitCode);
+        assertEquals("{\n  \"a\": 16, \n  \"b\": \"x\"\n}", out.toString("UTF-8"));
+    }
+
+    @Test
+    public void testUsageErrors(@TempDir Path tempDir) throws Exception {
+        assertEquals(JsoncCli.EXIT_USAGE, run());
+        assertEquals(JsoncCli.EXIT_USAGE, run("unknown", tempDir.toString()));
+        assertEquals(JsoncCli.EXIT_USAGE, run("validate", "--threads", "0", tempDir.toString()));
+        assertEquals(JsoncCli.EXIT_USAGE, run("validate", tempDir.resolve("missing").toString()));
+        // Directory conversion needs an output directory
+        assertEquals(JsoncCli.EXIT_USAGE, run("convert", tempDir.toString()));
+    }
+
+    @Test
+    public void testHelp() throws Exception {
+        assertEquals(JsoncCli.EXIT_OK, run("--help"));
+        assertTrue(out.toString("UTF-8").startsWith("Usage:"));
+    }
+}
@@ -0,0 +1,141 @@
+package jp.vemi.jsoncmapper;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Read-only, insertion-ordered map over parallel name and value arrays, used for the
+ * members of compact trees and compact untyped values.
+ *
+ * <p>No entry objects are kept: small maps are searched linearly and larger ones through an
+ * open-addressing (linear probing) table of positions. Entries are created only while the
+ * entry set is iterated.
+ *
+ * @param <V> value type
+ */
+final class CompactMap<V> extends AbstractMap<String, V> {
+
+    /** Maps with more entries than this get a probing table. */
+    static final int LINEAR_LOOKUP_LIMIT = 8;
+
+    private final String[] names;
+    private final V[] values;
+    /** Linear probing table of position + 1 (0 marks a free slot); null for small maps. */
+    private final int[] table;
+
+    /**
+     * @param names distinct names in iteration order; the array is not copied
+     * @param values values at the same positions; the array is not copied
+     */
+    CompactMap(String[] names, V[] values) {
+        this.names = names;
+        this.values = values;
+        this.table = names.length > LINEAR_LOOKUP_LIMIT ? buildTable(names) : null;
+    }
+
+    /**
+     * Returns the position of a name among the first {@code size} names, or -1; used for
+     * duplicate detection while the arrays of a small map are being filled.
+     */
+    static int indexOf(String[] names, int size, String name) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] buildTable(String[] names) {
+        int[] table = new int[Integer.highestOneBit(names.length * 2 - 1) << 1];
+        int mask = table.length - 1;
+        for (int i = 0; i < names.length; i++) {
+            int slot = spread(names[i].hashCode()) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+        return table;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private int find(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        if (table == null) {
+            return indexOf(names, names.length, (String) key);
+        }
+        int mask = table.length - 1;
+        for (int slot = spread(key.hashCode()) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int position = table[slot] - 1;
+            if (names[position].equals(key)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    public V get(Object key) {
+        int position = find(key);
+        return position < 0 ? null : values[position];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super V> action) {
+        for (int i = 0; i < names.length; i++) {
+            action.accept(names[i], values[i]);
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, V>> entrySet() {
+        return new AbstractSet<Map.Entry<String, V>>() {
+            @Override
+            public int size() {
+                return names.length;
+            }
+
+            @Override
+            public Iterator<Map.Entry<String, V>> iterator() {
+                return new Iterator<Map.Entry<String, V>>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < names.length;
+                    }
+
+                    @Override
+                    public Map.Entry<String, V> next() {
+                        if (next >= names.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int position = next++;
+                        return new AbstractMap.SimpleImmutableEntry<>(names[position], values[position]);
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,402 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Builds the compact immutable trees returned by {@link JsoncMapper#readTreeCompact(String)}.
+ *
+ * <p>Containers are regular {@link ObjectNode} and {@link ArrayNode} instances backed by
+ * compact read-only collections instead of a {@code LinkedHashMap} or {@code ArrayList}:
+ * <ul>
+ *   <li>objects keep names and values in two parallel arrays, looked up linearly when small
+ *       and through an open-addressing (linear probing) table otherwise;</li>
+ *   <li>arrays holding only integers or only doubles keep them in an {@code int[]},
+ *       {@code long[]} or {@code double[]} and create number nodes on access;</li>
+ *   <li>booleans and nulls use Jackson's shared singleton nodes.</li>
+ * </ul>
+ * Modifying a compact container throws {@link UnsupportedOperationException};
+ * {@link JsonNode#deepCopy()} returns an ordinary mutable tree.
+ *
+ * <p>With a {@link NodeInterner}, every string, number and container node is hashed
+ * bottom-up while it is built and replaced by its canonical instance, so identical
+ * fragments are shared across all trees read through the same table.
+ */
+final class CompactTreeBuilder {
+
+    private static final String[] NO_NAMES = new String[0];
+    private static final JsonNode[] NO_NODES = new JsonNode[0];
+
+    private final JsonNodeFactory nodeFactory;
+    private final boolean bigDecimalFloats;
+    private final NodeInterner interner;
+
+    /** One hasher per nesting level while canonicalizing; the hash of the last value read. */
+    private StructuralHasher[] hashers;
+    private int depth;
+    private long lastHigh;
+    private long lastLow;
+
+    /**
+     * @param mapper mapper supplying the node factory and number settings
+     * @param interner table to canonicalize values through, or null to build plain compact trees
+     */
+    CompactTreeBuilder(ObjectMapper mapper, NodeInterner interner) {
+        this.nodeFactory = mapper.getNodeFactory();
+        this.bigDecimalFloats = mapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.interner = interner;
+        if (interner != null) {
+            hashers = new StructuralHasher[8];
+        }
+    }
+
+    /**
+     * Reads the root value of a parser that has not been advanced yet.
+     *
+     * @return compact tree, or a missing node if there is no content
+     */
+    JsonNode readTree(JsonParser parser) throws IOException {
+        if (parser.nextToken() == null) {
+            return nodeFactory.missingNode();
+        }
+        return value(parser);
+    }
+
+    private JsonNode value(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            return object(p);
+        }
+        if (token == JsonToken.START_ARRAY) {
+            return array(p);
+        }
+        JsonNode node = scalar(p);
+        if (interner != null) {
+            hashScalar(p);
+            if (!node.isNull() && !node.isBoolean()) {
+                // Null and boolean nodes are singletons already
+                node = interner.intern(node, lastHigh, lastLow);
+            }
+        }
+        return node;
+    }
+
+    private JsonNode scalar(JsonParser p) throws IOException {
+        switch (p.currentToken()) {
+            case VALUE_STRING:
+                return nodeFactory.textNode(p.getText());
+            case VALUE_NUMBER_INT:
+                switch (p.getNumberType()) {
+                    case INT:
+                        return nodeFactory.numberNode(p.getIntValue());
+                    case LONG:
+                        return nodeFactory.numberNode(p.getLongValue());
+                    default:
+                        return nodeFactory.numberNode(p.getBigIntegerValue());
+                }
+            case VALUE_NUMBER_FLOAT:
+                // Infinity and NaN have no BigDecimal form and read as doubles, as in readTree
+                return bigDecimalFloats && !p.isNaN() ? nodeFactory.numberNode(p.getDecimalValue())
+                                        : nodeFactory.numberNode(p.getDoubleValue());
+            case VALUE_TRUE:
+                return nodeFactory.booleanNode(true);
+            case VALUE_FALSE:
+                return nodeFactory.booleanNode(false);
+            case VALUE_NULL:
+                return nodeFactory.nullNode();
+            default:
+                throw new JsonParseException(p, "Unexpected token " + p.currentToken());
+        }
+    }
+
+    private JsonNode object(JsonParser p) throws IOException {
+        String[] names = NO_NAMES;
+        JsonNode[] values = NO_NODES;
+        Map<String, Integer> positions = null;
+        int size = 0;
+        StructuralHasher hasher = beginContainer(StructuralHasher.TAG_OBJECT);
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            p.nextToken();
+            JsonNode value = value(p);
+            if (hasher != null) {
+                hasher.mix(StructuralHasher.TAG_FIELD);
+                hasher.string(name);
+                hasher.mix(lastHigh);
+                hasher.mix(lastLow);
+            }
+            int existing;
+            if (positions != null) {
+                Integer position = positions.get(name);
+                existing = position == null ? -1 : position;
+            } else {
+                existing = CompactMap.indexOf(names, size, name);
+            }
+            if (existing >= 0) {
+                // Duplicate names keep the first position and the last value, as in readTree
+                values[existing] = value;
+                continue;
+            }
+            if (size == names.length) {
+                int capacity = Math.max(4, size << 1);
+                names = Arrays.copyOf(names, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            names[size] = name;
+            values[size] = value;
+            if (positions != null) {
+                positions.put(name, size);
+            } else if (size == CompactMap.LINEAR_LOOKUP_LIMIT) {
+                // Large object: switch duplicate detection to a temporary hash map
+                positions = new HashMap<>();
+                for (int i = 0; i <= size; i++) {
+                    positions.put(names[i], i);
+                }
+            }
+            size++;
+        }
+        depth--;
+        if (size < names.length) {
+            names = Arrays.copyOf(names, size);
+            values = Arrays.copyOf(values, size);
+        }
+        return finishContainer(hasher, new ObjectNode(nodeFactory, new CompactMap<>(names, values)), size);
+    }
+
+    /**
+     * Reads an array, keeping integer-only and double-only arrays in primitive form until
+     * another kind of element shows up.
+     */
+    private JsonNode array(JsonParser p) throws IOException {
+        long[] longs = null;
+        double[] doubles = null;
+        JsonNode[] nodes = null;
+        boolean allInts = true;
+        int size = 0;
+        StructuralHasher hasher = beginContainer(StructuralHasher.TAG_ARRAY);
+        for (JsonToken t = p.nextToken(); t != JsonToken.END_ARRAY; t = p.nextToken()) {
+            if (nodes == null && doubles == null && t == JsonToken.VALUE_NUMBER_INT
+                    && p.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                if (longs == null) {
+                    longs = new long[8];
+                } else if (size == longs.length) {
+                    longs = Arrays.copyOf(longs, size << 1);
+                }
+                longs[size++] = p.getLongValue();
+                allInts &= p.getNumberType() == JsonParser.NumberType.INT;
+                mixScalar(hasher, p);
+                continue;
+            }
+            if (nodes == null && longs == null && t == JsonToken.VALUE_NUMBER_FLOAT
+                    && !bigDecimalFloats) {
+                if (doubles == null) {
+                    doubles = new double[8];
+                } else if (size == doubles.length) {
+                    doubles = Arrays.copyOf(doubles, size << 1);
+                }
+                doubles[size++] = p.getDoubleValue();
+                mixScalar(hasher, p);
+                continue;
+            }
+
+            if (nodes == null) {
+                // First element that breaks the primitive form
+                nodes = new JsonNode[Math.max(8, size << 1)];
+                for (int i = 0; i < size; i++) {
+                    nodes[i] = longs != null ? numberNode(nodeFactory, longs[i]) : nodeFactory.numberNode(doubles[i]);
+                }
+                longs = null;
+                doubles = null;
+            } else if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size << 1);
+            }
+            nodes[size++] = value(p);
+            if (hasher != null) {
+                hasher.mix(lastHigh);
+                hasher.mix(lastLow);
+            }
+        }
+        depth--;
+
+        List<JsonNode> elements;
+        if (longs != null) {
+            if (allInts) {
+                int[] ints = new int[size];
+                for (int i = 0; i < size; i++) {
+                    ints[i] = (int) longs[i];
+                }
+                elements = new IntElements(ints);
+            } else {
+                elements = new LongElements(Arrays.copyOf(longs, size));
+            }
+        } else if (doubles != null) {
+            elements = new DoubleElements(Arrays.copyOf(doubles, size));
+        } else {
+            elements = new NodeElements(nodes == null ? NO_NODES : Arrays.copyOf(nodes, size));
+        }
+        return finishContainer(hasher, new ArrayNode(nodeFactory, elements), size);
+    }
+
+    /**
+     * Enters a container; returns its hasher when canonicalizing, otherwise null.
+     */
+    private StructuralHasher beginContainer(int tag) {
+        StructuralHasher hasher = null;
+        if (interner != null) {
+            hasher = hasherAt(depth);
+            hasher.reset();
+            hasher.mix(tag);
+        }
+        depth++;
+        return hasher;
+    }
+
+    /**
+     * Completes the hash of a container (after leaving it) and canonicalizes the node.
+     */
+    private JsonNode finishContainer(StructuralHasher hasher, JsonNode node, int size) {
+        if (hasher == null) {
+            return node;
+        }
+        hasher.mix(size);
+        hasher.finish();
+        lastHigh = hasher.high();
+        lastLow = hasher.low();
+        return interner.intern(node, lastHigh, lastLow);
+    }
+
+    private void mixScalar(StructuralHasher hasher, JsonParser p) throws IOException {
+        if (hasher != null) {
+            hashScalar(p);
+            hasher.mix(lastHigh);
+            hasher.mix(lastLow);
+        }
+    }
+
+    private void hashScalar(JsonParser p) throws IOException {
+        StructuralHasher hasher = hasherAt(depth);
+        hasher.reset();
+        hasher.value(p);
+        hasher.finish();
+        lastHigh = hasher.high();
+        lastLow = hasher.low();
+    }
+
+    private StructuralHasher hasherAt(int level) {
+        if (level == hashers.length) {
+            hashers = Arrays.copyOf(hashers, level << 1);
+        }
+        StructuralHasher hasher = hashers[level];
+        if (hasher == null) {
+            hasher = new StructuralHasher(false);
+            hashers[level] = hasher;
+        }
+        return hasher;
+    }
+
+    /**
+     * Creates the node type readTree produces for an integer: int when it fits, else long.
+     */
+    private static JsonNode numberNode(JsonNodeFactory nodeFactory, long value) {
+        return value == (int) value ? nodeFactory.numberNode((int) value) : nodeFactory.numberNode(value);
+    }
+
+    /**
+     * Read-only element list over a {@code JsonNode[]}.
+     */
+    private static final class NodeElements extends AbstractList<JsonNode> implements RandomAccess {
+        private final JsonNode[] values;
+
+        NodeElements(JsonNode[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public JsonNode get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
+    /**
+     * Read-only element list over an {@code int[]}.
+     */
+    private final class IntElements extends AbstractList<JsonNode> implements RandomAccess {
+        private final int[] values;
+
+        IntElements(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public JsonNode get(int index) {
+            return nodeFactory.numberNode(values[index]);
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
+    /**
+     * Read-only element list over a {@code long[]} (integers, some beyond the int range).
+     */
+    private final class LongElements extends AbstractList<JsonNode> implements RandomAccess {
+        private final long[] values;
+
+        LongElements(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public JsonNode get(int index) {
+            return numberNode(nodeFactory, values[index]);
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
+    /**
+     * Read-only element list over a {@code double[]}.
+     */
+    private final class DoubleElements extends AbstractList<JsonNode> implements RandomAccess {
+        private final double[] values;
+
+        DoubleElements(double[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public JsonNode get(int index) {
+            return nodeFactory.numberNode(values[index]);
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+}
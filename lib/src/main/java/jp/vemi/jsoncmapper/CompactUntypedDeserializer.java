@@ -0,0 +1,304 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.KeyDeserializer;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.deser.std.UntypedObjectDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleDeserializers;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.databind.type.LogicalType;
+import com.fasterxml.jackson.databind.type.MapType;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Untyped deserializer that binds JSON objects to {@link CompactMap}s and JSON arrays to
+ * compact read-only lists, registered by {@link JsoncMapper} when compact untyped values
+ * are enabled.
+ *
+ * <p>Scalars, {@code USE_JAVA_ARRAY_FOR_JSON_ARRAY} and custom {@code String} or
+ * {@code Number} deserializers are handled by {@link UntypedObjectDeserializer} as usual;
+ * only the containers differ. Duplicate names keep the first position and the last value,
+ * as with the default {@code LinkedHashMap}. Merging into a compact container replaces it
+ * instead, since it cannot be modified.
+ */
+final class CompactUntypedDeserializer extends UntypedObjectDeserializer {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] NO_NAMES = new String[0];
+
+    CompactUntypedDeserializer() {
+        super(null, null);
+    }
+
+    @Override
+    public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+        super.resolve(ctxt);
+        // The Map and List deserializers below are found as "custom" ones; they would only
+        // call back into this instance
+        if (_mapDeserializer instanceof CompactMapDeserializer) {
+            _mapDeserializer = null;
+        }
+        if (_listDeserializer instanceof CompactListDeserializer) {
+            _listDeserializer = null;
+        }
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+        // The base class may replace itself with a plain instance here
+        return this;
+    }
+
+    @Override
+    public Object deserialize(JsonParser p, DeserializationContext ctxt, Object intoValue) throws IOException {
+        if (intoValue instanceof CompactMap || intoValue instanceof CompactList) {
+            return deserialize(p, ctxt);
+        }
+        return super.deserialize(p, ctxt, intoValue);
+    }
+
+    @Override
+    protected Object mapObject(JsonParser p, DeserializationContext ctxt) throws IOException {
+        String name;
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            name = p.nextFieldName();
+        } else if (token == JsonToken.FIELD_NAME) {
+            name = p.currentName();
+        } else if (token == JsonToken.END_OBJECT) {
+            name = null;
+        } else {
+            return ctxt.handleUnexpectedToken(handledType(), p);
+        }
+        if (name == null) {
+            return new CompactMap<>(NO_NAMES, NO_OBJECTS);
+        }
+
+        String[] names = new String[4];
+        Object[] values = new Object[4];
+        Map<String, Integer> positions = null;
+        int size = 0;
+        for (; name != null; name = p.nextFieldName()) {
+            p.nextToken();
+            Object value = deserialize(p, ctxt);
+            int existing;
+            if (positions != null) {
+                Integer position = positions.get(name);
+                existing = position == null ? -1 : position;
+            } else {
+                existing = CompactMap.indexOf(names, size, name);
+            }
+            if (existing >= 0) {
+                values[existing] = value;
+                continue;
+            }
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size << 1);
+                values = Arrays.copyOf(values, size << 1);
+            }
+            names[size] = name;
+            values[size] = value;
+            if (positions != null) {
+                positions.put(name, size);
+            } else if (size == CompactMap.LINEAR_LOOKUP_LIMIT) {
+                // Large object: switch duplicate detection to a temporary hash map
+                positions = new HashMap<>();
+                for (int i = 0; i <= size; i++) {
+                    positions.put(names[i], i);
+                }
+            }
+            size++;
+        }
+        if (size < names.length) {
+            names = Arrays.copyOf(names, size);
+            values = Arrays.copyOf(values, size);
+        }
+        return new CompactMap<>(names, values);
+    }
+
+    @Override
+    protected Object mapArray(JsonParser p, DeserializationContext ctxt) throws IOException {
+        Object[] values = NO_OBJECTS;
+        int size = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.max(4, size << 1));
+            }
+            values[size++] = deserialize(p, ctxt);
+        }
+        return new CompactList(size == values.length ? values : Arrays.copyOf(values, size));
+    }
+
+    /**
+     * Read-only list over a trimmed {@code Object[]}.
+     */
+    static final class CompactList extends AbstractList<Object> implements RandomAccess {
+        private final Object[] values;
+
+        CompactList(Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Object get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
+    /**
+     * Binds {@code Map<String, Object>} (and raw {@code Map}) targets to compact maps.
+     */
+    private static final class CompactMapDeserializer extends StdDeserializer<Object> implements ResolvableDeserializer {
+        private static final long serialVersionUID = 1L;
+
+        private final CompactUntypedDeserializer values;
+
+        CompactMapDeserializer(CompactUntypedDeserializer values) {
+            super(Map.class);
+            this.values = values;
+        }
+
+        @Override
+        public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT || token == JsonToken.FIELD_NAME || token == JsonToken.END_OBJECT) {
+                return values.mapObject(p, ctxt);
+            }
+            return ctxt.handleUnexpectedToken(Map.class, p);
+        }
+
+        @Override
+        public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+            // Resolve the shared instance through the cache before it is used from here
+            ctxt.findNonContextualValueDeserializer(ctxt.constructType(Object.class));
+        }
+
+        @Override
+        public LogicalType logicalType() {
+            return LogicalType.Map;
+        }
+    }
+
+    /**
+     * Binds {@code List<Object>} and {@code Collection<Object>} targets to compact lists.
+     */
+    private static final class CompactListDeserializer extends StdDeserializer<Object> implements ResolvableDeserializer {
+        private static final long serialVersionUID = 1L;
+
+        private final CompactUntypedDeserializer values;
+
+        CompactListDeserializer(CompactUntypedDeserializer values) {
+            super(List.class);
+            this.values = values;
+        }
+
+        @Override
+        public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.isExpectedStartArrayToken()) {
+                return values.mapArray(p, ctxt);
+            }
+            return ctxt.handleUnexpectedToken(List.class, p);
+        }
+
+        @Override
+        public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+            // Resolve the shared instance through the cache before it is used from here
+            ctxt.findNonContextualValueDeserializer(ctxt.constructType(Object.class));
+        }
+
+        @Override
+        public LogicalType logicalType() {
+            return LogicalType.Collection;
+        }
+    }
+
+    /**
+     * Supplies the compact deserializers for {@code Object}, untyped {@code Map} and untyped
+     * {@code List}/{@code Collection} targets, after any deserializer explicitly added for the
+     * exact type. Concrete types such as {@code HashMap} and maps or lists with typed values
+     * are left to Jackson.
+     */
+    static final class Lookup extends SimpleDeserializers {
+        private static final long serialVersionUID = 1L;
+
+        private final CompactUntypedDeserializer values = new CompactUntypedDeserializer();
+        private final CompactMapDeserializer maps = new CompactMapDeserializer(values);
+        private final CompactListDeserializer lists = new CompactListDeserializer(values);
+
+        @Override
+        public JsonDeserializer<?> findBeanDeserializer(JavaType type, DeserializationConfig config,
+                                                        BeanDescription beanDesc) throws JsonMappingException {
+            JsonDeserializer<?> deserializer = super.findBeanDeserializer(type, config, beanDesc);
+            if (deserializer != null) {
+                return deserializer;
+            }
+            return type.hasRawClass(Object.class) ? values : null;
+        }
+
+        @Override
+        public JsonDeserializer<?> findMapDeserializer(MapType type, DeserializationConfig config,
+                                                       BeanDescription beanDesc, KeyDeserializer keyDeserializer,
+                                                       TypeDeserializer elementTypeDeserializer,
+                                                       JsonDeserializer<?> elementDeserializer)
+                throws JsonMappingException {
+            JsonDeserializer<?> deserializer = super.findMapDeserializer(type, config, beanDesc, keyDeserializer,
+                                                                         elementTypeDeserializer, elementDeserializer);
+            if (deserializer != null) {
+                return deserializer;
+            }
+            if (!type.hasRawClass(Map.class) || keyDeserializer != null
+                    || elementTypeDeserializer != null || elementDeserializer != null) {
+                return null;
+            }
+            Class<?> keyClass = type.getKeyType().getRawClass();
+            if (keyClass != String.class && keyClass != Object.class) {
+                return null;
+            }
+            return type.getContentType().hasRawClass(Object.class) ? maps : null;
+        }
+
+        @Override
+        public JsonDeserializer<?> findCollectionDeserializer(CollectionType type, DeserializationConfig config,
+                                                              BeanDescription beanDesc,
+                                                              TypeDeserializer elementTypeDeserializer,
+                                                              JsonDeserializer<?> elementDeserializer)
+                throws JsonMappingException {
+            JsonDeserializer<?> deserializer = super.findCollectionDeserializer(type, config, beanDesc,
+                                                                                elementTypeDeserializer, elementDeserializer);
+            if (deserializer != null) {
+                return deserializer;
+            }
+            if (!type.hasRawClass(List.class) && !type.hasRawClass(Collection.class)) {
+                return null;
+            }
+            if (elementTypeDeserializer != null || elementDeserializer != null) {
+                return null;
+            }
+            return type.getContentType().hasRawClass(Object.class) ? lists : null;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package jp.vemi.jsoncmapper;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-classed pool of direct {@link ByteBuffer}s owned by a {@link JsoncMapper}, used to
+ * hold preprocessed content off the Java heap while Jackson parses it.
+ *
+ * <p>Buffer capacities are powers of two from 64 KiB to 1 GiB. Released buffers are kept
+ * for reuse up to {@link #RETAINED_PER_CLASS} per size class and {@link #MAX_RETAINED_BYTES}
+ * in total; other buffers are left to the garbage collector, which frees their native
+ * memory. All methods are thread-safe.
+ */
+final class DirectBufferArena {
+
+    private static final int MIN_CLASS_SHIFT = 16;
+    private static final int MAX_CLASS_SHIFT = 30;
+
+    /** Number of idle buffers kept per size class. */
+    static final int RETAINED_PER_CLASS = 4;
+
+    /** Upper bound on the total capacity of idle buffers. */
+    static final long MAX_RETAINED_BYTES = 256L << 20;
+
+    private final ConcurrentLinkedQueue<ByteBuffer>[] pools;
+    private final AtomicInteger[] pooledCounts;
+    private final AtomicLong retainedBytes = new AtomicLong();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    DirectBufferArena() {
+        int classes = MAX_CLASS_SHIFT - MIN_CLASS_SHIFT + 1;
+        pools = new ConcurrentLinkedQueue[classes];
+        pooledCounts = new AtomicInteger[classes];
+        for (int i = 0; i < classes; i++) {
+            pools[i] = new ConcurrentLinkedQueue<>();
+            pooledCounts[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Returns a cleared direct buffer with at least the given capacity, reusing an idle one
+     * of the matching size class when available.
+     */
+    ByteBuffer acquire(int minCapacity) {
+        int shift = Math.max(MIN_CLASS_SHIFT, 32 - Integer.numberOfLeadingZeros(minCapacity - 1));
+        if (shift > MAX_CLASS_SHIFT) {
+            return ByteBuffer.allocateDirect(minCapacity);
+        }
+        int index = shift - MIN_CLASS_SHIFT;
+        ByteBuffer buffer = pools[index].poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(1 << shift);
+        }
+        pooledCounts[index].decrementAndGet();
+        retainedBytes.addAndGet(-buffer.capacity());
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer obtained from {@link #acquire(int)}; it must not be used afterwards.
+     */
+    void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (Integer.bitCount(capacity) != 1 || capacity < (1 << MIN_CLASS_SHIFT)) {
+            return;
+        }
+        int index = Integer.numberOfTrailingZeros(capacity) - MIN_CLASS_SHIFT;
+        if (index >= pools.length) {
+            return;
+        }
+        if (pooledCounts[index].incrementAndGet() > RETAINED_PER_CLASS) {
+            pooledCounts[index].decrementAndGet();
+            return;
+        }
+        if (retainedBytes.addAndGet(capacity) > MAX_RETAINED_BYTES) {
+            retainedBytes.addAndGet(-capacity);
+            pooledCounts[index].decrementAndGet();
+            return;
+        }
+        pools[index].offer(buffer);
+    }
+
+    /**
+     * Creates an output that encodes characters to UTF-8 in buffers of this arena.
+     *
+     * @param expectedLength expected number of characters, used to size the first buffer
+     */
+    Output newOutput(int expectedLength) {
+        return new Output(acquire(Math.max(1, expectedLength)));
+    }
+
+    /**
+     * UTF-8 encoding {@link JsoncUtils.CharOutput} over an arena buffer, which is replaced by
+     * a buffer of the next size class when full. Closing it returns the buffer to the arena.
+     */
+    final class Output implements JsoncUtils.CharOutput, AutoCloseable {
+        private ByteBuffer buffer;
+        private char highSurrogate;
+
+        private Output(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void append(char c) {
+            ByteBuffer out = buffer;
+            if (out.remaining() < 4) {
+                out = grow();
+            }
+            if (c < 0x80 && highSurrogate == 0) {
+                out.put((byte) c);
+            } else {
+                appendNonAscii(out, c);
+            }
+        }
+
+        private void appendNonAscii(ByteBuffer out, char c) {
+            if (highSurrogate != 0) {
+                char high = highSurrogate;
+                highSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    int codePoint = Character.toCodePoint(high, c);
+                    out.put((byte) (0xF0 | (codePoint >> 18)));
+                    out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    out.put((byte) (0x80 | (codePoint & 0x3F)));
+                    return;
+                }
+                // Unpaired surrogate: replaced like String.getBytes does
+                out.put((byte) '?');
+                append(c);
+                return;
+            }
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c)) {
+                highSurrogate = c;
+            } else if (Character.isLowSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+
+        private ByteBuffer grow() {
+            long needed = (long) buffer.capacity() << 1;
+            if (needed > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Preprocessed content exceeds the maximum direct buffer size");
+            }
+            ByteBuffer larger = acquire((int) needed);
+            buffer.flip();
+            larger.put(buffer);
+            release(buffer);
+            buffer = larger;
+            return larger;
+        }
+
+        /**
+         * Returns a stream over the bytes written so far; no characters may be appended afterwards.
+         */
+        InputStream toInputStream() {
+            if (highSurrogate != 0) {
+                highSurrogate = 0;
+                if (!buffer.hasRemaining()) {
+                    grow();
+                }
+                buffer.put((byte) '?');
+            }
+            ByteBuffer content = buffer.duplicate();
+            content.flip();
+            return new BufferInputStream(content);
+        }
+
+        @Override
+        public void close() {
+            ByteBuffer released = buffer;
+            if (released != null) {
+                buffer = null;
+                release(released);
+            }
+        }
+    }
+
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package jp.vemi.jsoncmapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Converts hexadecimal number literals of a UTF-8 JSONC byte stream to decimal while it is
+ * read, used by the offset index so that large files are tokenized without holding them in
+ * memory.
+ *
+ * <p>The conversion follows {@link JsoncUtils#convertHexNumbersPreservingOffsets(String, boolean)}:
+ * strings and comments are skipped, and shorter decimal forms are padded with spaces. Only
+ * ASCII bytes are inspected, so multi-byte UTF-8 sequences pass through unchanged. The
+ * stream remembers where it converted literals until {@link #originalOffset(long)} and
+ * {@link #originalEnd(long)} have been asked about them, so byte offsets reported by a parser
+ * reading the stream can be mapped back to the source, including the rare literals whose
+ * decimal form is longer than the hex form.
+ *
+ * <p>Instances are not thread-safe; offsets must be queried in non-decreasing order.
+ */
+final class HexNumberInputStream extends InputStream {
+
+    private static final int NORMAL = 0;
+    private static final int STRING = 1;
+    private static final int SLASH = 2;
+    private static final int BLOCK_COMMENT = 3;
+    private static final int BLOCK_COMMENT_STAR = 4;
+    private static final int LINE_COMMENT = 5;
+    private static final int ZERO = 6;
+    private static final int ZERO_X = 7;
+    private static final int HEX = 8;
+
+    private final InputStream in;
+    private final boolean singleQuotes;
+
+    private final byte[] input = new byte[8192];
+    private int inputPos;
+    private int inputLimit;
+    private boolean eof;
+
+    private byte[] output = new byte[8192];
+    private int outputPos;
+    private int outputLimit;
+
+    private int state = NORMAL;
+    private byte quote;
+    private boolean escaped;
+    private byte x;
+    private final StringBuilder digits = new StringBuilder();
+    private final StringBuilder decimal = new StringBuilder();
+
+    /** Source bytes consumed and converted bytes produced so far. */
+    private long consumed;
+    private long produced;
+
+    /** Converted literals not yet passed by a query: decimal end, padded end, original end. */
+    private long[] literals = new long[48];
+    private int head;
+    private int count;
+    private long shift;
+
+    HexNumberInputStream(InputStream in, boolean singleQuotes) {
+        if (in == null) {
+            throw new IllegalArgumentException("Input stream cannot be null");
+        }
+        this.in = in;
+        this.singleQuotes = singleQuotes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureOutput()) {
+            return -1;
+        }
+        return output[outputPos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureOutput()) {
+            return -1;
+        }
+        int n = Math.min(len, outputLimit - outputPos);
+        System.arraycopy(output, outputPos, b, off, n);
+        outputPos += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Maps an offset in the converted stream to the source.
+     *
+     * @param offset byte offset in the converted stream
+     * @return byte offset in the source
+     */
+    long originalOffset(long offset) {
+        return map(offset, false);
+    }
+
+    /**
+     * Maps the end offset of a token to the source, covering the whole of a converted hex
+     * literal that ends there, padding included.
+     *
+     * @param offset byte offset just past a token in the converted stream
+     * @return byte offset in the source
+     */
+    long originalEnd(long offset) {
+        return map(offset, true);
+    }
+
+    private long map(long offset, boolean end) {
+        while (head < count) {
+            int literal = head * 3;
+            if (end && offset == literals[literal]) {
+                return literals[literal + 2];
+            }
+            if (offset < literals[literal + 1]) {
+                break;
+            }
+            shift = literals[literal + 1] - literals[literal + 2];
+            head++;
+        }
+        return offset - shift;
+    }
+
+    private boolean ensureOutput() throws IOException {
+        while (outputPos == outputLimit) {
+            outputPos = 0;
+            outputLimit = 0;
+            if (inputPos == inputLimit) {
+                if (eof) {
+                    return false;
+                }
+                int n = in.read(input);
+                if (n < 0) {
+                    eof = true;
+                    finish();
+                    continue;
+                }
+                inputPos = 0;
+                inputLimit = n;
+            }
+            while (inputPos < inputLimit) {
+                consumed++;
+                process(input[inputPos++]);
+            }
+        }
+        return true;
+    }
+
+    private void process(byte c) {
+        switch (state) {
+            case STRING:
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == quote) {
+                    state = NORMAL;
+                }
+                emit(c);
+                return;
+            case SLASH:
+                if (c == '*') {
+                    state = BLOCK_COMMENT;
+                    emit(c);
+                    return;
+                }
+                if (c == '/') {
+                    state = LINE_COMMENT;
+                    emit(c);
+                    return;
+                }
+                state = NORMAL;
+                break;
+            case BLOCK_COMMENT:
+                if (c == '*') {
+                    state = BLOCK_COMMENT_STAR;
+                }
+                emit(c);
+                return;
+            case BLOCK_COMMENT_STAR:
+                if (c == '/') {
+                    state = NORMAL;
+                } else if (c != '*') {
+                    state = BLOCK_COMMENT;
+                }
+                emit(c);
+                return;
+            case LINE_COMMENT:
+                if (c == '\n' || c == '\r') {
+                    state = NORMAL;
+                }
+                emit(c);
+                return;
+            case ZERO:
+                if (c == 'x' || c == 'X') {
+                    x = c;
+                    state = ZERO_X;
+                    return;
+                }
+                emit((byte) '0');
+                state = NORMAL;
+                break;
+            case ZERO_X:
+                if (isHexDigit(c)) {
+                    digits.setLength(0);
+                    digits.append((char) c);
+                    state = HEX;
+                    return;
+                }
+                emit((byte) '0');
+                emit(x);
+                state = NORMAL;
+                break;
+            case HEX:
+                if (isHexDigit(c)) {
+                    digits.append((char) c);
+                    return;
+                }
+                // The current byte is already counted in consumed
+                convert(consumed - 1);
+                state = NORMAL;
+                break;
+            default:
+                break;
+        }
+
+        if (c == '"' || (c == '\'' && singleQuotes)) {
+            quote = c;
+            state = STRING;
+        } else if (c == '/') {
+            state = SLASH;
+        } else if (c == '0') {
+            state = ZERO;
+            return;
+        }
+        emit(c);
+    }
+
+    /**
+     * Flushes a literal still pending at the end of the input.
+     */
+    private void finish() {
+        if (state == ZERO) {
+            emit((byte) '0');
+        } else if (state == ZERO_X) {
+            emit((byte) '0');
+            emit(x);
+        } else if (state == HEX) {
+            convert(consumed);
+        }
+        state = NORMAL;
+    }
+
+    /**
+     * Writes the pending hex digits as a padded decimal literal and records its offsets.
+     *
+     * @param originalEnd source offset just past the hex literal
+     */
+    private void convert(long originalEnd) {
+        decimal.setLength(0);
+        JsoncUtils.appendHexAsDecimal(digits, 0, digits.length(), decimal);
+        int length = decimal.length();
+        for (int i = 0; i < length; i++) {
+            emit((byte) decimal.charAt(i));
+        }
+        long decimalEnd = produced;
+        for (int pad = digits.length() + 2 - length; pad > 0; pad--) {
+            emit((byte) ' ');
+        }
+        record(decimalEnd, produced, originalEnd);
+    }
+
+    private void record(long decimalEnd, long paddedEnd, long originalEnd) {
+        if (head == count) {
+            head = 0;
+            count = 0;
+        }
+        if (count * 3 == literals.length) {
+            if (head > 0) {
+                System.arraycopy(literals, head * 3, literals, 0, (count - head) * 3);
+                count -= head;
+                head = 0;
+            } else {
+                literals = Arrays.copyOf(literals, literals.length << 1);
+            }
+        }
+        int literal = count * 3;
+        literals[literal] = decimalEnd;
+        literals[literal + 1] = paddedEnd;
+        literals[literal + 2] = originalEnd;
+        count++;
+    }
+
+    private void emit(byte c) {
+        if (outputLimit == output.length) {
+            output = Arrays.copyOf(output, output.length << 1);
+        }
+        output[outputLimit++] = c;
+        produced++;
+    }
+
+    private static boolean isHexDigit(byte c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+}
@@ -0,0 +1,78 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonPointer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Structural difference between two JSONC documents, as computed by
+ * {@link JsoncMapper#diff(String, String)}.
+ *
+ * <p>Paths are JSON Pointers into the documents. Object members are matched by key
+ * (member order is ignored); array elements are matched by position, so an insertion in
+ * the middle of an array reports the following elements as changed. A changed path is
+ * reported at the highest level where the two sides stop being comparable: a scalar whose
+ * value differs, or a value whose type differs.
+ *
+ * @since 1.1.0
+ */
+public final class JsoncDiff {
+
+    private final List<JsonPointer> added;
+    private final List<JsonPointer> removed;
+    private final List<JsonPointer> changed;
+
+    private JsoncDiff(List<JsonPointer> added, List<JsonPointer> removed, List<JsonPointer> changed) {
+        this.added = Collections.unmodifiableList(added);
+        this.removed = Collections.unmodifiableList(removed);
+        this.changed = Collections.unmodifiableList(changed);
+    }
+
+    /**
+     * @return paths present only in the new document
+     */
+    public List<JsonPointer> getAdded() {
+        return added;
+    }
+
+    /**
+     * @return paths present only in the old document
+     */
+    public List<JsonPointer> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return paths present in both documents with different values
+     */
+    public List<JsonPointer> getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return true if the documents are semantically equal
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "JsoncDiff[added=" + added + ", removed=" + removed + ", changed=" + changed + "]";
+    }
+
+    /**
+     * Mutable accumulator used while comparing.
+     */
+    static final class Collector {
+        final List<JsonPointer> added = new ArrayList<>();
+        final List<JsonPointer> removed = new ArrayList<>();
+        final List<JsonPointer> changed = new ArrayList<>();
+
+        JsoncDiff toDiff() {
+            return new JsoncDiff(added, removed, changed);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.json.ByteSourceJsonBootstrapper;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * The single factory of a {@link JsoncMapper}, returned by its {@code getFactory()}, so
+ * features configured on the mapper or the factory apply to every parser and generator.
+ *
+ * <p>Comments and the configured JSON5 features are handled by Jackson's read features,
+ * set through the builder. Hexadecimal numbers have no Jackson equivalent; when they are
+ * enabled, every parser-creation path converts them with
+ * {@link JsoncUtils#convertHexNumbersPreservingOffsets(String, boolean)} before tokenizing,
+ * which requires decoding and reading byte and stream input fully. Likewise, with multiline
+ * strings the line breaks inside strings are escaped with
+ * {@link JsoncUtils#escapeLineBreaksInStrings(String, boolean)}, so that Jackson's
+ * {@code ALLOW_UNESCAPED_CONTROL_CHARS} can stay off and other control characters are still
+ * rejected; positions after such a string move by one per line break. When the mapper has
+ * custom rewrite rules, which the tokenizer cannot read, the whole preprocessing of the mapper
+ * runs instead, so positions reported by the parsers refer to the preprocessed content.
+ * {@code DataInput} sources are not converted.
+ */
+final class JsoncFactory extends JsonFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean convertHexNumbers;
+    private final boolean escapeLineBreaks;
+    private final boolean singleQuotes;
+    /** Preprocessing of a mapper with rewrite rules, or null; set again after deserialization. */
+    private transient JsoncPreprocessor rulePreprocessor;
+
+    /**
+     * @param builder builder carrying the read features
+     * @param convertHexNumbers whether hexadecimal numbers are converted before tokenizing
+     * @param escapeLineBreaks whether line breaks in strings are escaped before tokenizing
+     * @param singleQuotes whether single-quoted strings must be protected from the conversion
+     */
+    JsoncFactory(JsonFactoryBuilder builder, boolean convertHexNumbers, boolean escapeLineBreaks,
+                 boolean singleQuotes) {
+        super(builder);
+        this.convertHexNumbers = convertHexNumbers;
+        this.escapeLineBreaks = escapeLineBreaks;
+        this.singleQuotes = singleQuotes;
+    }
+
+    private JsoncFactory(JsoncFactory source, ObjectCodec codec) {
+        super(source, codec);
+        this.convertHexNumbers = source.convertHexNumbers;
+        this.escapeLineBreaks = source.escapeLineBreaks;
+        this.singleQuotes = source.singleQuotes;
+        this.rulePreprocessor = source.rulePreprocessor;
+    }
+
+    /**
+     * Makes every parser-creation path preprocess its input, for a mapper with rewrite rules.
+     *
+     * @param rulePreprocessor preprocessing of the mapper, or null if it has no rules
+     */
+    void setRulePreprocessor(JsoncPreprocessor rulePreprocessor) {
+        this.rulePreprocessor = rulePreprocessor;
+    }
+
+    @Override
+    public JsonFactory copy() {
+        return new JsoncFactory(this, null);
+    }
+
+    /**
+     * Restores the subclass on deserialization, which {@code JsonFactory.readResolve()}
+     * would otherwise replace with a plain factory.
+     */
+    @Override
+    protected Object readResolve() {
+        return new JsoncFactory(this, _objectCodec);
+    }
+
+    /**
+     * Creates a parser for content that has already been converted, such as preprocessed
+     * content, so it is not scanned again and offsets computed on it stay valid.
+     *
+     * @param content converted content
+     * @return parser with the features of this factory
+     * @throws IOException if the parser cannot be created
+     */
+    JsonParser createConvertedParser(String content) throws IOException {
+        if (!converting()) {
+            return createParser(content);
+        }
+        char[] chars = content.toCharArray();
+        return createConvertedParser(chars, 0, chars.length);
+    }
+
+    /**
+     * Creates a parser for a range of converted characters.
+     *
+     * @see #createConvertedParser(String)
+     */
+    JsonParser createConvertedParser(char[] content, int offset, int len) throws IOException {
+        if (!converting()) {
+            return createParser(content, offset, len);
+        }
+        if (_inputDecorator != null) {
+            Reader r = new CharArrayReader(content, offset, len);
+            IOContext ctxt = _createContext(_createContentReference(r), false);
+            return super._createParser(_decorate(r, ctxt), ctxt);
+        }
+        IOContext ctxt = _createContext(_createContentReference(content, offset, len), true);
+        return super._createParser(content, offset, len, ctxt, false);
+    }
+
+    /**
+     * Creates a parser for converted bytes.
+     *
+     * @see #createConvertedParser(String)
+     */
+    JsonParser createConvertedParser(byte[] content) throws IOException {
+        if (!converting()) {
+            return createParser(content);
+        }
+        IOContext ctxt = _createContext(_createContentReference(content), true);
+        if (_inputDecorator != null) {
+            InputStream in = _inputDecorator.decorate(ctxt, content, 0, content.length);
+            if (in != null) {
+                return super._createParser(in, ctxt);
+            }
+        }
+        return super._createParser(content, 0, content.length, ctxt);
+    }
+
+    /**
+     * Creates a parser that owns (and eventually closes) a stream of converted bytes.
+     *
+     * @see #createConvertedParser(String)
+     */
+    JsonParser createConvertedParser(InputStream in) throws IOException {
+        if (!converting()) {
+            return createParser(in);
+        }
+        IOContext ctxt = _createContext(_createContentReference(in), false);
+        return super._createParser(_decorate(in, ctxt), ctxt);
+    }
+
+    @Override
+    protected JsonParser _createParser(InputStream in, IOContext ctxt) throws IOException {
+        if (!converting()) {
+            return super._createParser(in, ctxt);
+        }
+        return _createParser(decode(new ByteSourceJsonBootstrapper(ctxt, in)), ctxt);
+    }
+
+    @Override
+    protected JsonParser _createParser(Reader r, IOContext ctxt) throws IOException {
+        if (!converting()) {
+            return super._createParser(r, ctxt);
+        }
+        StringBuilder content = new StringBuilder();
+        char[] buffer = new char[8192];
+        try {
+            for (int n; (n = r.read(buffer)) != -1; ) {
+                content.append(buffer, 0, n);
+            }
+        } finally {
+            if (ctxt.isResourceManaged() || isEnabled(JsonParser.Feature.AUTO_CLOSE_SOURCE)) {
+                r.close();
+            }
+        }
+        char[] converted = convert(content.toString()).toCharArray();
+        return super._createParser(converted, 0, converted.length, ctxt, false);
+    }
+
+    @Override
+    protected JsonParser _createParser(char[] data, int offset, int len, IOContext ctxt,
+                                       boolean recyclable) throws IOException {
+        if (!converting()) {
+            return super._createParser(data, offset, len, ctxt, recyclable);
+        }
+        String content = new String(data, offset, len);
+        String converted = convert(content);
+        if (converted == content) {
+            return super._createParser(data, offset, len, ctxt, recyclable);
+        }
+        if (recyclable && converted.length() == len) {
+            // The buffer belongs to the factory: convert in place
+            converted.getChars(0, len, data, offset);
+            return super._createParser(data, offset, len, ctxt, true);
+        }
+        char[] chars = converted.toCharArray();
+        return super._createParser(chars, 0, chars.length, ctxt, false);
+    }
+
+    @Override
+    protected JsonParser _createParser(byte[] data, int offset, int len, IOContext ctxt) throws IOException {
+        if (!converting()) {
+            return super._createParser(data, offset, len, ctxt);
+        }
+        return _createParser(decode(new ByteSourceJsonBootstrapper(ctxt, data, offset, len)), ctxt);
+    }
+
+    /**
+     * Returns a reader decoding byte input in the encoding detected the way Jackson's own
+     * byte parsers detect it (BOM or the pattern of zero bytes), so UTF-16 and UTF-32 input
+     * is read like it is without the conversion.
+     */
+    private static Reader decode(ByteSourceJsonBootstrapper bootstrapper) throws IOException {
+        bootstrapper.detectEncoding();
+        return bootstrapper.constructReader();
+    }
+
+    private boolean converting() {
+        return convertHexNumbers || escapeLineBreaks || rulePreprocessor != null;
+    }
+
+    /**
+     * Converts content the way the parser-creation paths do before tokenizing.
+     *
+     * @param content original content
+     * @return content to tokenize, the same instance if nothing needs converting
+     */
+    String convert(String content) {
+        if (rulePreprocessor != null) {
+            return rulePreprocessor.apply(content);
+        }
+        String converted = content;
+        if (convertHexNumbers) {
+            converted = JsoncUtils.convertHexNumbersPreservingOffsets(converted, singleQuotes);
+        }
+        if (escapeLineBreaks) {
+            converted = JsoncUtils.escapeLineBreaksInStrings(converted, singleQuotes);
+        }
+        return converted;
+    }
+}
@@ -0,0 +1,103 @@
+package jp.vemi.jsoncmapper;
+
+/**
+ * 128-bit semantic fingerprint of a JSONC document.
+ *
+ * <p>Two documents have the same fingerprint when they contain the same values, regardless
+ * of comments, whitespace, trailing commas or number spelling (and, optionally, key order).
+ * Floating-point numbers compare by exact decimal value, so {@code 1.50} equals {@code 1.5}
+ * but two decimals that differ only beyond double precision do not.
+ * Fingerprints are computed by {@link JsoncMapper#fingerprint(String)} while streaming,
+ * without building a tree, and are suitable as cache keys. They are not cryptographic hashes.
+ *
+ * @since 1.1.0
+ * @see JsoncMapper#fingerprint(String, boolean)
+ */
+public final class JsoncFingerprint {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long high;
+    private final long low;
+
+    /**
+     * Creates a fingerprint from its two 64-bit halves.
+     *
+     * @param high upper 64 bits
+     * @param low lower 64 bits
+     */
+    public JsoncFingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Parses a fingerprint from the 32-character form produced by {@link #toHexString()}.
+     *
+     * @param hex 32 hexadecimal characters
+     * @return parsed fingerprint
+     * @throws IllegalArgumentException if hex is null or malformed
+     */
+    public static JsoncFingerprint fromHexString(String hex) {
+        if (hex == null) {
+            throw new IllegalArgumentException("Input cannot be null");
+        }
+        if (hex.length() != 32) {
+            throw new IllegalArgumentException("Fingerprint must have 32 hex characters: " + hex);
+        }
+        try {
+            return new JsoncFingerprint(Long.parseUnsignedLong(hex.substring(0, 16), 16),
+                                        Long.parseUnsignedLong(hex.substring(16), 16));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid fingerprint: " + hex, e);
+        }
+    }
+
+    /**
+     * @return upper 64 bits
+     */
+    public long getHigh() {
+        return high;
+    }
+
+    /**
+     * @return lower 64 bits
+     */
+    public long getLow() {
+        return low;
+    }
+
+    /**
+     * @return the fingerprint as 32 lowercase hexadecimal characters
+     */
+    public String toHexString() {
+        char[] chars = new char[32];
+        for (int i = 0; i < 16; i++) {
+            chars[i] = HEX[(int) (high >>> (60 - 4 * i)) & 0xF];
+            chars[16 + i] = HEX[(int) (low >>> (60 - 4 * i)) & 0xF];
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof JsoncFingerprint)) {
+            return false;
+        }
+        JsoncFingerprint other = (JsoncFingerprint) obj;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (low ^ (low >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return toHexString();
+    }
+}
@@ -0,0 +1,102 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Property type that defers binding of a sub-document until it is first used.
+ *
+ * <p>When a {@link JsoncMapper} binds a property declared as {@code JsoncLazy<T>}, it only
+ * records the JSON text of the property's value; no {@code T} is created. The first call
+ * to {@link #get()} binds that text to {@code T} and caches the result. This keeps large,
+ * rarely read sub-documents such as embedded templates or schemas cheap to load.
+ *
+ * <pre>{@code
+ * public class Config {
+ *     public String name;
+ *     public JsoncLazy<Schema> schema; // bound on first schema.get()
+ * }
+ * }</pre>
+ *
+ * <p>Instances are thread-safe; concurrent first calls to {@code get()} bind only once.
+ * Serializing an unresolved instance writes the recorded text without binding it. A JSON
+ * {@code null} yields a null property, as for any other reference type.
+ *
+ * @param <T> type of the deferred value
+ * @since 1.1.0
+ */
+public final class JsoncLazy<T> {
+
+    private final JsoncMapper mapper;
+    private final JavaType valueType;
+    private String json;
+    private T value;
+    private volatile boolean resolved;
+
+    JsoncLazy(JsoncMapper mapper, JavaType valueType, String json) {
+        this.mapper = mapper;
+        this.valueType = valueType;
+        this.json = json;
+    }
+
+    /**
+     * Creates an already resolved instance holding the given value.
+     *
+     * @param <T> type of the value
+     * @param value value to hold (may be null)
+     * @return resolved instance
+     */
+    public static <T> JsoncLazy<T> of(T value) {
+        JsoncLazy<T> lazy = new JsoncLazy<>(null, null, null);
+        lazy.value = value;
+        lazy.resolved = true;
+        return lazy;
+    }
+
+    /**
+     * Returns the value, binding the recorded text on the first call.
+     *
+     * @return the bound value
+     * @throws UncheckedIOException if the recorded text cannot be bound to the target type;
+     *         a later call retries the binding
+     */
+    public T get() {
+        if (!resolved) {
+            synchronized (this) {
+                if (!resolved) {
+                    try {
+                        // The text was recorded after preprocessing and must not be rewritten again
+                        value = mapper.readConverted(json, valueType);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    // The text is no longer needed once bound
+                    json = null;
+                    resolved = true;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return true if the value has been bound (or was given directly)
+     */
+    public boolean isResolved() {
+        return resolved;
+    }
+
+    /**
+     * @return the recorded JSON text, or null once resolved
+     */
+    synchronized String pendingJson() {
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return resolved ? "JsoncLazy[" + value + "]" : "JsoncLazy[unresolved]";
+    }
+}
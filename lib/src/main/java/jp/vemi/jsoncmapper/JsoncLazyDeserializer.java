@@ -0,0 +1,58 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Deserializer for {@link JsoncLazy} properties, registered by {@link JsoncMapper}.
+ *
+ * <p>Copies the tokens of the value into compact JSON text without binding them; the
+ * target type is taken from the property's type parameter.
+ */
+final class JsoncLazyDeserializer extends StdDeserializer<JsoncLazy<?>> implements ContextualDeserializer {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient JsoncMapper mapper;
+    private final JavaType valueType;
+
+    JsoncLazyDeserializer(JsoncMapper mapper) {
+        this(mapper, null);
+    }
+
+    private JsoncLazyDeserializer(JsoncMapper mapper, JavaType valueType) {
+        super(JsoncLazy.class);
+        this.mapper = mapper;
+        this.valueType = valueType;
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+        JavaType type = ctxt.getContextualType();
+        if (type == null && property != null) {
+            type = property.getType();
+        }
+        JavaType contained = type == null ? ctxt.getTypeFactory().constructType(Object.class)
+                                          : type.containedTypeOrUnknown(0);
+        return new JsoncLazyDeserializer(mapper, contained);
+    }
+
+    @Override
+    public JsoncLazy<?> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(writer)) {
+            generator.copyCurrentStructure(p);
+        }
+        JavaType type = valueType != null ? valueType : ctxt.getTypeFactory().constructType(Object.class);
+        return new JsoncLazy<>(mapper, type, writer.toString());
+    }
+}
@@ -0,0 +1,30 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serializer for {@link JsoncLazy}, registered by {@link JsoncMapper}. Unresolved
+ * instances write their recorded JSON text as is, without binding it.
+ */
+final class JsoncLazySerializer extends StdSerializer<JsoncLazy<?>> {
+
+    private static final long serialVersionUID = 1L;
+
+    JsoncLazySerializer() {
+        super(JsoncLazy.class, false);
+    }
+
+    @Override
+    public void serialize(JsoncLazy<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        String json = value.pendingJson();
+        if (json != null) {
+            gen.writeRawValue(json);
+        } else {
+            provider.defaultSerializeValue(value.get(), gen);
+        }
+    }
+}
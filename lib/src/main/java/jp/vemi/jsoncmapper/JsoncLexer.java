@@ -0,0 +1,387 @@
+package jp.vemi.jsoncmapper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Push-style JSONC lexer that reports tokens and comments to a {@link JsoncTokenHandler} as
+ * primitive positions, without creating an object per token.
+ *
+ * <p>The lexer recognizes the syntax accepted by {@link JsoncMapper}: comments, single-quoted
+ * strings, bare-word keys, and JSON5 numbers and literals. It tells keys from string values
+ * by tracking nesting, but does not otherwise check the grammar; tools that need validation
+ * can use {@link JsoncMapper#validate(String)}.
+ *
+ * <p>A lexer keeps its nesting stack and, for {@link Reader} input, its buffer between calls,
+ * so reusing one instance for many inputs allocates nothing once these have grown to the
+ * deepest nesting and longest token seen. Instances are not thread-safe.
+ *
+ * @since 1.1.0
+ * @see JsoncTokenHandler
+ */
+public final class JsoncLexer {
+
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    private final CharInput charInput = new CharInput();
+    private final ByteInput byteInput = new ByteInput();
+
+    /** Container kinds by depth: true for objects, false for arrays. */
+    private boolean[] containers = new boolean[32];
+    private int depth;
+    private boolean expectKey;
+
+    private char[] buffer;
+    private long bufferPosition;
+
+    /**
+     * Lexes characters.
+     *
+     * @param text array holding the input
+     * @param offset start of the input in the array
+     * @param length length of the input
+     * @param handler receiver of the tokens, with offsets into {@code text}
+     * @throws IllegalArgumentException if text or handler is null, or the range is invalid
+     */
+    public void lex(char[] text, int offset, int length, JsoncTokenHandler handler) {
+        if (text == null) {
+            throw new IllegalArgumentException("Source array cannot be null");
+        }
+        checkRange(text.length, offset, length, handler);
+        charInput.text = text;
+        try {
+            int start = offset;
+            if (length > 0 && text[offset] == '\uFEFF') {
+                start++;
+            }
+            reset();
+            scan(charInput, start, offset + length, true, handler);
+        } finally {
+            charInput.text = null;
+        }
+    }
+
+    /**
+     * Lexes UTF-8 bytes without decoding them. Characters outside ASCII can only occur in
+     * strings, comments and bare words, so token boundaries are found on the bytes directly.
+     *
+     * @param utf8 array holding the input
+     * @param offset start of the input in the array
+     * @param length length of the input in bytes
+     * @param handler receiver of the tokens, with byte offsets into {@code utf8}
+     * @throws IllegalArgumentException if utf8 or handler is null, or the range is invalid
+     */
+    public void lex(byte[] utf8, int offset, int length, JsoncTokenHandler handler) {
+        if (utf8 == null) {
+            throw new IllegalArgumentException("Source array cannot be null");
+        }
+        checkRange(utf8.length, offset, length, handler);
+        byteInput.text = utf8;
+        try {
+            int start = offset;
+            if (length >= 3 && utf8[offset] == (byte) 0xEF && utf8[offset + 1] == (byte) 0xBB
+                    && utf8[offset + 2] == (byte) 0xBF) {
+                start += 3;
+            }
+            reset();
+            scan(byteInput, start, offset + length, true, handler);
+        } finally {
+            byteInput.text = null;
+        }
+    }
+
+    /**
+     * Lexes the characters of a reader, which is read to the end but not closed.
+     *
+     * <p>Input is read into a buffer that always holds the whole token being reported, and
+     * offsets passed to the handler are indexes into {@link #getBuffer()}. The position of a
+     * token in the stream is {@link #getBufferPosition()} plus its offset. Both are only
+     * valid during the callback.
+     *
+     * @param reader source of the input
+     * @param handler receiver of the tokens, with offsets into {@link #getBuffer()}
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if reader or handler is null
+     */
+    public void lex(Reader reader, JsoncTokenHandler handler) throws IOException {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader cannot be null");
+        }
+        if (handler == null) {
+            throw new IllegalArgumentException("Handler cannot be null");
+        }
+        if (buffer == null) {
+            buffer = new char[INITIAL_BUFFER_SIZE];
+        }
+        reset();
+        bufferPosition = 0;
+        int start = 0;
+        int end = 0;
+        boolean last = false;
+        boolean first = true;
+        try {
+            while (!last) {
+                if (start > 0) {
+                    System.arraycopy(buffer, start, buffer, 0, end - start);
+                    bufferPosition += start;
+                    end -= start;
+                    start = 0;
+                }
+                // An unfinished token filling half the buffer doubles it, so it is rescanned
+                // only after at least as many new characters have been read
+                if (end > buffer.length >> 1) {
+                    buffer = Arrays.copyOf(buffer, buffer.length << 1);
+                }
+                while (end < buffer.length) {
+                    int read = reader.read(buffer, end, buffer.length - end);
+                    if (read < 0) {
+                        last = true;
+                        break;
+                    }
+                    end += read;
+                }
+                if (first && end > 0 && buffer[0] == '\uFEFF') {
+                    start = 1;
+                }
+                first = false;
+                charInput.text = buffer;
+                start = scan(charInput, start, end, last, handler);
+            }
+        } finally {
+            charInput.text = null;
+        }
+    }
+
+    /**
+     * Returns the buffer that offsets refer to while a {@link Reader} is lexed.
+     *
+     * @return the current buffer, or null if no reader has been lexed
+     */
+    public char[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns the position in the stream of the first character of {@link #getBuffer()}
+     * while a {@link Reader} is lexed.
+     *
+     * @return stream position of the buffer start
+     */
+    public long getBufferPosition() {
+        return bufferPosition;
+    }
+
+    private static void checkRange(int arrayLength, int offset, int length, JsoncTokenHandler handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Handler cannot be null");
+        }
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IllegalArgumentException(
+                    "Invalid range: offset " + offset + ", length " + length + " for array of length " + arrayLength);
+        }
+    }
+
+    private void reset() {
+        depth = 0;
+        expectKey = false;
+    }
+
+    /**
+     * Reports the tokens between {@code pos} and {@code limit}.
+     *
+     * @param last whether the input ends at {@code limit}; if not, a token reaching
+     *             {@code limit} is left unreported
+     * @return position after the last reported token
+     */
+    private int scan(Input in, int pos, int limit, boolean last, JsoncTokenHandler handler) {
+        while (pos < limit) {
+            int c = in.at(pos);
+            switch (c) {
+                case ' ':
+                case '\t':
+                case '\n':
+                case '\r':
+                    pos++;
+                    break;
+                case '{':
+                    push(true);
+                    expectKey = true;
+                    handler.startObject(pos++);
+                    break;
+                case '[':
+                    push(false);
+                    expectKey = false;
+                    handler.startArray(pos++);
+                    break;
+                case '}':
+                    pop();
+                    handler.endObject(pos++);
+                    break;
+                case ']':
+                    pop();
+                    handler.endArray(pos++);
+                    break;
+                case ',':
+                    expectKey = depth > 0 && containers[depth - 1];
+                    handler.comma(pos++);
+                    break;
+                case ':':
+                    expectKey = false;
+                    handler.colon(pos++);
+                    break;
+                case '"':
+                case '\'': {
+                    int end = stringEnd(in, pos, limit, c);
+                    if (end < 0) {
+                        if (!last) {
+                            return pos;
+                        }
+                        handler.invalid(pos, limit - pos);
+                        return limit;
+                    }
+                    if (expectKey) {
+                        expectKey = false;
+                        handler.key(pos, end - pos);
+                    } else {
+                        handler.string(pos, end - pos);
+                    }
+                    pos = end;
+                    break;
+                }
+                case '/': {
+                    if (pos + 1 >= limit) {
+                        if (!last) {
+                            return pos;
+                        }
+                        handler.invalid(pos, 1);
+                        return limit;
+                    }
+                    int next = in.at(pos + 1);
+                    if (next == '/') {
+                        int end = pos + 2;
+                        while (end < limit && in.at(end) != '\n' && in.at(end) != '\r') {
+                            end++;
+                        }
+                        if (end == limit && !last) {
+                            return pos;
+                        }
+                        handler.comment(pos, end - pos, false);
+                        pos = end;
+                    } else if (next == '*') {
+                        int end = blockCommentEnd(in, pos, limit);
+                        if (end < 0) {
+                            if (!last) {
+                                return pos;
+                            }
+                            end = limit;
+                        }
+                        handler.comment(pos, end - pos, true);
+                        pos = end;
+                    } else {
+                        handler.invalid(pos++, 1);
+                    }
+                    break;
+                }
+                default: {
+                    if (!isWordChar(c)) {
+                        handler.invalid(pos++, 1);
+                        break;
+                    }
+                    int end = pos + 1;
+                    while (end < limit && isWordChar(in.at(end))) {
+                        end++;
+                    }
+                    if (end == limit && !last) {
+                        return pos;
+                    }
+                    if (expectKey) {
+                        expectKey = false;
+                        handler.key(pos, end - pos);
+                    } else if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.') {
+                        handler.number(pos, end - pos);
+                    } else {
+                        handler.literal(pos, end - pos);
+                    }
+                    pos = end;
+                    break;
+                }
+            }
+        }
+        return pos;
+    }
+
+    private void push(boolean object) {
+        if (depth == containers.length) {
+            containers = Arrays.copyOf(containers, depth << 1);
+        }
+        containers[depth++] = object;
+    }
+
+    private void pop() {
+        if (depth > 0) {
+            depth--;
+        }
+        expectKey = false;
+    }
+
+    /**
+     * @return position after the closing quote, or -1 if the string is not closed before limit
+     */
+    private static int stringEnd(Input in, int start, int limit, int quote) {
+        for (int i = start + 1; i < limit; i++) {
+            int c = in.at(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return position after the closing delimiter, or -1 if the comment is not closed before limit
+     */
+    private static int blockCommentEnd(Input in, int start, int limit) {
+        for (int i = start + 2; i < limit - 1; i++) {
+            if (in.at(i) == '*' && in.at(i + 1) == '/') {
+                return i + 2;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if a character (or UTF-8 byte) can be part of a number or bare word.
+     */
+    private static boolean isWordChar(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '+' || c == '.' || c == '_' || c == '$' || (c >= 0x80 && c != 0xFEFF);
+    }
+
+    /**
+     * Input array read by {@link #scan}; characters and bytes share the lexing code.
+     */
+    private abstract static class Input {
+        abstract int at(int index);
+    }
+
+    private static final class CharInput extends Input {
+        char[] text;
+
+        @Override
+        int at(int index) {
+            return text[index];
+        }
+    }
+
+    private static final class ByteInput extends Input {
+        byte[] text;
+
+        @Override
+        int at(int index) {
+            return text[index] & 0xFF;
+        }
+    }
+}
@@ -1,15 +1,37 @@
 package jp.vemi.jsoncmapper;
 
+import com.fasterxml.jackson.core.FormatSchema;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.InjectableValues;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * JsoncMapper extends Jackson's JsonMapper to handle JSONC (JSON with Comments) format.
@@ -22,6 +44,8 @@ import java.nio.charset.StandardCharsets;
  */
 public class JsoncMapper extends JsonMapper {
     
+    private static final long serialVersionUID = 1L;
+    
     private final boolean removeTrailingCommas;
     private final boolean allowSingleQuotes;
     private final boolean allowHexNumbers;
@@ -29,6 +53,24 @@ public class JsoncMapper extends JsonMapper {
     private final boolean allowInfinityAndNaN;
     private final boolean allowMultilineStrings;
     private final boolean allowUnescapedControlChars;
+    private final boolean minify;
+    private final boolean canonicalizeTrees;
+    private final boolean offHeapPreprocessing;
+    
+    /** Custom rewrite rules; serializing the mapper requires them to be serializable. */
+    private final List<JsoncRewriteRule> rewriteRules;
+    
+    /** Whether large inputs are preprocessed in parallel; a custom pool is not serialized. */
+    private final boolean parallelPreprocessing;
+    
+    /** Text preprocessing specialized for the enabled features. */
+    private transient JsoncPreprocessor preprocessor;
+    
+    /** Intern table shared by compact trees when canonicalization is enabled, otherwise null. */
+    private transient NodeInterner treeInterner;
+    
+    /** Direct buffers holding preprocessed content when off-heap preprocessing is enabled, otherwise null. */
+    private transient DirectBufferArena bufferArena;
     
     /**
      * Default constructor that creates a JsoncMapper without trailing comma removal.
@@ -38,6 +80,7 @@ public class JsoncMapper extends JsonMapper {
      * @see Builder
      */
     public JsoncMapper() {
+        super(createFactory(false, false, false, false, false, false, false));
         this.removeTrailingCommas = false;
         this.allowSingleQuotes = false;
         this.allowHexNumbers = false;
@@ -45,6 +88,13 @@ public class JsoncMapper extends JsonMapper {
         this.allowInfinityAndNaN = false;
         this.allowMultilineStrings = false;
         this.allowUnescapedControlChars = false;
+        this.minify = false;
+        this.canonicalizeTrees = false;
+        this.offHeapPreprocessing = false;
+        this.rewriteRules = Collections.emptyList();
+        this.parallelPreprocessing = false;
+        initPreprocessing(null);
+        registerJsoncModule(false);
     }
     
     /**
@@ -53,14 +103,24 @@ public class JsoncMapper extends JsonMapper {
      * @param removeTrailingCommas if true, trailing commas will be automatically removed
      * @param allowSingleQuotes if true, single-quoted strings will be converted to double-quoted
      * @param allowHexNumbers if true, hexadecimal numbers will be converted to decimal
-     * @param allowPlusNumbers if true, plus signs will be removed from positive numbers
-     * @param allowInfinityAndNaN if true, Infinity and NaN will be handled
+     * @param allowPlusNumbers if true, plus-prefixed numbers are accepted
+     * @param allowInfinityAndNaN if true, Infinity and NaN are read as double values
      * @param allowMultilineStrings if true, multiline strings will be converted
      * @param allowUnescapedControlChars if true, control characters will be escaped
+     * @param minify if true, insignificant whitespace is removed together with comments
+     * @param canonicalizeTrees if true, compact trees share identical fragments through an intern table
+     * @param compactUntypedValues if true, untyped objects and arrays are bound to compact read-only collections
+     * @param offHeapPreprocessing if true, preprocessed content is parsed from pooled direct buffers
+     * @param rewriteRules custom rewrite rules applied during comment removal, possibly empty
+     * @param preprocessingPool pool for parallel comment removal of large inputs, or null
      */
     JsoncMapper(boolean removeTrailingCommas, boolean allowSingleQuotes, boolean allowHexNumbers,
                 boolean allowPlusNumbers, boolean allowInfinityAndNaN, boolean allowMultilineStrings,
-                boolean allowUnescapedControlChars) {
+                boolean allowUnescapedControlChars, boolean minify, boolean canonicalizeTrees,
+                boolean compactUntypedValues, boolean offHeapPreprocessing,
+                List<JsoncRewriteRule> rewriteRules, ForkJoinPool preprocessingPool) {
+        super(createFactory(removeTrailingCommas, allowSingleQuotes, allowHexNumbers, allowPlusNumbers,
+                            allowInfinityAndNaN, allowMultilineStrings, allowUnescapedControlChars));
         this.removeTrailingCommas = removeTrailingCommas;
         this.allowSingleQuotes = allowSingleQuotes;
         this.allowHexNumbers = allowHexNumbers;
@@ -68,6 +128,39 @@ public class JsoncMapper extends JsonMapper {
         this.allowInfinityAndNaN = allowInfinityAndNaN;
         this.allowMultilineStrings = allowMultilineStrings;
         this.allowUnescapedControlChars = allowUnescapedControlChars;
+        this.minify = minify;
+        this.canonicalizeTrees = canonicalizeTrees;
+        this.offHeapPreprocessing = offHeapPreprocessing;
+        this.rewriteRules = rewriteRules;
+        this.parallelPreprocessing = preprocessingPool != null;
+        initPreprocessing(preprocessingPool);
+        registerJsoncModule(compactUntypedValues);
+    }
+    
+    /**
+     * Creates the preprocessing state derived from the options, which is not serialized.
+     * 
+     * @param preprocessingPool pool for parallel comment removal of large inputs, or null
+     */
+    private void initPreprocessing(ForkJoinPool preprocessingPool) {
+        this.preprocessor = JsoncPreprocessor.forFeatures(removeTrailingCommas, allowSingleQuotes, allowHexNumbers,
+                                                          allowMultilineStrings, allowUnescapedControlChars, minify,
+                                                          rewriteRules.isEmpty() ? null : new RewriteRules(rewriteRules),
+                                                          preprocessingPool);
+        this.treeInterner = canonicalizeTrees ? new NodeInterner() : null;
+        this.bufferArena = offHeapPreprocessing ? new DirectBufferArena() : null;
+        jsoncFactory().setRulePreprocessor(rewriteRules.isEmpty() ? null : preprocessor);
+    }
+    
+    /**
+     * Rebuilds the preprocessing state after deserialization. A mapper built with a custom
+     * preprocessing pool uses the common pool once deserialized.
+     * 
+     * @return this mapper
+     */
+    protected Object readResolve() {
+        initPreprocessing(parallelPreprocessing ? ForkJoinPool.commonPool() : null);
+        return this;
     }
     
     /**
@@ -81,6 +174,12 @@ public class JsoncMapper extends JsonMapper {
         private boolean allowInfinityAndNaN = false;
         private boolean allowMultilineStrings = false;
         private boolean allowUnescapedControlChars = false;
+        private boolean minify = false;
+        private boolean canonicalizeTrees = false;
+        private boolean compactUntypedValues = false;
+        private boolean offHeapPreprocessing = false;
+        private final List<JsoncRewriteRule> rewriteRules = new ArrayList<>();
+        private ForkJoinPool preprocessingPool = null;
         
         /**
          * Enable automatic removal of trailing commas in JSON objects and arrays.
@@ -111,6 +210,7 @@ public class JsoncMapper extends JsonMapper {
          * Enable support for hexadecimal number literals.
          * Converts hexadecimal numbers to decimal format.
          * Example: 0xFF becomes 255
+         * Literals wider than 63 bits are read as {@code BigInteger} values.
          * 
          * @param allowHexNumbers true to enable hexadecimal number support
          * @return this builder for method chaining
@@ -122,8 +222,9 @@ public class JsoncMapper extends JsonMapper {
         
         /**
          * Enable support for numbers with explicit plus signs.
-         * Removes explicit plus signs from positive numbers.
-         * Example: +123 becomes 123
+         * Plus-prefixed numbers are read by Jackson's tokenizer as positive numbers,
+         * without rewriting the text.
+         * Example: +123 is read as 123
          * 
          * @param allowPlusNumbers true to enable plus sign number support
          * @return this builder for method chaining
@@ -135,7 +236,9 @@ public class JsoncMapper extends JsonMapper {
         
         /**
          * Enable support for Infinity and NaN literals.
-         * Converts JavaScript-style Infinity and NaN to JSON null or string representation.
+         * JavaScript-style {@code Infinity}, {@code -Infinity}, {@code +Infinity} and
+         * {@code NaN} are read by Jackson's tokenizer as the corresponding double values
+         * ({@link Double#POSITIVE_INFINITY} and so on), without rewriting the text.
          * 
          * @param allowInfinityAndNaN true to enable Infinity and NaN support
          * @return this builder for method chaining
@@ -169,6 +272,125 @@ public class JsoncMapper extends JsonMapper {
             return this;
         }
         
+        /**
+         * Enable minified preprocessing output.
+         * Insignificant whitespace is removed in the same pass that removes comments,
+         * which shrinks the text handed to Jackson for heavily indented input.
+         * Parsing results are unchanged.
+         * 
+         * @param minify true to remove whitespace outside strings during preprocessing
+         * @return this builder for method chaining
+         * @see JsoncUtils#minify(String, boolean)
+         */
+        public Builder minify(boolean minify) {
+            this.minify = minify;
+            return this;
+        }
+        
+        /**
+         * Enable canonicalization of compact trees.
+         * Strings, numbers and subtrees read by {@link JsoncMapper#readTreeCompact(String)}
+         * are hashed while parsing and replaced by an identical instance already held by
+         * another tree from the same mapper, so documents that are largely identical share
+         * most of their nodes. The intern table is weak and thread-safe; fragments are
+         * released when no tree uses them any more.
+         * 
+         * @param canonicalizeTrees true to share identical fragments between compact trees
+         * @return this builder for method chaining
+         */
+        public Builder canonicalizeTrees(boolean canonicalizeTrees) {
+            this.canonicalizeTrees = canonicalizeTrees;
+            return this;
+        }
+        
+        /**
+         * Enable compact binding of untyped values.
+         * JSON objects read as {@code Object}, {@code Map}, {@code Map<String, Object>} or
+         * nested inside such values become read-only, insertion-ordered maps backed by
+         * parallel arrays (without per-entry objects), and JSON arrays read as {@code Object},
+         * {@code List} or {@code Collection} become read-only lists over a trimmed array.
+         * Concrete targets such as {@code HashMap} and maps or lists with typed values are
+         * bound as before. Modifying a compact value throws {@link UnsupportedOperationException}.
+         * 
+         * @param compactUntypedValues true to bind untyped objects and arrays to compact read-only collections
+         * @return this builder for method chaining
+         */
+        public Builder compactUntypedValues(boolean compactUntypedValues) {
+            this.compactUntypedValues = compactUntypedValues;
+            return this;
+        }
+        
+        /**
+         * Enable off-heap preprocessing for very large payloads.
+         * The {@code readValue} and {@code readTree} methods of the mapper write the output of
+         * the last preprocessing pass as UTF-8 into pooled direct buffers owned by the mapper,
+         * and Jackson parses from there; the buffers are returned to the pool after each parse.
+         * The preprocessed copy then never becomes a (humongous) heap object. When JSON5
+         * conversions other than trailing commas are enabled, the earlier passes still produce
+         * intermediate strings on the heap.
+         * 
+         * @param offHeapPreprocessing true to parse preprocessed content from pooled direct buffers
+         * @return this builder for method chaining
+         */
+        public Builder offHeapPreprocessing(boolean offHeapPreprocessing) {
+            this.offHeapPreprocessing = offHeapPreprocessing;
+            return this;
+        }
+        
+        /**
+         * Enable parallel preprocessing of very large documents on the common
+         * {@link ForkJoinPool}. Comment removal, and trailing comma removal when enabled, split
+         * inputs of more than a few hundred thousand characters into chunks that are scanned on
+         * all cores; see {@link JsoncUtils#removeComments(String, ForkJoinPool)}. The result is
+         * the same as with sequential preprocessing. Minify and custom rewrite rules still run
+         * sequentially, as do the other JSON5 conversions.
+         * 
+         * @param parallelPreprocessing true to preprocess large inputs in parallel
+         * @return this builder for method chaining
+         */
+        public Builder parallelPreprocessing(boolean parallelPreprocessing) {
+            this.preprocessingPool = parallelPreprocessing ? ForkJoinPool.commonPool() : null;
+            return this;
+        }
+        
+        /**
+         * Enable parallel preprocessing of very large documents on the given pool, like
+         * {@link #parallelPreprocessing(boolean)}.
+         * 
+         * @param pool pool that scans the chunks, or null to preprocess sequentially
+         * @return this builder for method chaining
+         */
+        public Builder parallelPreprocessing(ForkJoinPool pool) {
+            this.preprocessingPool = pool;
+            return this;
+        }
+        
+        /**
+         * Add a custom rewrite rule for syntax such as {@code ${NAME}} interpolation or
+         * vendor-specific {@code #} comments.
+         * Rules run inside the comment-removal scan of the {@code readValue}, {@code readTree}
+         * and {@code preprocess} methods and of the mapper's readers, without an extra pass;
+         * rules sharing a trigger character are tried in the order they were added. The
+         * streaming methods such as {@link JsoncMapper#validate(String)}, the filtered
+         * {@code readTree} and the parsers of the mapper's factory cannot tokenize the custom
+         * syntax, so with rules they read their input fully and preprocess it first; the
+         * positions they report then refer to the preprocessed content. Offset indexes, whose
+         * positions must refer to the file, cannot be used with rules. A mapper with rules can
+         * only be serialized if its rules are serializable.
+         * 
+         * @param rule rule to add
+         * @return this builder for method chaining
+         * @throws IllegalArgumentException if rule is null
+         * @see JsoncRewriteRule
+         */
+        public Builder addRewriteRule(JsoncRewriteRule rule) {
+            if (rule == null) {
+                throw new IllegalArgumentException("Rewrite rule cannot be null");
+            }
+            this.rewriteRules.add(rule);
+            return this;
+        }
+        
         /**
          * Convenience method to enable or disable core JSON5 features at once.
          * This includes the most commonly used and stable JSON5 features:
@@ -219,8 +441,57 @@ public class JsoncMapper extends JsonMapper {
         public JsoncMapper build() {
             return new JsoncMapper(removeTrailingCommas, allowSingleQuotes, allowHexNumbers, 
                                  allowPlusNumbers, allowInfinityAndNaN, allowMultilineStrings,
-                                 allowUnescapedControlChars);
+                                 allowUnescapedControlChars, minify, canonicalizeTrees,
+                                 compactUntypedValues, offHeapPreprocessing, new ArrayList<>(rewriteRules),
+                                 preprocessingPool);
+        }
+    }
+    
+    /**
+     * Creates the single factory of the mapper, returned by {@link #getFactory()}.
+     * Comments and the configured JSON5 features are handled by Jackson's own read features,
+     * so the streaming paths such as {@link #validate(String)} read the original input and
+     * report its positions. Hexadecimal numbers have no Jackson equivalent and are converted
+     * by the factory with {@link JsoncUtils#convertHexNumbersPreservingOffsets(String, boolean)}
+     * beforehand, and line breaks in multiline strings are escaped; the whole input goes
+     * through the mapper's preprocessing instead when custom rewrite rules are configured. Preprocessed content is also read with these features, which it no longer
+     * needs except for plus-prefixed numbers and Infinity/NaN, left in place as real tokens.
+     * 
+     * @return configured factory; the mapper sets itself as codec
+     */
+    private static JsoncFactory createFactory(boolean removeTrailingCommas, boolean allowSingleQuotes,
+                                              boolean allowHexNumbers, boolean allowPlusNumbers,
+                                              boolean allowInfinityAndNaN, boolean allowMultilineStrings,
+                                              boolean allowUnescapedControlChars) {
+        JsonFactoryBuilder builder = new JsonFactoryBuilder()
+                .enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+                .configure(JsonReadFeature.ALLOW_TRAILING_COMMA, removeTrailingCommas)
+                .configure(JsonReadFeature.ALLOW_SINGLE_QUOTES, allowSingleQuotes)
+                .configure(JsonReadFeature.ALLOW_LEADING_PLUS_SIGN_FOR_NUMBERS, allowPlusNumbers)
+                .configure(JsonReadFeature.ALLOW_NON_NUMERIC_NUMBERS, allowInfinityAndNaN)
+                .configure(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS, allowUnescapedControlChars);
+        return new JsoncFactory(builder, allowHexNumbers, allowMultilineStrings && !allowUnescapedControlChars,
+                                allowSingleQuotes);
+    }
+    
+    private JsoncFactory jsoncFactory() {
+        return (JsoncFactory) _jsonFactory;
+    }
+    
+    /**
+     * Registers the (de)serializers for JSONC-specific property types such as {@link JsoncLazy}.
+     * 
+     * @param compactUntypedValues if true, also registers the compact untyped deserializers
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void registerJsoncModule(boolean compactUntypedValues) {
+        SimpleModule module = new SimpleModule("JsoncModule");
+        if (compactUntypedValues) {
+            module.setDeserializers(new CompactUntypedDeserializer.Lookup());
         }
+        module.addDeserializer((Class) JsoncLazy.class, new JsoncLazyDeserializer(this));
+        module.addSerializer(new JsoncLazySerializer());
+        registerModule(module);
     }
     
     /**
@@ -228,44 +499,74 @@ public class JsoncMapper extends JsonMapper {
      * 
      * @param content the JSONC content to preprocess
      * @return processed JSON content
+     * @see JsoncPreprocessor
      */
-    private String preprocessJsonc(String content) {
-        String result = content;
-        
-        // Always remove comments first
-        result = JsoncUtils.removeComments(result);
-        
-        // Apply JSON5 transformations in order
-        if (allowSingleQuotes) {
-            result = JsoncUtils.convertSingleQuotes(result);
-        }
-        
-        if (allowHexNumbers) {
-            result = JsoncUtils.convertHexNumbers(result);
-        }
-        
-        if (allowPlusNumbers) {
-            result = JsoncUtils.removePlusFromNumbers(result);
-        }
-        
-        if (allowInfinityAndNaN) {
-            result = JsoncUtils.convertInfinityAndNaN(result);
-        }
-        
-        if (allowMultilineStrings) {
-            result = JsoncUtils.convertMultilineStrings(result);
-        }
-        
-        if (allowUnescapedControlChars) {
-            result = JsoncUtils.escapeControlChars(result);
+    String preprocessJsonc(String content) {
+        return preprocessor.apply(content);
+    }
+    
+    /**
+     * Preprocesses JSONC content like {@link #preprocessJsonc(String)}, writing the result to
+     * {@code out}.
+     */
+    private void preprocessJsonc(String content, JsoncUtils.CharOutput out) {
+        preprocessor.apply(content, out);
+    }
+    
+    /**
+     * Preprocesses JSONC content and binds the result, through pooled direct buffers when
+     * off-heap preprocessing is enabled.
+     */
+    private <T> T readPreprocessed(String content, JavaType valueType) throws JsonProcessingException {
+        try {
+            if (bufferArena == null) {
+                return bindPreprocessed(jsoncFactory().createConvertedParser(preprocessJsonc(content)), valueType);
+            }
+            try (DirectBufferArena.Output out = bufferArena.newOutput(content.length())) {
+                preprocessJsonc(content, out);
+                return bindPreprocessed(jsoncFactory().createConvertedParser(out.toInputStream()), valueType);
+            }
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw JsonMappingException.fromUnexpectedIOE(e);
         }
-        
-        // Remove trailing commas last, after all other transformations
-        if (removeTrailingCommas) {
-            result = JsoncUtils.removeTrailingCommas(result);
+    }
+    
+    /**
+     * Binds preprocessed content, mirroring {@code readValue(String, JavaType)} of the superclass.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T bindPreprocessed(JsonParser parser, JavaType valueType) throws IOException {
+        return (T) _readMapAndClose(parser, valueType);
+    }
+    
+    private <T> T readPreprocessed(String content, Class<T> valueType) throws JsonProcessingException {
+        return readPreprocessed(content, getTypeFactory().constructType(valueType));
+    }
+    
+    private <T> T readPreprocessed(String content, TypeReference<T> valueTypeRef) throws JsonProcessingException {
+        return readPreprocessed(content, getTypeFactory().constructType(valueTypeRef));
+    }
+    
+    /**
+     * Preprocesses JSONC content and reads it as a tree, through pooled direct buffers when
+     * off-heap preprocessing is enabled.
+     */
+    private JsonNode readPreprocessedTree(String content) throws JsonProcessingException {
+        try {
+            if (bufferArena == null) {
+                return _readTreeAndClose(jsoncFactory().createConvertedParser(preprocessJsonc(content)));
+            }
+            try (DirectBufferArena.Output out = bufferArena.newOutput(content.length())) {
+                preprocessJsonc(content, out);
+                return _readTreeAndClose(jsoncFactory().createConvertedParser(out.toInputStream()));
+            }
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw JsonMappingException.fromUnexpectedIOE(e);
         }
-        
-        return result;
     }
     
     /**
@@ -290,8 +591,7 @@ public class JsoncMapper extends JsonMapper {
             throw new IllegalArgumentException("Value type cannot be null");
         }
         
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueType);
+        return readPreprocessed(content, valueType);
     }
     
     /**
@@ -339,8 +639,7 @@ public class JsoncMapper extends JsonMapper {
             throw new IllegalArgumentException("Value type cannot be null");
         }
         
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueType);
+        return readPreprocessed(content, valueType);
     }
     
     /**
@@ -365,8 +664,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readFileToString(src);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueType);
+        return readPreprocessed(content, valueType);
     }
     
     /**
@@ -391,8 +689,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readFileToString(src);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueTypeRef);
+        return readPreprocessed(content, valueTypeRef);
     }
     
     /**
@@ -417,8 +714,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readFileToString(src);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueType);
+        return readPreprocessed(content, valueType);
     }
     
     /**
@@ -443,8 +739,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readReaderToString(src);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueType);
+        return readPreprocessed(content, valueType);
     }
     
     /**
@@ -469,8 +764,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readReaderToString(src);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueTypeRef);
+        return readPreprocessed(content, valueTypeRef);
     }
     
     /**
@@ -495,8 +789,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readReaderToString(src);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueType);
+        return readPreprocessed(content, valueType);
     }
     
     /**
@@ -521,8 +814,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readInputStreamToString(src);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueType);
+        return readPreprocessed(content, valueType);
     }
     
     /**
@@ -547,8 +839,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readInputStreamToString(src);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueTypeRef);
+        return readPreprocessed(content, valueTypeRef);
     }
     
     /**
@@ -573,8 +864,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readInputStreamToString(src);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueType);
+        return readPreprocessed(content, valueType);
     }
     
     /**
@@ -599,8 +889,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readUrlToString(src);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueType);
+        return readPreprocessed(content, valueType);
     }
     
     /**
@@ -625,8 +914,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readUrlToString(src);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueTypeRef);
+        return readPreprocessed(content, valueTypeRef);
     }
     
     /**
@@ -651,8 +939,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readUrlToString(src);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueType);
+        return readPreprocessed(content, valueType);
     }
     
     /**
@@ -677,8 +964,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = new String(src, StandardCharsets.UTF_8);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueType);
+        return readPreprocessed(content, valueType);
     }
     
     /**
@@ -703,8 +989,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = new String(src, StandardCharsets.UTF_8);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueTypeRef);
+        return readPreprocessed(content, valueTypeRef);
     }
     
     /**
@@ -729,14 +1014,13 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = new String(src, StandardCharsets.UTF_8);
-        String json = preprocessJsonc(content);
-        return super.readValue(json, valueType);
+        return readPreprocessed(content, valueType);
     }
     
     /**
      * Helper method to read a URL to String.
      */
-    private String readUrlToString(URL url) throws IOException {
+    String readUrlToString(URL url) throws IOException {
         try (InputStream inputStream = url.openStream()) {
             return readInputStreamToString(inputStream);
         }
@@ -756,8 +1040,7 @@ public class JsoncMapper extends JsonMapper {
             throw new IllegalArgumentException("Content cannot be null");
         }
         
-        String json = preprocessJsonc(content);
-        return super.readTree(json);
+        return readPreprocessedTree(content);
     }
     
     /**
@@ -776,8 +1059,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readFileToString(file);
-        String json = preprocessJsonc(content);
-        return super.readTree(json);
+        return readPreprocessedTree(content);
     }
     
     /**
@@ -796,8 +1078,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readReaderToString(reader);
-        String json = preprocessJsonc(content);
-        return super.readTree(json);
+        return readPreprocessedTree(content);
     }
     
     /**
@@ -816,8 +1097,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readInputStreamToString(inputStream);
-        String json = preprocessJsonc(content);
-        return super.readTree(json);
+        return readPreprocessedTree(content);
     }
     
     /**
@@ -836,8 +1116,7 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String content = readUrlToString(url);
-        String json = preprocessJsonc(content);
-        return super.readTree(json);
+        return readPreprocessedTree(content);
     }
     
     /**
@@ -856,42 +1135,2032 @@ public class JsoncMapper extends JsonMapper {
         }
         
         String contentStr = new String(content, StandardCharsets.UTF_8);
-        String json = preprocessJsonc(contentStr);
-        return super.readTree(json);
+        return readPreprocessedTree(contentStr);
     }
     
     /**
-     * Helper method to read a File to String.
-     *
-     * @param file the File to read
-     * @return the contents of the file as a String
-     * @throws IOException if an I/O error occurs
+     * Parse JSONC (JSON with Comments) content from a range of a byte array, such as a
+     * message body inside a network buffer. The range is tokenized in place by the mapper's
+     * factory, which handles comments and the enabled JSON5 features itself, so it is neither
+     * copied nor decoded into a string; only a mapper that converts its input before
+     * tokenizing (hexadecimal numbers, multiline strings or rewrite rules) reads a converted
+     * copy. Error locations refer to the range.
+     * 
+     * @param src source byte array containing UTF-8 JSONC content
+     * @param offset offset of the first byte of the content
+     * @param len number of bytes of the content
+     * @param valueType target class type
+     * @return parsed object of type T
+     * @throws IOException if reading fails
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws JsonMappingException if mapping fails
+     * @throws IllegalArgumentException if byte array or valueType is null, or the range is invalid
      */
-    private String readFileToString(File file) throws IOException {
-        try (FileInputStream fis = new FileInputStream(file);
-             InputStreamReader isr = new InputStreamReader(fis, StandardCharsets.UTF_8);
-             BufferedReader reader = new BufferedReader(isr)) {
-            return readReaderToString(reader);
+    @Override
+    public <T> T readValue(byte[] src, int offset, int len, Class<T> valueType)
+            throws IOException, JsonProcessingException, JsonMappingException {
+        if (valueType == null) {
+            throw new IllegalArgumentException("Value type cannot be null");
         }
+        return readInPlace(JsoncSource.of(src, offset, len), valueType);
     }
     
     /**
-     * Helper method to read a Reader to String.
+     * Parse JSONC (JSON with Comments) content from a range of a byte array using TypeReference.
+     * 
+     * @param src source byte array containing UTF-8 JSONC content
+     * @param offset offset of the first byte of the content
+     * @param len number of bytes of the content
+     * @param valueTypeRef target type reference
+     * @return parsed object of type T
+     * @throws IOException if reading fails
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws JsonMappingException if mapping fails
+     * @throws IllegalArgumentException if byte array or valueTypeRef is null, or the range is invalid
+     */
+    @Override
+    public <T> T readValue(byte[] src, int offset, int len, TypeReference<T> valueTypeRef)
+            throws IOException, JsonProcessingException, JsonMappingException {
+        if (valueTypeRef == null) {
+            throw new IllegalArgumentException("Value type reference cannot be null");
+        }
+        return readInPlace(JsoncSource.of(src, offset, len), getTypeFactory().constructType(valueTypeRef));
+    }
+    
+    /**
+     * Parse JSONC (JSON with Comments) content from a range of a byte array using JavaType.
+     * 
+     * @param src source byte array containing UTF-8 JSONC content
+     * @param offset offset of the first byte of the content
+     * @param len number of bytes of the content
+     * @param valueType target JavaType
+     * @return parsed object of type T
+     * @throws IOException if reading fails
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws JsonMappingException if mapping fails
+     * @throws IllegalArgumentException if byte array or valueType is null, or the range is invalid
+     */
+    @Override
+    public <T> T readValue(byte[] src, int offset, int len, JavaType valueType)
+            throws IOException, JsonProcessingException, JsonMappingException {
+        if (valueType == null) {
+            throw new IllegalArgumentException("Value type cannot be null");
+        }
+        return readInPlace(JsoncSource.of(src, offset, len), valueType);
+    }
+    
+    /**
+     * Parse JSONC (JSON with Comments) content from a range of a byte array into a JsonNode tree.
+     * 
+     * @param content source byte array containing UTF-8 JSONC content
+     * @param offset offset of the first byte of the content
+     * @param len number of bytes of the content
+     * @return JsonNode tree
+     * @throws IOException if reading fails
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws IllegalArgumentException if byte array is null or the range is invalid
+     */
+    @Override
+    public JsonNode readTree(byte[] content, int offset, int len) throws IOException, JsonProcessingException {
+        return readTreeInPlace(JsoncSource.of(content, offset, len));
+    }
+    
+    /**
+     * Parse JSONC (JSON with Comments) content from a range of a character array. The range
+     * is tokenized in place, like a byte range by {@link #readValue(byte[], int, int, Class)}.
+     * 
+     * @param src source character array containing JSONC content
+     * @param offset offset of the first character of the content
+     * @param len number of characters of the content
+     * @param valueType target class type
+     * @return parsed object of type T
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws JsonMappingException if mapping fails
+     * @throws IllegalArgumentException if character array or valueType is null, or the range is invalid
+     */
+    public <T> T readValue(char[] src, int offset, int len, Class<T> valueType)
+            throws JsonProcessingException, JsonMappingException {
+        if (valueType == null) {
+            throw new IllegalArgumentException("Value type cannot be null");
+        }
+        return readInPlace(JsoncSource.of(src, offset, len), valueType);
+    }
+    
+    /**
+     * Parse JSONC (JSON with Comments) content from a range of a character array using TypeReference.
+     * 
+     * @param src source character array containing JSONC content
+     * @param offset offset of the first character of the content
+     * @param len number of characters of the content
+     * @param valueTypeRef target type reference
+     * @return parsed object of type T
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws JsonMappingException if mapping fails
+     * @throws IllegalArgumentException if character array or valueTypeRef is null, or the range is invalid
+     */
+    public <T> T readValue(char[] src, int offset, int len, TypeReference<T> valueTypeRef)
+            throws JsonProcessingException, JsonMappingException {
+        if (valueTypeRef == null) {
+            throw new IllegalArgumentException("Value type reference cannot be null");
+        }
+        return readInPlace(JsoncSource.of(src, offset, len), getTypeFactory().constructType(valueTypeRef));
+    }
+    
+    /**
+     * Parse JSONC (JSON with Comments) content from a range of a character array using JavaType.
+     * 
+     * @param src source character array containing JSONC content
+     * @param offset offset of the first character of the content
+     * @param len number of characters of the content
+     * @param valueType target JavaType
+     * @return parsed object of type T
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws JsonMappingException if mapping fails
+     * @throws IllegalArgumentException if character array or valueType is null, or the range is invalid
+     */
+    public <T> T readValue(char[] src, int offset, int len, JavaType valueType)
+            throws JsonProcessingException, JsonMappingException {
+        if (valueType == null) {
+            throw new IllegalArgumentException("Value type cannot be null");
+        }
+        return readInPlace(JsoncSource.of(src, offset, len), valueType);
+    }
+    
+    /**
+     * Parse JSONC (JSON with Comments) content from a range of a character array into a JsonNode tree.
+     * 
+     * @param content source character array containing JSONC content
+     * @param offset offset of the first character of the content
+     * @param len number of characters of the content
+     * @return JsonNode tree
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws IllegalArgumentException if character array is null or the range is invalid
+     */
+    public JsonNode readTree(char[] content, int offset, int len) throws JsonProcessingException {
+        return readTreeInPlace(JsoncSource.of(content, offset, len));
+    }
+    
+    /**
+     * Parse JSONC (JSON with Comments) content from a character sequence, such as a
+     * {@link CharBuffer} over decoded data or a {@link StringBuilder}. Strings and
+     * array-backed buffers are tokenized in place, like a character range by
+     * {@link #readValue(char[], int, int, Class)}; other sequences are copied into a string.
+     * 
+     * @param content JSONC content
+     * @param valueType target class type
+     * @return parsed object of type T
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws JsonMappingException if mapping fails
+     * @throws IllegalArgumentException if content or valueType is null
+     */
+    public <T> T readValue(CharSequence content, Class<T> valueType) throws JsonProcessingException, JsonMappingException {
+        if (valueType == null) {
+            throw new IllegalArgumentException("Value type cannot be null");
+        }
+        return readInPlace(JsoncSource.of(content), valueType);
+    }
+    
+    /**
+     * Parse JSONC (JSON with Comments) content from a character sequence using TypeReference.
+     * 
+     * @param content JSONC content
+     * @param valueTypeRef target type reference
+     * @return parsed object of type T
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws JsonMappingException if mapping fails
+     * @throws IllegalArgumentException if content or valueTypeRef is null
+     */
+    public <T> T readValue(CharSequence content, TypeReference<T> valueTypeRef)
+            throws JsonProcessingException, JsonMappingException {
+        if (valueTypeRef == null) {
+            throw new IllegalArgumentException("Value type reference cannot be null");
+        }
+        return readInPlace(JsoncSource.of(content), getTypeFactory().constructType(valueTypeRef));
+    }
+    
+    /**
+     * Parse JSONC (JSON with Comments) content from a character sequence using JavaType.
+     * 
+     * @param content JSONC content
+     * @param valueType target JavaType
+     * @return parsed object of type T
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws JsonMappingException if mapping fails
+     * @throws IllegalArgumentException if content or valueType is null
      */
-    private String readReaderToString(Reader reader) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        char[] buffer = new char[8192];
-        int length;
-        while ((length = reader.read(buffer)) != -1) {
-            sb.append(buffer, 0, length);
+    public <T> T readValue(CharSequence content, JavaType valueType) throws JsonProcessingException, JsonMappingException {
+        if (valueType == null) {
+            throw new IllegalArgumentException("Value type cannot be null");
         }
-        return sb.toString();
+        return readInPlace(JsoncSource.of(content), valueType);
+    }
+    
+    /**
+     * Parse JSONC (JSON with Comments) content from a character sequence into a JsonNode tree.
+     * 
+     * @param content JSONC content
+     * @return JsonNode tree
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws IllegalArgumentException if content is null
+     */
+    public JsonNode readTree(CharSequence content) throws JsonProcessingException {
+        return readTreeInPlace(JsoncSource.of(content));
+    }
+    
+    /**
+     * Parse JSONC (JSON with Comments) content from the remaining bytes of a heap or direct
+     * buffer. The buffer's position is not changed. Heap buffers are tokenized in place like
+     * a byte range by {@link #readValue(byte[], int, int, Class)}, and direct buffers are
+     * streamed to the parser without copying them to the heap first.
+     * 
+     * @param src buffer containing UTF-8 JSONC content between its position and limit
+     * @param valueType target class type
+     * @return parsed object of type T
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws JsonMappingException if mapping fails
+     * @throws IllegalArgumentException if buffer or valueType is null
+     */
+    public <T> T readValue(ByteBuffer src, Class<T> valueType) throws JsonProcessingException, JsonMappingException {
+        if (valueType == null) {
+            throw new IllegalArgumentException("Value type cannot be null");
+        }
+        return readInPlace(JsoncSource.of(src), valueType);
+    }
+    
+    /**
+     * Parse JSONC (JSON with Comments) content from the remaining bytes of a buffer using
+     * TypeReference. The buffer's position is not changed.
+     * 
+     * @param src buffer containing UTF-8 JSONC content between its position and limit
+     * @param valueTypeRef target type reference
+     * @return parsed object of type T
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws JsonMappingException if mapping fails
+     * @throws IllegalArgumentException if buffer or valueTypeRef is null
+     */
+    public <T> T readValue(ByteBuffer src, TypeReference<T> valueTypeRef) throws JsonProcessingException, JsonMappingException {
+        if (valueTypeRef == null) {
+            throw new IllegalArgumentException("Value type reference cannot be null");
+        }
+        return readInPlace(JsoncSource.of(src), getTypeFactory().constructType(valueTypeRef));
+    }
+    
+    /**
+     * Parse JSONC (JSON with Comments) content from the remaining bytes of a buffer using
+     * JavaType. The buffer's position is not changed.
+     * 
+     * @param src buffer containing UTF-8 JSONC content between its position and limit
+     * @param valueType target JavaType
+     * @return parsed object of type T
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws JsonMappingException if mapping fails
+     * @throws IllegalArgumentException if buffer or valueType is null
+     */
+    public <T> T readValue(ByteBuffer src, JavaType valueType) throws JsonProcessingException, JsonMappingException {
+        if (valueType == null) {
+            throw new IllegalArgumentException("Value type cannot be null");
+        }
+        return readInPlace(JsoncSource.of(src), valueType);
+    }
+    
+    /**
+     * Parse JSONC (JSON with Comments) content from the remaining bytes of a buffer into a
+     * JsonNode tree. The buffer's position is not changed.
+     * 
+     * @param content buffer containing UTF-8 JSONC content between its position and limit
+     * @return JsonNode tree
+     * @throws JsonProcessingException if JSON parsing fails
+     * @throws IllegalArgumentException if buffer is null
+     */
+    public JsonNode readTree(ByteBuffer content) throws JsonProcessingException {
+        return readTreeInPlace(JsoncSource.of(content));
+    }
+    
+    /**
+     * Binds a source tokenized in place by the factory, which handles comments and the JSON5
+     * features itself, for the range and buffer overloads.
+     */
+    private <T> T readInPlace(JsoncSource source, JavaType valueType) throws JsonProcessingException {
+        return inMemory(() -> bindPreprocessed(createStreamingParser(source), valueType));
+    }
+    
+    private <T> T readInPlace(JsoncSource source, Class<T> valueType) throws JsonProcessingException {
+        return readInPlace(source, getTypeFactory().constructType(valueType));
+    }
+    
+    /**
+     * Reads a source tokenized in place by the factory as a tree.
+     */
+    private JsonNode readTreeInPlace(JsoncSource source) throws JsonProcessingException {
+        return inMemory(() -> _readTreeAndClose(createStreamingParser(source)));
+    }
+    
+    /**
+     * Creates the readers returned by {@link #reader()}, {@link #readerWithView(Class)} and
+     * the other reader factory methods, which preprocess JSONC input like this mapper.
+     * 
+     * @param config deserialization configuration of the reader
+     * @return JSONC-aware reader
+     */
+    @Override
+    protected ObjectReader _newReader(DeserializationConfig config) {
+        return new JsoncObjectReader(this, config);
+    }
+    
+    /**
+     * Creates the readers returned by {@link #readerFor(Class)},
+     * {@link #readerForUpdating(Object)} and related methods, which preprocess JSONC input
+     * like this mapper.
+     * 
+     * @param config deserialization configuration of the reader
+     * @param valueType type to bind to, or null
+     * @param valueToUpdate object to update, or null
+     * @param schema format schema, or null
+     * @param injectableValues injectable values, or null
+     * @return JSONC-aware reader
+     */
+    @Override
+    protected ObjectReader _newReader(DeserializationConfig config, JavaType valueType, Object valueToUpdate,
+                                      FormatSchema schema, InjectableValues injectableValues) {
+        return new JsoncObjectReader(this, config, valueType, valueToUpdate, schema, injectableValues);
+    }
+    
+    /**
+     * Returns the factory of this mapper, whose parsers read JSONC directly with the
+     * configured JSONC/JSON5 features. It is the factory configured by
+     * {@code configure(JsonParser.Feature, boolean)} and the other feature methods of the
+     * mapper, and used for the generators of {@code writeValue(...)}.
+     * 
+     * <p>Parsers created from it, or from {@link #createParser(String)} and the other
+     * {@code createParser} methods, can be passed to {@code readValue(JsonParser, ...)},
+     * {@code readTree(JsonParser)} and {@code readValues(JsonParser, ...)}. Reads that take
+     * the content itself keep using the preprocessing path.
+     * 
+     * @return JSONC-aware factory
+     */
+    @Override
+    public JsonFactory getFactory() {
+        return _jsonFactory;
+    }
+    
+    /**
+     * Creates a parser that reads JSONC content from a file.
+     * 
+     * @param file JSONC file
+     * @return JSONC-aware parser configured with this mapper's deserialization settings
+     * @throws IllegalArgumentException if file is null
+     * @throws IOException if the file cannot be read
+     */
+    @Override
+    public JsonParser createParser(File file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        return _deserializationConfig.initialize(_jsonFactory.createParser(file));
+    }
+    
+    /**
+     * Creates a parser that reads JSONC content from a URL.
+     * 
+     * @param url JSONC URL
+     * @return JSONC-aware parser configured with this mapper's deserialization settings
+     * @throws IllegalArgumentException if url is null
+     * @throws IOException if the URL cannot be read
+     */
+    @Override
+    public JsonParser createParser(URL url) throws IOException {
+        if (url == null) {
+            throw new IllegalArgumentException("URL cannot be null");
+        }
+        return _deserializationConfig.initialize(_jsonFactory.createParser(url));
+    }
+    
+    /**
+     * Creates a parser that reads UTF-8 JSONC content from an input stream.
+     * 
+     * @param inputStream JSONC input stream
+     * @return JSONC-aware parser configured with this mapper's deserialization settings
+     * @throws IllegalArgumentException if inputStream is null
+     * @throws IOException if the stream cannot be read
+     */
+    @Override
+    public JsonParser createParser(InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            throw new IllegalArgumentException("InputStream cannot be null");
+        }
+        return _deserializationConfig.initialize(_jsonFactory.createParser(inputStream));
+    }
+    
+    /**
+     * Creates a parser that reads JSONC content from a reader.
+     * 
+     * @param reader JSONC reader
+     * @return JSONC-aware parser configured with this mapper's deserialization settings
+     * @throws IllegalArgumentException if reader is null
+     * @throws IOException if the reader cannot be read
+     */
+    @Override
+    public JsonParser createParser(Reader reader) throws IOException {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader cannot be null");
+        }
+        return _deserializationConfig.initialize(_jsonFactory.createParser(reader));
+    }
+    
+    /**
+     * Creates a parser that reads UTF-8 JSONC content from a byte array.
+     * 
+     * @param content JSONC content bytes
+     * @return JSONC-aware parser configured with this mapper's deserialization settings
+     * @throws IllegalArgumentException if content is null
+     * @throws IOException if the parser cannot be created
+     */
+    @Override
+    public JsonParser createParser(byte[] content) throws IOException {
+        if (content == null) {
+            throw new IllegalArgumentException("Content cannot be null");
+        }
+        return _deserializationConfig.initialize(_jsonFactory.createParser(content));
+    }
+    
+    /**
+     * Creates a parser that reads UTF-8 JSONC content from a range of a byte array.
+     * 
+     * @param content JSONC content bytes
+     * @param offset offset of the first byte to read
+     * @param len number of bytes to read
+     * @return JSONC-aware parser configured with this mapper's deserialization settings
+     * @throws IllegalArgumentException if content is null
+     * @throws IOException if the parser cannot be created
+     */
+    @Override
+    public JsonParser createParser(byte[] content, int offset, int len) throws IOException {
+        if (content == null) {
+            throw new IllegalArgumentException("Content cannot be null");
+        }
+        return _deserializationConfig.initialize(_jsonFactory.createParser(content, offset, len));
+    }
+    
+    /**
+     * Creates a parser that reads JSONC content from a string.
+     * 
+     * @param content JSONC content string
+     * @return JSONC-aware parser configured with this mapper's deserialization settings
+     * @throws IllegalArgumentException if content is null
+     * @throws IOException if the parser cannot be created
+     */
+    @Override
+    public JsonParser createParser(String content) throws IOException {
+        if (content == null) {
+            throw new IllegalArgumentException("Content cannot be null");
+        }
+        return _deserializationConfig.initialize(_jsonFactory.createParser(content));
+    }
+    
+    /**
+     * Creates a parser that reads JSONC content from a character array.
+     * 
+     * @param content JSONC content characters
+     * @return JSONC-aware parser configured with this mapper's deserialization settings
+     * @throws IllegalArgumentException if content is null
+     * @throws IOException if the parser cannot be created
+     */
+    @Override
+    public JsonParser createParser(char[] content) throws IOException {
+        if (content == null) {
+            throw new IllegalArgumentException("Content cannot be null");
+        }
+        return _deserializationConfig.initialize(_jsonFactory.createParser(content));
+    }
+    
+    /**
+     * Creates a parser that reads JSONC content from a range of a character array.
+     * 
+     * @param content JSONC content characters
+     * @param offset offset of the first character to read
+     * @param len number of characters to read
+     * @return JSONC-aware parser configured with this mapper's deserialization settings
+     * @throws IllegalArgumentException if content is null
+     * @throws IOException if the parser cannot be created
+     */
+    @Override
+    public JsonParser createParser(char[] content, int offset, int len) throws IOException {
+        if (content == null) {
+            throw new IllegalArgumentException("Content cannot be null");
+        }
+        return _deserializationConfig.initialize(_jsonFactory.createParser(content, offset, len));
+    }
+    
+    /**
+     * Creates a parser that reads JSONC content from a {@code DataInput}. Comments and the
+     * JSON5 features are supported; hexadecimal numbers are not converted for this source.
+     * 
+     * @param content JSONC data input
+     * @return JSONC-aware parser configured with this mapper's deserialization settings
+     * @throws IllegalArgumentException if content is null
+     * @throws IOException if the parser cannot be created
+     */
+    @Override
+    public JsonParser createParser(DataInput content) throws IOException {
+        if (content == null) {
+            throw new IllegalArgumentException("DataInput cannot be null");
+        }
+        return _deserializationConfig.initialize(_jsonFactory.createParser(content));
+    }
+    
+    /**
+     * Creates a non-blocking parser fed with byte arrays. Comments and the JSON5 features
+     * are supported; hexadecimal numbers are not converted for this parser.
+     * 
+     * @return JSONC-aware non-blocking parser configured with this mapper's deserialization settings
+     * @throws IOException if the parser cannot be created
+     */
+    @Override
+    public JsonParser createNonBlockingByteArrayParser() throws IOException {
+        return _deserializationConfig.initialize(_jsonFactory.createNonBlockingByteArrayParser());
+    }
+    
+    /**
+     * Validates JSONC content without building a tree or binding values.
+     * 
+     * <p>The content is streamed through Jackson's tokenizer with the configured JSONC/JSON5
+     * features; no JsonNode, POJO or preprocessed copy is created (except for a
+     * position-preserving copy when hexadecimal numbers are enabled, and a preprocessed one
+     * when custom rewrite rules are configured). The input must contain exactly one root
+     * value. Error positions refer to the original input, or to the preprocessed content
+     * with rewrite rules.
+     * 
+     * @param content JSONC content string
+     * @return validation result describing the first syntax error, if any
+     * @throws IllegalArgumentException if content is null
+     */
+    public JsoncValidationResult validate(String content) {
+        return inMemoryUnchecked(() -> validate(JsoncSource.of(content)));
+    }
+    
+    /**
+     * Validates UTF-8 encoded JSONC content.
+     * 
+     * @param content JSONC content bytes
+     * @return validation result describing the first syntax error, if any
+     * @throws IllegalArgumentException if content is null
+     * @see #validate(String)
+     */
+    public JsoncValidationResult validate(byte[] content) {
+        return inMemoryUnchecked(() -> validate(JsoncSource.of(content)));
+    }
+    
+    /**
+     * Validates JSONC content from a Reader, which is closed when validation completes.
+     * 
+     * @param reader source reader
+     * @return validation result describing the first syntax error, if any
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if reader is null
+     * @see #validate(String)
+     */
+    public JsoncValidationResult validate(Reader reader) throws IOException {
+        return validate(JsoncSource.of(reader));
+    }
+    
+    /**
+     * Validates JSONC content from an InputStream, which is closed when validation completes.
+     * 
+     * @param inputStream source stream
+     * @return validation result describing the first syntax error, if any
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if inputStream is null
+     * @see #validate(String)
+     */
+    public JsoncValidationResult validate(InputStream inputStream) throws IOException {
+        return validate(JsoncSource.of(inputStream));
+    }
+    
+    /**
+     * Validates a JSONC file.
+     * 
+     * @param path source file
+     * @return validation result describing the first syntax error, if any
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if path is null
+     * @see #validate(String)
+     */
+    public JsoncValidationResult validate(Path path) throws IOException {
+        return validate(JsoncSource.of(path));
+    }
+    
+    private JsoncValidationResult validate(JsoncSource source) throws IOException {
+        return validate(createStreamingParser(source));
+    }
+    
+    /**
+     * Computes a semantic fingerprint of JSONC content while streaming.
+     * 
+     * <p>Equivalent to {@code fingerprint(content, false)}: key order is significant.
+     * 
+     * @param content JSONC content string
+     * @return 128-bit fingerprint of the root value
+     * @throws JsonProcessingException if the content is not valid JSONC
+     * @throws IllegalArgumentException if content is null
+     * @see #fingerprint(String, boolean)
+     */
+    public JsoncFingerprint fingerprint(String content) throws JsonProcessingException {
+        return fingerprint(content, false);
+    }
+    
+    /**
+     * Computes a semantic fingerprint of JSONC content while streaming.
+     * 
+     * <p>The hash covers the canonical token stream only: comments, whitespace, trailing
+     * commas and number spelling do not affect it. No JsonNode tree is built, so this is
+     * close to scan speed and suitable for deciding whether two documents differ before
+     * reloading them.
+     * 
+     * @param content JSONC content string
+     * @param ignoreKeyOrder true to treat objects with the same members in a different order as equal
+     * @return 128-bit fingerprint of the root value
+     * @throws JsonProcessingException if the content is not valid JSONC
+     * @throws IllegalArgumentException if content is null
+     */
+    public JsoncFingerprint fingerprint(String content, boolean ignoreKeyOrder) throws JsonProcessingException {
+        return inMemory(() -> fingerprint(JsoncSource.of(content), ignoreKeyOrder));
+    }
+    
+    /**
+     * Computes a semantic fingerprint of UTF-8 encoded JSONC content, key order being significant.
+     * 
+     * @param content JSONC content bytes
+     * @return 128-bit fingerprint of the root value
+     * @throws IOException if the content is not valid JSONC
+     * @throws IllegalArgumentException if content is null
+     * @see #fingerprint(String, boolean)
+     */
+    public JsoncFingerprint fingerprint(byte[] content) throws IOException {
+        return fingerprint(content, false);
+    }
+    
+    /**
+     * Computes a semantic fingerprint of UTF-8 encoded JSONC content.
+     * 
+     * @param content JSONC content bytes
+     * @param ignoreKeyOrder true to treat objects with the same members in a different order as equal
+     * @return 128-bit fingerprint of the root value
+     * @throws IOException if the content is not valid JSONC
+     * @throws IllegalArgumentException if content is null
+     * @see #fingerprint(String, boolean)
+     */
+    public JsoncFingerprint fingerprint(byte[] content, boolean ignoreKeyOrder) throws IOException {
+        return fingerprint(JsoncSource.of(content), ignoreKeyOrder);
+    }
+    
+    /**
+     * Computes a semantic fingerprint of JSONC content from a Reader, which is closed when
+     * done, key order being significant.
+     * 
+     * @param reader source reader
+     * @return 128-bit fingerprint of the root value
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if reader is null
+     * @see #fingerprint(String, boolean)
+     */
+    public JsoncFingerprint fingerprint(Reader reader) throws IOException {
+        return fingerprint(reader, false);
+    }
+    
+    /**
+     * Computes a semantic fingerprint of JSONC content from a Reader, which is closed when done.
+     * 
+     * @param reader source reader
+     * @param ignoreKeyOrder true to treat objects with the same members in a different order as equal
+     * @return 128-bit fingerprint of the root value
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if reader is null
+     * @see #fingerprint(String, boolean)
+     */
+    public JsoncFingerprint fingerprint(Reader reader, boolean ignoreKeyOrder) throws IOException {
+        return fingerprint(JsoncSource.of(reader), ignoreKeyOrder);
+    }
+    
+    /**
+     * Computes a semantic fingerprint of JSONC content from an InputStream, which is closed
+     * when done, key order being significant.
+     * 
+     * @param inputStream source stream
+     * @return 128-bit fingerprint of the root value
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if inputStream is null
+     * @see #fingerprint(String, boolean)
+     */
+    public JsoncFingerprint fingerprint(InputStream inputStream) throws IOException {
+        return fingerprint(inputStream, false);
+    }
+    
+    /**
+     * Computes a semantic fingerprint of JSONC content from an InputStream, which is closed
+     * when done.
+     * 
+     * @param inputStream source stream
+     * @param ignoreKeyOrder true to treat objects with the same members in a different order as equal
+     * @return 128-bit fingerprint of the root value
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if inputStream is null
+     * @see #fingerprint(String, boolean)
+     */
+    public JsoncFingerprint fingerprint(InputStream inputStream, boolean ignoreKeyOrder) throws IOException {
+        return fingerprint(JsoncSource.of(inputStream), ignoreKeyOrder);
+    }
+    
+    /**
+     * Computes a semantic fingerprint of a JSONC file, key order being significant.
+     * 
+     * @param path source file
+     * @return 128-bit fingerprint of the root value
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if path is null
+     * @see #fingerprint(String, boolean)
+     */
+    public JsoncFingerprint fingerprint(Path path) throws IOException {
+        return fingerprint(path, false);
+    }
+    
+    /**
+     * Computes a semantic fingerprint of a JSONC file.
+     * 
+     * @param path source file
+     * @param ignoreKeyOrder true to treat objects with the same members in a different order as equal
+     * @return 128-bit fingerprint of the root value
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if path is null
+     * @see #fingerprint(String, boolean)
+     */
+    public JsoncFingerprint fingerprint(Path path, boolean ignoreKeyOrder) throws IOException {
+        return fingerprint(JsoncSource.of(path), ignoreKeyOrder);
+    }
+    
+    private JsoncFingerprint fingerprint(JsoncSource source, boolean ignoreKeyOrder) throws IOException {
+        try (JsonParser parser = createStreamingParser(source)) {
+            return new StructuralHasher(ignoreKeyOrder).hashRoot(parser);
+        }
+    }
+    
+    /**
+     * Computes the structural difference between two JSONC documents.
+     * 
+     * <p>Each document is streamed once into a compact index of per-subtree hashes (no
+     * JsonNode tree is built). The comparison then descends only into subtrees whose hashes
+     * differ, so after indexing its cost depends on the size of the change rather than the
+     * size of the documents. Formatting, comments and object member order are ignored.
+     * 
+     * @param oldContent previous JSONC content
+     * @param newContent current JSONC content
+     * @return added, removed and changed JSON Pointer paths
+     * @throws JsonProcessingException if either document is not valid JSONC
+     * @throws IllegalArgumentException if either content is null
+     * @see JsoncDiff
+     */
+    public JsoncDiff diff(String oldContent, String newContent) throws JsonProcessingException {
+        return inMemory(() -> diff(JsoncSource.of(oldContent), JsoncSource.of(newContent)));
+    }
+    
+    /**
+     * Computes the structural difference between two UTF-8 encoded JSONC documents.
+     * 
+     * @param oldContent previous JSONC content bytes
+     * @param newContent current JSONC content bytes
+     * @return added, removed and changed JSON Pointer paths
+     * @throws IOException if either document is not valid JSONC
+     * @throws IllegalArgumentException if either content is null
+     * @see #diff(String, String)
+     */
+    public JsoncDiff diff(byte[] oldContent, byte[] newContent) throws IOException {
+        return diff(JsoncSource.of(oldContent), JsoncSource.of(newContent));
+    }
+    
+    /**
+     * Computes the structural difference between two JSONC documents read from Readers,
+     * which are closed when done.
+     * 
+     * @param oldReader previous JSONC content
+     * @param newReader current JSONC content
+     * @return added, removed and changed JSON Pointer paths
+     * @throws IOException if reading fails or either document is not valid JSONC
+     * @throws IllegalArgumentException if either reader is null
+     * @see #diff(String, String)
+     */
+    public JsoncDiff diff(Reader oldReader, Reader newReader) throws IOException {
+        return diff(JsoncSource.of(oldReader), JsoncSource.of(newReader));
+    }
+    
+    /**
+     * Computes the structural difference between two JSONC documents read from
+     * InputStreams, which are closed when done.
+     * 
+     * @param oldStream previous JSONC content
+     * @param newStream current JSONC content
+     * @return added, removed and changed JSON Pointer paths
+     * @throws IOException if reading fails or either document is not valid JSONC
+     * @throws IllegalArgumentException if either stream is null
+     * @see #diff(String, String)
+     */
+    public JsoncDiff diff(InputStream oldStream, InputStream newStream) throws IOException {
+        return diff(JsoncSource.of(oldStream), JsoncSource.of(newStream));
+    }
+    
+    /**
+     * Computes the structural difference between two JSONC files.
+     * 
+     * @param oldPath previous JSONC file
+     * @param newPath current JSONC file
+     * @return added, removed and changed JSON Pointer paths
+     * @throws IOException if reading fails or either document is not valid JSONC
+     * @throws IllegalArgumentException if either path is null
+     * @see #diff(String, String)
+     */
+    public JsoncDiff diff(Path oldPath, Path newPath) throws IOException {
+        return diff(JsoncSource.of(oldPath), JsoncSource.of(newPath));
+    }
+    
+    private JsoncDiff diff(JsoncSource oldSource, JsoncSource newSource) throws IOException {
+        try (JsonParser oldParser = createStreamingParser(oldSource);
+             JsonParser newParser = createStreamingParser(newSource)) {
+            return MerkleTree.diff(MerkleTree.build(oldParser), MerkleTree.build(newParser));
+        }
+    }
+    
+    /**
+     * Reads the value at a JSON Pointer from JSONC content.
+     * 
+     * @param <T> target type
+     * @param content JSONC content
+     * @param pointer location of the value
+     * @param valueType type to bind the value to
+     * @return the bound value, or null if the pointer does not exist
+     * @throws JsonProcessingException if the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readAt(String, Class, JsonPointer...)
+     */
+    public <T> T readAt(String content, JsonPointer pointer, Class<T> valueType) throws JsonProcessingException {
+        return readAt(content, valueType, new JsonPointer[] { pointer }).get(pointer);
+    }
+    
+    /**
+     * Reads the values at several JSON Pointers from JSONC content in one streaming pass.
+     * 
+     * <p>Members and elements that no pointer passes through are skipped at token level
+     * without building nodes, and reading stops as soon as every pointer has been found, so
+     * content after the last match is neither read nor validated. Only the matched values
+     * are bound; when one pointer is a prefix of another, the outer value is read as a tree
+     * once and the inner pointers are resolved against it.
+     * 
+     * @param <T> target type
+     * @param content JSONC content
+     * @param valueType type to bind every value to (use {@code JsonNode.class} for trees)
+     * @param pointers locations of the values
+     * @return values of the pointers that exist, in request order; missing pointers have no entry
+     * @throws JsonProcessingException if the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public <T> Map<JsonPointer, T> readAt(String content, Class<T> valueType, JsonPointer... pointers) throws JsonProcessingException {
+        return inMemory(() -> readAt(JsoncSource.of(content), valueType, pointers));
+    }
+    
+    /**
+     * Reads the value at a JSON Pointer from UTF-8 encoded JSONC content.
+     * 
+     * @param <T> target type
+     * @param content UTF-8 encoded JSONC content
+     * @param pointer location of the value
+     * @param valueType type to bind the value to
+     * @return the bound value, or null if the pointer does not exist
+     * @throws IOException if the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readAt(String, Class, JsonPointer...)
+     */
+    public <T> T readAt(byte[] content, JsonPointer pointer, Class<T> valueType) throws IOException {
+        return readAt(content, valueType, new JsonPointer[] { pointer }).get(pointer);
+    }
+    
+    /**
+     * Reads the values at several JSON Pointers from UTF-8 encoded JSONC content.
+     * 
+     * @param <T> target type
+     * @param content UTF-8 encoded JSONC content
+     * @param valueType type to bind every value to
+     * @param pointers locations of the values
+     * @return values of the pointers that exist, in request order
+     * @throws IOException if the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readAt(String, Class, JsonPointer...)
+     */
+    public <T> Map<JsonPointer, T> readAt(byte[] content, Class<T> valueType, JsonPointer... pointers) throws IOException {
+        return readAt(JsoncSource.of(content), valueType, pointers);
+    }
+    
+    /**
+     * Reads the value at a JSON Pointer from a Reader, which is closed when done.
+     * 
+     * @param <T> target type
+     * @param reader JSONC source
+     * @param pointer location of the value
+     * @param valueType type to bind the value to
+     * @return the bound value, or null if the pointer does not exist
+     * @throws IOException if reading fails, the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readAt(String, Class, JsonPointer...)
+     */
+    public <T> T readAt(Reader reader, JsonPointer pointer, Class<T> valueType) throws IOException {
+        return readAt(reader, valueType, new JsonPointer[] { pointer }).get(pointer);
+    }
+    
+    /**
+     * Reads the values at several JSON Pointers from a Reader, which is closed when done.
+     * 
+     * @param <T> target type
+     * @param reader JSONC source
+     * @param valueType type to bind every value to
+     * @param pointers locations of the values
+     * @return values of the pointers that exist, in request order
+     * @throws IOException if reading fails, the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readAt(String, Class, JsonPointer...)
+     */
+    public <T> Map<JsonPointer, T> readAt(Reader reader, Class<T> valueType, JsonPointer... pointers) throws IOException {
+        return readAt(JsoncSource.of(reader), valueType, pointers);
+    }
+    
+    /**
+     * Reads the value at a JSON Pointer from an InputStream, which is closed when done.
+     * 
+     * @param <T> target type
+     * @param inputStream JSONC source
+     * @param pointer location of the value
+     * @param valueType type to bind the value to
+     * @return the bound value, or null if the pointer does not exist
+     * @throws IOException if reading fails, the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readAt(String, Class, JsonPointer...)
+     */
+    public <T> T readAt(InputStream inputStream, JsonPointer pointer, Class<T> valueType) throws IOException {
+        return readAt(inputStream, valueType, new JsonPointer[] { pointer }).get(pointer);
+    }
+    
+    /**
+     * Reads the values at several JSON Pointers from an InputStream, which is closed when done.
+     * 
+     * @param <T> target type
+     * @param inputStream JSONC source
+     * @param valueType type to bind every value to
+     * @param pointers locations of the values
+     * @return values of the pointers that exist, in request order
+     * @throws IOException if reading fails, the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readAt(String, Class, JsonPointer...)
+     */
+    public <T> Map<JsonPointer, T> readAt(InputStream inputStream, Class<T> valueType, JsonPointer... pointers) throws IOException {
+        return readAt(JsoncSource.of(inputStream), valueType, pointers);
+    }
+    
+    /**
+     * Reads the value at a JSON Pointer from a file.
+     * 
+     * @param <T> target type
+     * @param path JSONC file
+     * @param pointer location of the value
+     * @param valueType type to bind the value to
+     * @return the bound value, or null if the pointer does not exist
+     * @throws IOException if reading fails, the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readAt(String, Class, JsonPointer...)
+     */
+    public <T> T readAt(Path path, JsonPointer pointer, Class<T> valueType) throws IOException {
+        return readAt(path, valueType, new JsonPointer[] { pointer }).get(pointer);
+    }
+    
+    /**
+     * Reads the values at several JSON Pointers from a file.
+     * 
+     * @param <T> target type
+     * @param path JSONC file
+     * @param valueType type to bind every value to
+     * @param pointers locations of the values
+     * @return values of the pointers that exist, in request order
+     * @throws IOException if reading fails, the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readAt(String, Class, JsonPointer...)
+     */
+    public <T> Map<JsonPointer, T> readAt(Path path, Class<T> valueType, JsonPointer... pointers) throws IOException {
+        return readAt(JsoncSource.of(path), valueType, pointers);
+    }
+    
+    private <T> Map<JsonPointer, T> readAt(JsoncSource source, Class<T> valueType, JsonPointer[] pointers) throws IOException {
+        if (valueType == null) {
+            throw new IllegalArgumentException("Value type cannot be null");
+        }
+        if (pointers == null) {
+            throw new IllegalArgumentException("Pointers cannot be null");
+        }
+        for (JsonPointer pointer : pointers) {
+            if (pointer == null) {
+                throw new IllegalArgumentException("Pointers cannot contain null");
+            }
+        }
+        
+        try (JsonParser parser = createStreamingParser(source)) {
+            return new PointerExtractor<>(this, valueType, pointers).extract(parser, pointers);
+        }
+    }
+    
+    /**
+     * Reads a numeric JSONC array directly into a primitive array.
+     * 
+     * @param <A> array type
+     * @param content JSONC content whose root value is an array of numbers
+     * @param arrayType one of {@code int[].class}, {@code long[].class},
+     *                  {@code double[].class} or {@code float[].class}
+     * @return the primitive array
+     * @throws JsonProcessingException if the content is not valid JSONC or not an array of
+     *         matching numbers
+     * @throws IllegalArgumentException if any argument is null or the array type is not supported
+     * @see #readPrimitiveArray(String, JsonPointer, Class)
+     */
+    public <A> A readPrimitiveArray(String content, Class<A> arrayType) throws JsonProcessingException {
+        return readPrimitiveArray(content, JsonPointer.empty(), arrayType);
+    }
+    
+    /**
+     * Reads a numeric array at a JSON Pointer directly into a primitive array.
+     * 
+     * <p>Unlike {@code readValue(content, double[].class)}, the content is not preprocessed
+     * into a new string and no element is boxed: comments and the enabled JSON5 features are handled
+     * by the streaming parser, and each number is stored in a growing primitive buffer as
+     * it is read. Members and elements outside the pointer's path are skipped at token
+     * level, and reading stops after the addressed array, so content after it is neither
+     * read nor validated.
+     * 
+     * <p>{@code int[]} and {@code long[]} accept only integer elements that fit the type;
+     * {@code double[]} and {@code float[]} accept any number, including Infinity and NaN
+     * when they are enabled.
+     * 
+     * @param <A> array type
+     * @param content JSONC content
+     * @param pointer location of the array
+     * @param arrayType one of {@code int[].class}, {@code long[].class},
+     *                  {@code double[].class} or {@code float[].class}
+     * @return the primitive array, or null if the pointer does not exist
+     * @throws JsonProcessingException if the content is not valid JSONC or the addressed
+     *         value is not an array of matching numbers
+     * @throws IllegalArgumentException if any argument is null or the array type is not supported
+     */
+    public <A> A readPrimitiveArray(String content, JsonPointer pointer, Class<A> arrayType) throws JsonProcessingException {
+        return inMemory(() -> readPrimitiveArray(JsoncSource.of(content), pointer, arrayType));
+    }
+    
+    /**
+     * Reads numeric UTF-8 encoded JSONC content directly into a primitive array.
+     * 
+     * @param <A> array type
+     * @param content UTF-8 encoded JSONC content whose root value is an array of numbers
+     * @param arrayType one of {@code int[].class}, {@code long[].class},
+     *                  {@code double[].class} or {@code float[].class}
+     * @return the primitive array
+     * @throws IOException if the content is not valid JSONC or not an array of matching numbers
+     * @throws IllegalArgumentException if any argument is null or the array type is not supported
+     * @see #readPrimitiveArray(String, JsonPointer, Class)
+     */
+    public <A> A readPrimitiveArray(byte[] content, Class<A> arrayType) throws IOException {
+        return readPrimitiveArray(content, JsonPointer.empty(), arrayType);
+    }
+    
+    /**
+     * Reads a numeric array at a JSON Pointer in UTF-8 encoded JSONC content directly into
+     * a primitive array.
+     * 
+     * @param <A> array type
+     * @param content UTF-8 encoded JSONC content
+     * @param pointer location of the array
+     * @param arrayType one of {@code int[].class}, {@code long[].class},
+     *                  {@code double[].class} or {@code float[].class}
+     * @return the primitive array, or null if the pointer does not exist
+     * @throws IOException if the content is not valid JSONC or the addressed value is not an
+     *         array of matching numbers
+     * @throws IllegalArgumentException if any argument is null or the array type is not supported
+     * @see #readPrimitiveArray(String, JsonPointer, Class)
+     */
+    public <A> A readPrimitiveArray(byte[] content, JsonPointer pointer, Class<A> arrayType) throws IOException {
+        return readPrimitiveArray(JsoncSource.of(content), pointer, arrayType);
+    }
+    
+    /**
+     * Reads a numeric JSONC array from a Reader, which is closed when done, directly into a
+     * primitive array.
+     * 
+     * @param <A> array type
+     * @param reader JSONC source whose root value is an array of numbers
+     * @param arrayType one of {@code int[].class}, {@code long[].class},
+     *                  {@code double[].class} or {@code float[].class}
+     * @return the primitive array
+     * @throws IOException if reading fails or the content is not an array of matching numbers
+     * @throws IllegalArgumentException if any argument is null or the array type is not supported
+     * @see #readPrimitiveArray(String, JsonPointer, Class)
+     */
+    public <A> A readPrimitiveArray(Reader reader, Class<A> arrayType) throws IOException {
+        return readPrimitiveArray(reader, JsonPointer.empty(), arrayType);
+    }
+    
+    /**
+     * Reads a numeric array at a JSON Pointer from a Reader, which is closed when done,
+     * directly into a primitive array.
+     * 
+     * @param <A> array type
+     * @param reader JSONC source
+     * @param pointer location of the array
+     * @param arrayType one of {@code int[].class}, {@code long[].class},
+     *                  {@code double[].class} or {@code float[].class}
+     * @return the primitive array, or null if the pointer does not exist
+     * @throws IOException if reading fails or the addressed value is not an array of matching numbers
+     * @throws IllegalArgumentException if any argument is null or the array type is not supported
+     * @see #readPrimitiveArray(String, JsonPointer, Class)
+     */
+    public <A> A readPrimitiveArray(Reader reader, JsonPointer pointer, Class<A> arrayType) throws IOException {
+        return readPrimitiveArray(JsoncSource.of(reader), pointer, arrayType);
+    }
+    
+    /**
+     * Reads a numeric JSONC array from an InputStream, which is closed when done, directly
+     * into a primitive array.
+     * 
+     * @param <A> array type
+     * @param inputStream JSONC source whose root value is an array of numbers
+     * @param arrayType one of {@code int[].class}, {@code long[].class},
+     *                  {@code double[].class} or {@code float[].class}
+     * @return the primitive array
+     * @throws IOException if reading fails or the content is not an array of matching numbers
+     * @throws IllegalArgumentException if any argument is null or the array type is not supported
+     * @see #readPrimitiveArray(String, JsonPointer, Class)
+     */
+    public <A> A readPrimitiveArray(InputStream inputStream, Class<A> arrayType) throws IOException {
+        return readPrimitiveArray(inputStream, JsonPointer.empty(), arrayType);
+    }
+    
+    /**
+     * Reads a numeric array at a JSON Pointer from an InputStream, which is closed when
+     * done, directly into a primitive array.
+     * 
+     * @param <A> array type
+     * @param inputStream JSONC source
+     * @param pointer location of the array
+     * @param arrayType one of {@code int[].class}, {@code long[].class},
+     *                  {@code double[].class} or {@code float[].class}
+     * @return the primitive array, or null if the pointer does not exist
+     * @throws IOException if reading fails or the addressed value is not an array of matching numbers
+     * @throws IllegalArgumentException if any argument is null or the array type is not supported
+     * @see #readPrimitiveArray(String, JsonPointer, Class)
+     */
+    public <A> A readPrimitiveArray(InputStream inputStream, JsonPointer pointer, Class<A> arrayType) throws IOException {
+        return readPrimitiveArray(JsoncSource.of(inputStream), pointer, arrayType);
+    }
+    
+    /**
+     * Reads a numeric JSONC array from a file directly into a primitive array.
+     * 
+     * @param <A> array type
+     * @param path JSONC file whose root value is an array of numbers
+     * @param arrayType one of {@code int[].class}, {@code long[].class},
+     *                  {@code double[].class} or {@code float[].class}
+     * @return the primitive array
+     * @throws IOException if reading fails or the content is not an array of matching numbers
+     * @throws IllegalArgumentException if any argument is null or the array type is not supported
+     * @see #readPrimitiveArray(String, JsonPointer, Class)
+     */
+    public <A> A readPrimitiveArray(Path path, Class<A> arrayType) throws IOException {
+        return readPrimitiveArray(path, JsonPointer.empty(), arrayType);
+    }
+    
+    /**
+     * Reads a numeric array at a JSON Pointer from a file directly into a primitive array.
+     * 
+     * @param <A> array type
+     * @param path JSONC file
+     * @param pointer location of the array
+     * @param arrayType one of {@code int[].class}, {@code long[].class},
+     *                  {@code double[].class} or {@code float[].class}
+     * @return the primitive array, or null if the pointer does not exist
+     * @throws IOException if reading fails or the addressed value is not an array of matching numbers
+     * @throws IllegalArgumentException if any argument is null or the array type is not supported
+     * @see #readPrimitiveArray(String, JsonPointer, Class)
+     */
+    public <A> A readPrimitiveArray(Path path, JsonPointer pointer, Class<A> arrayType) throws IOException {
+        return readPrimitiveArray(JsoncSource.of(path), pointer, arrayType);
+    }
+    
+    private <A> A readPrimitiveArray(JsoncSource source, JsonPointer pointer, Class<A> arrayType) throws IOException {
+        if (pointer == null) {
+            throw new IllegalArgumentException("Pointer cannot be null");
+        }
+        PrimitiveArrayReader arrayReader = new PrimitiveArrayReader(arrayType);
+        
+        try (JsonParser parser = createStreamingParser(source)) {
+            return arrayType.cast(arrayReader.read(parser, pointer));
+        }
+    }
+    
+    /**
+     * Reads a JSONC tree keeping only the tokens accepted by a filter.
+     * 
+     * <p>The filter is applied to the token stream before the tree is built, so filtered-out
+     * branches are skipped without creating nodes. Use {@link JsoncProjection} for
+     * include/exclude paths, or any Jackson {@link TokenFilter}. Containers leading to
+     * included values are kept.
+     * 
+     * @param content JSONC content
+     * @param filter token filter to apply
+     * @return filtered tree, or a missing node if the filter accepts nothing
+     * @throws JsonProcessingException if the content is not valid JSONC
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public JsonNode readTree(String content, TokenFilter filter) throws JsonProcessingException {
+        return inMemory(() -> readFilteredTree(JsoncSource.of(content), filter));
+    }
+    
+    /**
+     * Reads a JSONC value keeping only the tokens accepted by a filter, then binds it.
+     * 
+     * @param <T> target type
+     * @param content JSONC content
+     * @param filter token filter to apply
+     * @param valueType type to bind the filtered content to
+     * @return bound value
+     * @throws JsonProcessingException if the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readTree(String, TokenFilter)
+     */
+    public <T> T readValue(String content, TokenFilter filter, Class<T> valueType) throws JsonProcessingException {
+        return inMemory(() -> readFilteredValue(JsoncSource.of(content), filter, valueType));
+    }
+    
+    /**
+     * Reads a filtered JSONC tree from UTF-8 encoded content.
+     * 
+     * @param content UTF-8 encoded JSONC content
+     * @param filter token filter to apply
+     * @return filtered tree, or a missing node if the filter accepts nothing
+     * @throws IOException if the content is not valid JSONC
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readTree(String, TokenFilter)
+     */
+    public JsonNode readTree(byte[] content, TokenFilter filter) throws IOException {
+        return readFilteredTree(JsoncSource.of(content), filter);
+    }
+    
+    /**
+     * Reads and binds a filtered JSONC value from UTF-8 encoded content.
+     * 
+     * @param <T> target type
+     * @param content UTF-8 encoded JSONC content
+     * @param filter token filter to apply
+     * @param valueType type to bind the filtered content to
+     * @return bound value
+     * @throws IOException if the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readTree(String, TokenFilter)
+     */
+    public <T> T readValue(byte[] content, TokenFilter filter, Class<T> valueType) throws IOException {
+        return readFilteredValue(JsoncSource.of(content), filter, valueType);
+    }
+    
+    /**
+     * Reads a filtered JSONC tree from a Reader, which is closed when done.
+     * 
+     * @param reader JSONC source
+     * @param filter token filter to apply
+     * @return filtered tree, or a missing node if the filter accepts nothing
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readTree(String, TokenFilter)
+     */
+    public JsonNode readTree(Reader reader, TokenFilter filter) throws IOException {
+        return readFilteredTree(JsoncSource.of(reader), filter);
+    }
+    
+    /**
+     * Reads and binds a filtered JSONC value from a Reader, which is closed when done.
+     * 
+     * @param <T> target type
+     * @param reader JSONC source
+     * @param filter token filter to apply
+     * @param valueType type to bind the filtered content to
+     * @return bound value
+     * @throws IOException if reading fails or the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readTree(String, TokenFilter)
+     */
+    public <T> T readValue(Reader reader, TokenFilter filter, Class<T> valueType) throws IOException {
+        return readFilteredValue(JsoncSource.of(reader), filter, valueType);
+    }
+    
+    /**
+     * Reads a filtered JSONC tree from an InputStream, which is closed when done.
+     * 
+     * @param inputStream JSONC source
+     * @param filter token filter to apply
+     * @return filtered tree, or a missing node if the filter accepts nothing
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readTree(String, TokenFilter)
+     */
+    public JsonNode readTree(InputStream inputStream, TokenFilter filter) throws IOException {
+        return readFilteredTree(JsoncSource.of(inputStream), filter);
+    }
+    
+    /**
+     * Reads and binds a filtered JSONC value from an InputStream, which is closed when done.
+     * 
+     * @param <T> target type
+     * @param inputStream JSONC source
+     * @param filter token filter to apply
+     * @param valueType type to bind the filtered content to
+     * @return bound value
+     * @throws IOException if reading fails or the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readTree(String, TokenFilter)
+     */
+    public <T> T readValue(InputStream inputStream, TokenFilter filter, Class<T> valueType) throws IOException {
+        return readFilteredValue(JsoncSource.of(inputStream), filter, valueType);
+    }
+    
+    /**
+     * Reads a filtered JSONC tree from a file.
+     * 
+     * @param path JSONC file
+     * @param filter token filter to apply
+     * @return filtered tree, or a missing node if the filter accepts nothing
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readTree(String, TokenFilter)
+     */
+    public JsonNode readTree(Path path, TokenFilter filter) throws IOException {
+        return readFilteredTree(JsoncSource.of(path), filter);
+    }
+    
+    /**
+     * Reads and binds a filtered JSONC value from a file.
+     * 
+     * @param <T> target type
+     * @param path JSONC file
+     * @param filter token filter to apply
+     * @param valueType type to bind the filtered content to
+     * @return bound value
+     * @throws IOException if reading fails or the content is not valid JSONC or cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     * @see #readTree(String, TokenFilter)
+     */
+    public <T> T readValue(Path path, TokenFilter filter, Class<T> valueType) throws IOException {
+        return readFilteredValue(JsoncSource.of(path), filter, valueType);
+    }
+    
+    private JsonNode readFilteredTree(JsoncSource source, TokenFilter filter) throws IOException {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter cannot be null");
+        }
+        
+        try (JsonParser parser = createFilteringParser(createStreamingParser(source), filter)) {
+            return readFilteredTree(parser);
+        }
+    }
+    
+    private <T> T readFilteredValue(JsoncSource source, TokenFilter filter, Class<T> valueType) throws IOException {
+        if (filter == null || valueType == null) {
+            throw new IllegalArgumentException("Filter and value type cannot be null");
+        }
+        
+        try (JsonParser parser = createFilteringParser(createStreamingParser(source), filter)) {
+            return readValue(parser, valueType);
+        }
+    }
+    
+    /**
+     * Reads a JSONC tree lazily.
+     * 
+     * <p>One streaming scan builds a compact structural index (kinds, offsets and child
+     * ranges held in primitive arrays) over the source characters. The returned tree
+     * consists of regular {@code ObjectNode}/{@code ArrayNode} instances whose members and
+     * elements are decoded from the source only when they are first accessed, so sparse
+     * access to a large document creates only the nodes that are actually visited. The
+     * whole document is still validated by the scan.
+     * 
+     * <p>Lazy trees retain the source characters and are not safe for concurrent access,
+     * including concurrent reads; use {@link #readTree(String)} for trees that are shared
+     * between threads.
+     * 
+     * @param content JSONC content
+     * @return lazy tree, or a missing node if the content is empty
+     * @throws JsonProcessingException if the content is not valid JSONC
+     * @throws IllegalArgumentException if content is null
+     */
+    public JsonNode readTreeLazily(String content) throws JsonProcessingException {
+        return inMemory(() -> readLazyTree(JsoncSource.of(content)));
+    }
+    
+    /**
+     * Reads a JSONC tree lazily from UTF-8 encoded content.
+     * 
+     * @param content JSONC content bytes
+     * @return lazy tree, or a missing node if the content is empty
+     * @throws IOException if the content is not valid JSONC
+     * @throws IllegalArgumentException if content is null
+     * @see #readTreeLazily(String)
+     */
+    public JsonNode readTreeLazily(byte[] content) throws IOException {
+        return readLazyTree(JsoncSource.of(content));
+    }
+    
+    /**
+     * Reads a JSONC tree lazily from a Reader, which is read fully and closed.
+     * 
+     * @param reader JSONC source
+     * @return lazy tree, or a missing node if the content is empty
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if reader is null
+     * @see #readTreeLazily(String)
+     */
+    public JsonNode readTreeLazily(Reader reader) throws IOException {
+        return readLazyTree(JsoncSource.of(reader));
+    }
+    
+    /**
+     * Reads a JSONC tree lazily from a UTF-8 InputStream, which is read fully and closed.
+     * 
+     * @param inputStream JSONC source
+     * @return lazy tree, or a missing node if the content is empty
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if inputStream is null
+     * @see #readTreeLazily(String)
+     */
+    public JsonNode readTreeLazily(InputStream inputStream) throws IOException {
+        return readLazyTree(JsoncSource.of(inputStream));
+    }
+    
+    /**
+     * Reads a JSONC file lazily.
+     * 
+     * @param path JSONC file
+     * @return lazy tree, or a missing node if the content is empty
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if path is null
+     * @see #readTreeLazily(String)
+     */
+    public JsonNode readTreeLazily(Path path) throws IOException {
+        return readLazyTree(JsoncSource.of(path));
+    }
+    
+    private JsonNode readLazyTree(JsoncSource source) throws IOException {
+        String content = jsoncFactory().convert(source.readString());
+        return StructuralIndex.readTree(content.toCharArray(), jsoncFactory(), this);
+    }
+    
+    /**
+     * Reads a JSONC tree into a compact, immutable representation.
+     * 
+     * <p>The tree is built directly from the token stream. Objects keep their members in
+     * parallel name/value arrays (with a linear-probing table for larger objects), arrays of
+     * only integers or only doubles keep them in {@code int[]}, {@code long[]} or
+     * {@code double[]}, and booleans and nulls are shared singletons. Containers are still
+     * {@code ObjectNode}/{@code ArrayNode} instances that compare equal to the result of
+     * {@link #readTree(String)}, but any modification throws
+     * {@link UnsupportedOperationException}; use {@code deepCopy()} for a mutable copy.
+     * Compact trees are safe to share between threads. With
+     * {@link Builder#canonicalizeTrees(boolean)}, identical fragments are shared across trees.
+     * 
+     * @param content JSONC content
+     * @return compact tree, or a missing node if the content is empty
+     * @throws JsonProcessingException if the content is not valid JSONC
+     * @throws IllegalArgumentException if content is null
+     */
+    public JsonNode readTreeCompact(String content) throws JsonProcessingException {
+        return inMemory(() -> readCompactTree(JsoncSource.of(content)));
+    }
+    
+    /**
+     * Reads UTF-8 encoded JSONC content into a compact, immutable tree.
+     * 
+     * @param content JSONC content bytes
+     * @return compact tree, or a missing node if the content is empty
+     * @throws IOException if the content is not valid JSONC
+     * @throws IllegalArgumentException if content is null
+     * @see #readTreeCompact(String)
+     */
+    public JsonNode readTreeCompact(byte[] content) throws IOException {
+        return readCompactTree(JsoncSource.of(content));
+    }
+    
+    /**
+     * Reads JSONC content from a Reader, which is closed, into a compact, immutable tree.
+     * 
+     * @param reader JSONC source
+     * @return compact tree, or a missing node if the content is empty
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if reader is null
+     * @see #readTreeCompact(String)
+     */
+    public JsonNode readTreeCompact(Reader reader) throws IOException {
+        return readCompactTree(JsoncSource.of(reader));
+    }
+    
+    /**
+     * Reads JSONC content from an InputStream, which is closed, into a compact, immutable tree.
+     * 
+     * @param inputStream JSONC source
+     * @return compact tree, or a missing node if the content is empty
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if inputStream is null
+     * @see #readTreeCompact(String)
+     */
+    public JsonNode readTreeCompact(InputStream inputStream) throws IOException {
+        return readCompactTree(JsoncSource.of(inputStream));
+    }
+    
+    /**
+     * Reads a JSONC file into a compact, immutable tree.
+     * 
+     * @param path JSONC file
+     * @return compact tree, or a missing node if the content is empty
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if path is null
+     * @see #readTreeCompact(String)
+     */
+    public JsonNode readTreeCompact(Path path) throws IOException {
+        return readCompactTree(JsoncSource.of(path));
+    }
+    
+    private JsonNode readCompactTree(JsoncSource source) throws IOException {
+        try (JsonParser parser = createStreamingParser(source)) {
+            return new CompactTreeBuilder(this, treeInterner).readTree(parser);
+        }
+    }
+    
+    /**
+     * Reads JSONC content into a flattened, immutable snapshot for repeated lookups by path.
+     * 
+     * <p>The content is streamed once; every value is stored under its path in an
+     * open-addressing table, with numbers and booleans in primitive form, so that
+     * {@code snapshot.getLong("limits.http.maxBodyBytes", 0)} and the other getters neither
+     * walk a tree nor allocate.
+     * 
+     * @param content JSONC content
+     * @return snapshot of the document (empty if the content is empty)
+     * @throws JsonProcessingException if the content is not valid JSONC
+     * @throws IllegalArgumentException if content is null
+     * @see JsoncSnapshot
+     */
+    public JsoncSnapshot readSnapshot(String content) throws JsonProcessingException {
+        return inMemory(() -> readSnapshot(JsoncSource.of(content)));
+    }
+    
+    /**
+     * Reads UTF-8 encoded JSONC content into a flattened, immutable snapshot.
+     * 
+     * @param content JSONC content bytes
+     * @return snapshot of the document (empty if the content is empty)
+     * @throws IOException if the content is not valid JSONC
+     * @throws IllegalArgumentException if content is null
+     * @see #readSnapshot(String)
+     */
+    public JsoncSnapshot readSnapshot(byte[] content) throws IOException {
+        return readSnapshot(JsoncSource.of(content));
+    }
+    
+    /**
+     * Reads JSONC content from a Reader, which is closed, into a flattened, immutable snapshot.
+     * 
+     * @param reader JSONC source
+     * @return snapshot of the document (empty if the content is empty)
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if reader is null
+     * @see #readSnapshot(String)
+     */
+    public JsoncSnapshot readSnapshot(Reader reader) throws IOException {
+        return readSnapshot(JsoncSource.of(reader));
+    }
+    
+    /**
+     * Reads JSONC content from an InputStream, which is closed, into a flattened, immutable
+     * snapshot.
+     * 
+     * @param inputStream JSONC source
+     * @return snapshot of the document (empty if the content is empty)
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if inputStream is null
+     * @see #readSnapshot(String)
+     */
+    public JsoncSnapshot readSnapshot(InputStream inputStream) throws IOException {
+        return readSnapshot(JsoncSource.of(inputStream));
+    }
+    
+    /**
+     * Reads a JSONC file into a flattened, immutable snapshot.
+     * 
+     * @param path JSONC file
+     * @return snapshot of the document (empty if the content is empty)
+     * @throws IOException if reading fails or the content is not valid JSONC
+     * @throws IllegalArgumentException if path is null
+     * @see #readSnapshot(String)
+     */
+    public JsoncSnapshot readSnapshot(Path path) throws IOException {
+        return readSnapshot(JsoncSource.of(path));
+    }
+    
+    private JsoncSnapshot readSnapshot(JsoncSource source) throws IOException {
+        try (JsonParser parser = createStreamingParser(source)) {
+            return JsoncSnapshot.read(parser);
+        }
+    }
+    
+    /**
+     * Preprocesses JSONC content once into a handle that can be read as a tree, bound to
+     * any number of types and validated, without repeating the JSONC transformations.
+     * 
+     * @param content JSONC content
+     * @return handle over the cleaned content
+     * @throws IllegalArgumentException if content is null
+     * @see PreprocessedJsonc
+     */
+    public PreprocessedJsonc preprocess(String content) {
+        return inMemoryUnchecked(() -> preprocess(JsoncSource.of(content)));
+    }
+    
+    /**
+     * Preprocesses UTF-8 encoded JSONC content once into a reusable handle.
+     * 
+     * @param content JSONC content bytes
+     * @return handle over the cleaned content
+     * @throws IllegalArgumentException if content is null
+     * @see #preprocess(String)
+     */
+    public PreprocessedJsonc preprocess(byte[] content) {
+        return inMemoryUnchecked(() -> preprocess(JsoncSource.of(content)));
+    }
+    
+    /**
+     * Preprocesses JSONC content from a Reader, which is closed, once into a reusable handle.
+     * 
+     * @param reader JSONC source
+     * @return handle over the cleaned content
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if reader is null
+     * @see #preprocess(String)
+     */
+    public PreprocessedJsonc preprocess(Reader reader) throws IOException {
+        return preprocess(JsoncSource.of(reader));
+    }
+    
+    /**
+     * Preprocesses UTF-8 JSONC content from an InputStream, which is closed, once into a
+     * reusable handle.
+     * 
+     * @param inputStream JSONC source
+     * @return handle over the cleaned content
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if inputStream is null
+     * @see #preprocess(String)
+     */
+    public PreprocessedJsonc preprocess(InputStream inputStream) throws IOException {
+        return preprocess(JsoncSource.of(inputStream));
+    }
+    
+    /**
+     * Preprocesses a JSONC file once into a reusable handle.
+     * 
+     * @param path JSONC file
+     * @return handle over the cleaned content
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if path is null
+     * @see #preprocess(String)
+     */
+    public PreprocessedJsonc preprocess(Path path) throws IOException {
+        return preprocess(JsoncSource.of(path));
+    }
+    
+    private PreprocessedJsonc preprocess(JsoncSource source) throws IOException {
+        return new PreprocessedJsonc(this, preprocessJsonc(source.readString()).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Preprocesses a JSONC file and writes the cleaned content to a Writer as it is produced,
+     * without building it as a {@code String} or a {@link PreprocessedJsonc} first. The
+     * writer is flushed but not closed.
+     * 
+     * @param path JSONC file
+     * @param writer destination of the cleaned content
+     * @throws IOException if reading or writing fails
+     * @throws IllegalArgumentException if any argument is null
+     * @see #preprocess(Path)
+     */
+    public void preprocess(Path path, Writer writer) throws IOException {
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer cannot be null");
+        }
+        String content = JsoncSource.of(path).readString();
+        WriterOutput out = new WriterOutput(writer);
+        try {
+            preprocessJsonc(content, out);
+            out.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Buffers the output of a preprocessing pass and passes it on to a Writer. Write
+     * failures are rethrown unchecked, as the pass cannot declare them.
+     */
+    private static final class WriterOutput implements JsoncUtils.CharOutput {
+        private final Writer writer;
+        private final char[] buffer = new char[8192];
+        private int size;
+
+        WriterOutput(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void append(char c) {
+            if (size == buffer.length) {
+                flushBuffer();
+            }
+            buffer[size++] = c;
+        }
+
+        void flush() throws IOException {
+            flushBuffer();
+            writer.flush();
+        }
+
+        private void flushBuffer() {
+            try {
+                writer.write(buffer, 0, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            size = 0;
+        }
+    }
+    
+    /**
+     * Binds content that has already been preprocessed, for {@link PreprocessedJsonc}.
+     */
+    <T> T readPreprocessed(byte[] content, JavaType valueType) throws JsonProcessingException {
+        try {
+            return bindPreprocessed(jsoncFactory().createConvertedParser(content), valueType);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw JsonMappingException.fromUnexpectedIOE(e);
+        }
+    }
+    
+    /**
+     * Binds JSON text that has already been preprocessed, such as the value recorded by a
+     * {@link JsoncLazy}, so it is not preprocessed (and rewritten by custom rules) again.
+     */
+    <T> T readConverted(String json, JavaType valueType) throws JsonProcessingException {
+        try {
+            return bindPreprocessed(jsoncFactory().createConvertedParser(json), valueType);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw JsonMappingException.fromUnexpectedIOE(e);
+        }
+    }
+    
+    /**
+     * Reads content that has already been preprocessed as a tree, for {@link PreprocessedJsonc}.
+     */
+    JsonNode readPreprocessedTree(byte[] content) throws JsonProcessingException {
+        try {
+            return _readTreeAndClose(jsoncFactory().createConvertedParser(content));
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw JsonMappingException.fromUnexpectedIOE(e);
+        }
+    }
+    
+    /**
+     * Validates content that has already been preprocessed, for {@link PreprocessedJsonc}.
+     */
+    JsoncValidationResult validatePreprocessed(byte[] content) {
+        try {
+            return validate(jsoncFactory().createConvertedParser(content));
+        } catch (IOException e) {
+            // Not reachable for in-memory content
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Scans a JSONC file once and writes a sidecar offset index for it.
+     * 
+     * <p>The index records the byte range of every value and, for every object, its members
+     * sorted by name hash, together with the source length, modification time and content
+     * hash. Open it with {@link #openOffsetIndex(Path, Path)} to read values at JSON
+     * Pointers without re-scanning the source. An existing index file is overwritten.
+     * 
+     * @param source JSONC file (UTF-8)
+     * @param indexFile sidecar file to write
+     * @throws IOException if reading or writing fails, or the source is not valid JSONC
+     * @throws IllegalArgumentException if any argument is null
+     * @throws UnsupportedOperationException if the mapper has custom rewrite rules
+     * @see JsoncOffsetIndex
+     */
+    public void buildOffsetIndex(Path source, Path indexFile) throws IOException {
+        if (source == null || indexFile == null) {
+            throw new IllegalArgumentException("Source and index paths cannot be null");
+        }
+        checkNoRewriteRules();
+        
+        InputStream in = Files.newInputStream(source);
+        HexNumberInputStream hex = null;
+        if (allowHexNumbers) {
+            // Converts while the file streams through; the index maps offsets back to the file
+            hex = new HexNumberInputStream(in, allowSingleQuotes);
+            in = hex;
+        }
+        JsoncOffsetIndex.build(source, indexingParser(jsoncFactory().createConvertedParser(in)), hex, indexFile);
+    }
+    
+    /**
+     * Creates a parser over a byte range of a file read through an offset index, configured
+     * like the parser that built the index.
+     * 
+     * @param in bytes of the range; the parser closes the stream
+     * @return parser over the range
+     * @throws IOException if the parser cannot be created
+     */
+    JsonParser createIndexParser(InputStream in) throws IOException {
+        InputStream converted = allowHexNumbers ? new HexNumberInputStream(in, allowSingleQuotes) : in;
+        return indexingParser(jsoncFactory().createConvertedParser(converted));
+    }
+    
+    /**
+     * Prepares a parser reading the file bytes of an offset index. Escaping the line breaks of
+     * multiline strings would move the byte offsets, so the parser accepts them as they are
+     * instead, and with them other unescaped control characters.
+     */
+    private JsonParser indexingParser(JsonParser parser) {
+        if (allowMultilineStrings) {
+            parser.enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS.mappedFeature());
+        }
+        return parser;
+    }
+    
+    /**
+     * Opens a sidecar offset index written by {@link #buildOffsetIndex(Path, Path)}.
+     * 
+     * <p>The index is memory-mapped; values are read by streaming only their byte range of
+     * the source. Opening fails if the source length or modification time no longer match
+     * the index; {@link JsoncOffsetIndex#verifySource()} performs a full content check.
+     * 
+     * @param source JSONC file the index was built for
+     * @param indexFile sidecar index file
+     * @return open index; close it when done
+     * @throws IOException if the index cannot be read, is not an offset index, or is stale
+     * @throws IllegalArgumentException if any argument is null
+     * @throws UnsupportedOperationException if the mapper has custom rewrite rules
+     */
+    public JsoncOffsetIndex openOffsetIndex(Path source, Path indexFile) throws IOException {
+        if (source == null || indexFile == null) {
+            throw new IllegalArgumentException("Source and index paths cannot be null");
+        }
+        checkNoRewriteRules();
+        
+        return JsoncOffsetIndex.open(this, source, indexFile);
+    }
+    
+    /**
+     * Rejects offset indexes on a mapper with rewrite rules, which would have to preprocess
+     * the file and could no longer address its values by position.
+     */
+    private void checkNoRewriteRules() {
+        if (!rewriteRules.isEmpty()) {
+            throw new UnsupportedOperationException(
+                    "Offset indexes cannot be used with rewrite rules, which change the positions of the content");
+        }
+    }
+    
+    /**
+     * Wraps a streaming parser so that only tokens accepted by the filter (and the
+     * containers leading to them) are exposed.
+     */
+    private static JsonParser createFilteringParser(JsonParser parser, TokenFilter filter) {
+        return new FilteringParserDelegate(parser, filter, TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true);
+    }
+    
+    private JsonNode readFilteredTree(JsonParser parser) throws IOException {
+        JsonNode tree = readTree(parser);
+        return tree == null ? getNodeFactory().missingNode() : tree;
+    }
+    
+    /**
+     * Creates a streaming parser over the original JSONC content of a source.
+     * 
+     * @param source JSONC source
+     * @return parser created by the factory from {@link #createFactory}
+     * @throws IOException if the parser cannot be created
+     */
+    JsonParser createStreamingParser(JsoncSource source) throws IOException {
+        return source.createParser(_jsonFactory);
+    }
+    
+    /**
+     * Operation over a {@link JsoncSource}.
+     */
+    @FunctionalInterface
+    private interface SourceOperation<R> {
+        R run() throws IOException;
+    }
+    
+    /**
+     * Runs an operation over in-memory content, for the overloads declaring only
+     * {@link JsonProcessingException}.
+     */
+    private static <R> R inMemory(SourceOperation<R> operation) throws JsonProcessingException {
+        try {
+            return operation.run();
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            // Not reachable for in-memory content
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Runs an operation over in-memory content, for the overloads declaring no checked exception.
+     */
+    private static <R> R inMemoryUnchecked(SourceOperation<R> operation) {
+        try {
+            return operation.run();
+        } catch (IOException e) {
+            // Not reachable for in-memory content
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Streams all tokens of a single root value and closes the parser.
+     */
+    private JsoncValidationResult validate(JsonParser parser) throws IOException {
+        try (JsonParser p = parser) {
+            if (p.nextToken() == null) {
+                return invalidResult("No content to validate", p.currentLocation());
+            }
+            p.skipChildren();
+            if (p.nextToken() != null) {
+                return invalidResult("Unexpected content after the root value", p.currentTokenLocation());
+            }
+            return JsoncValidationResult.valid();
+        } catch (JsonProcessingException e) {
+            return invalidResult(e.getOriginalMessage(), e.getLocation());
+        }
+    }
+    
+    /**
+     * Creates an invalid result from a Jackson location.
+     */
+    private static JsoncValidationResult invalidResult(String message, JsonLocation location) {
+        if (location == null) {
+            return JsoncValidationResult.invalid(message, -1, -1, -1L);
+        }
+        long offset = location.getCharOffset() >= 0 ? location.getCharOffset() : location.getByteOffset();
+        return JsoncValidationResult.invalid(message, location.getLineNr(), location.getColumnNr(), offset);
+    }
+    
+    /**
+     * Helper method to read a File to String.
+     *
+     * @param file the File to read
+     * @return the contents of the file as a String
+     * @throws IOException if an I/O error occurs
+     */
+    String readFileToString(File file) throws IOException {
+        try (FileInputStream fis = new FileInputStream(file);
+             InputStreamReader isr = new InputStreamReader(fis, StandardCharsets.UTF_8);
+             BufferedReader reader = new BufferedReader(isr)) {
+            return readReaderToString(reader);
+        }
+    }
+    
+    /**
+     * Helper method to read a Reader to String.
+     */
+    String readReaderToString(Reader reader) throws IOException {
+        return JsoncSource.readFully(reader);
     }
     
     /**
      * Helper method to read an InputStream to String.
      */
-    private String readInputStreamToString(InputStream inputStream) throws IOException {
+    String readInputStreamToString(InputStream inputStream) throws IOException {
         try (InputStreamReader isr = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
              BufferedReader reader = new BufferedReader(isr)) {
             return readReaderToString(reader);
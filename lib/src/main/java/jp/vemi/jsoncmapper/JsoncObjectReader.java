@@ -0,0 +1,163 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.FormatSchema;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.filter.JsonPointerBasedFilter;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.deser.DataFormatReaders;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link ObjectReader} returned by {@link JsoncMapper#reader()}, {@code readerFor(...)},
+ * {@code readerForUpdating(...)} and {@code readerWithView(...)}.
+ *
+ * <p>Every {@code readValue}, {@code readTree} and {@code readValues} variant of
+ * {@code ObjectReader} obtains its parser from one of the {@code createParser} methods, so
+ * preprocessing is applied there, with the same options as {@link JsoncMapper#readValue(String, Class)}.
+ * Readers derived through the fluent {@code with...}/{@code forType}/{@code at} methods keep
+ * this behaviour, so a reader can be configured once, cached and shared between threads.
+ * {@code DataInput} sources are passed through without preprocessing.
+ */
+final class JsoncObjectReader extends ObjectReader {
+
+    private static final long serialVersionUID = 1L;
+
+    private final JsoncMapper jsoncMapper;
+
+    JsoncObjectReader(JsoncMapper mapper, DeserializationConfig config) {
+        super(mapper, config);
+        this.jsoncMapper = mapper;
+    }
+
+    JsoncObjectReader(JsoncMapper mapper, DeserializationConfig config, JavaType valueType, Object valueToUpdate,
+                      FormatSchema schema, InjectableValues injectableValues) {
+        super(mapper, config, valueType, valueToUpdate, schema, injectableValues);
+        this.jsoncMapper = mapper;
+    }
+
+    private JsoncObjectReader(JsoncObjectReader base, DeserializationConfig config, JavaType valueType,
+                              JsonDeserializer<Object> rootDeserializer, Object valueToUpdate, FormatSchema schema,
+                              InjectableValues injectableValues, DataFormatReaders dataFormatReaders) {
+        super(base, config, valueType, rootDeserializer, valueToUpdate, schema, injectableValues, dataFormatReaders);
+        this.jsoncMapper = base.jsoncMapper;
+    }
+
+    private JsoncObjectReader(JsoncObjectReader base, DeserializationConfig config) {
+        super(base, config);
+        this.jsoncMapper = base.jsoncMapper;
+    }
+
+    private JsoncObjectReader(JsoncObjectReader base, JsonFactory factory) {
+        super(base, factory);
+        this.jsoncMapper = base.jsoncMapper;
+    }
+
+    private JsoncObjectReader(JsoncObjectReader base, TokenFilter filter) {
+        super(base, filter);
+        this.jsoncMapper = base.jsoncMapper;
+    }
+
+    @Override
+    protected ObjectReader _new(ObjectReader base, JsonFactory factory) {
+        return new JsoncObjectReader((JsoncObjectReader) base, factory);
+    }
+
+    @Override
+    protected ObjectReader _new(ObjectReader base, DeserializationConfig config) {
+        return new JsoncObjectReader((JsoncObjectReader) base, config);
+    }
+
+    @Override
+    protected ObjectReader _new(ObjectReader base, DeserializationConfig config, JavaType valueType,
+                                JsonDeserializer<Object> rootDeserializer, Object valueToUpdate, FormatSchema schema,
+                                InjectableValues injectableValues, DataFormatReaders dataFormatReaders) {
+        return new JsoncObjectReader((JsoncObjectReader) base, config, valueType, rootDeserializer, valueToUpdate,
+                                     schema, injectableValues, dataFormatReaders);
+    }
+
+    @Override
+    public ObjectReader at(String pointerExpression) {
+        _assertNotNull("pointerExpr", pointerExpression);
+        return new JsoncObjectReader(this, new JsonPointerBasedFilter(pointerExpression));
+    }
+
+    @Override
+    public ObjectReader at(JsonPointer pointer) {
+        _assertNotNull("pointer", pointer);
+        return new JsoncObjectReader(this, new JsonPointerBasedFilter(pointer));
+    }
+
+    @Override
+    public JsonParser createParser(String content) throws IOException {
+        _assertNotNull("content", content);
+        String preprocessed = jsoncMapper.preprocessJsonc(content);
+        if (_parserFactory instanceof JsoncFactory) {
+            // Hexadecimal numbers are already converted by preprocessing
+            return _config.initialize(((JsoncFactory) _parserFactory).createConvertedParser(preprocessed), _schema);
+        }
+        return super.createParser(preprocessed);
+    }
+
+    @Override
+    public JsonParser createParser(char[] content) throws IOException {
+        _assertNotNull("content", content);
+        return createParser(new String(content));
+    }
+
+    @Override
+    public JsonParser createParser(char[] content, int offset, int length) throws IOException {
+        _assertNotNull("content", content);
+        return createParser(new String(content, offset, length));
+    }
+
+    @Override
+    public JsonParser createParser(byte[] content) throws IOException {
+        _assertNotNull("content", content);
+        return createParser(new String(content, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public JsonParser createParser(byte[] content, int offset, int length) throws IOException {
+        _assertNotNull("content", content);
+        return createParser(new String(content, offset, length, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public JsonParser createParser(Reader reader) throws IOException {
+        _assertNotNull("src", reader);
+        try (Reader source = reader) {
+            return createParser(jsoncMapper.readReaderToString(source));
+        }
+    }
+
+    @Override
+    public JsonParser createParser(InputStream inputStream) throws IOException {
+        _assertNotNull("src", inputStream);
+        return createParser(jsoncMapper.readInputStreamToString(inputStream));
+    }
+
+    @Override
+    public JsonParser createParser(File file) throws IOException {
+        _assertNotNull("src", file);
+        return createParser(jsoncMapper.readFileToString(file));
+    }
+
+    @Override
+    public JsonParser createParser(URL url) throws IOException {
+        _assertNotNull("src", url);
+        return createParser(jsoncMapper.readUrlToString(url));
+    }
+}
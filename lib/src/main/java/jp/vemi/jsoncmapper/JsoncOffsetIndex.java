@@ -0,0 +1,505 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Persistent offset index for random access into a large JSONC file.
+ *
+ * <p>{@link JsoncMapper#buildOffsetIndex(Path, Path)} scans the source once and writes a
+ * sidecar file with the byte range of every value, and for every container the list of its
+ * children. Object members are sorted by a 64-bit hash of their name, so a member is found
+ * by binary search. {@link JsoncMapper#openOffsetIndex(Path, Path)} memory-maps the sidecar;
+ * {@link #readAt(JsonPointer, Class)} then walks the pointer through the index and streams
+ * only the target range of the source, so a lookup touches O(depth) index pages plus the value
+ * itself instead of re-parsing the file.
+ *
+ * <p>The sidecar records the source length, modification time and a 128-bit content hash.
+ * Opening checks the length and modification time, which is cheap; {@link #verifySource()}
+ * re-hashes the source for a full check.
+ *
+ * <p>Instances are safe for concurrent lookups and must be closed after use.
+ *
+ * @since 1.1.0
+ */
+public final class JsoncOffsetIndex implements Closeable {
+
+    private static final int MAGIC = 0x4A43_4958; // "JCIX"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 64;
+    private static final int NODE_SIZE = 32;
+    private static final int ENTRY_SIZE = 24;
+
+    private static final byte SCALAR = 0;
+    private static final byte OBJECT = 1;
+    private static final byte ARRAY = 2;
+
+    private final JsoncMapper mapper;
+    private final Path source;
+    private final FileChannel sourceChannel;
+    private final ByteBuffer index;
+    private final long sourceHashHigh;
+    private final long sourceHashLow;
+    private final int nodeCount;
+    private final int entriesStart;
+
+    private JsoncOffsetIndex(JsoncMapper mapper, Path source, FileChannel sourceChannel, ByteBuffer index) {
+        this.mapper = mapper;
+        this.source = source;
+        this.sourceChannel = sourceChannel;
+        this.index = index;
+        this.sourceHashHigh = index.getLong(24);
+        this.sourceHashLow = index.getLong(32);
+        this.nodeCount = index.getInt(40);
+        this.entriesStart = HEADER_SIZE + nodeCount * NODE_SIZE;
+    }
+
+    /**
+     * Reads the value at a JSON Pointer.
+     *
+     * @param <T> target type
+     * @param pointer location of the value
+     * @param valueType type to bind the value to
+     * @return the bound value, or null if the pointer does not exist
+     * @throws IOException if reading or binding fails
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public <T> T readAt(JsonPointer pointer, Class<T> valueType) throws IOException {
+        if (pointer == null || valueType == null) {
+            throw new IllegalArgumentException("Pointer and value type cannot be null");
+        }
+
+        int node = find(pointer);
+        return node < 0 ? null : read(node, valueType);
+    }
+
+    /**
+     * Reads the subtree at a JSON Pointer.
+     *
+     * @param pointer location of the value
+     * @return the subtree, or a missing node if the pointer does not exist
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if pointer is null
+     */
+    public JsonNode readTreeAt(JsonPointer pointer) throws IOException {
+        if (pointer == null) {
+            throw new IllegalArgumentException("Pointer cannot be null");
+        }
+
+        int node = find(pointer);
+        return node < 0 ? mapper.getNodeFactory().missingNode() : read(node, JsonNode.class);
+    }
+
+    /**
+     * Re-hashes the source file and compares it with the hash recorded in the index.
+     *
+     * @return true if the source content is unchanged since the index was built
+     * @throws IOException if reading the source fails
+     */
+    public boolean verifySource() throws IOException {
+        long[] hash = hashSource(source);
+        return hash[0] == sourceHashHigh && hash[1] == sourceHashLow;
+    }
+
+    @Override
+    public void close() throws IOException {
+        sourceChannel.close();
+    }
+
+    /**
+     * Streams the byte range of a node and binds it.
+     */
+    private <T> T read(int node, Class<T> valueType) throws IOException {
+        try (JsonParser parser = mapper.createIndexParser(new RangeInputStream(sourceChannel, nodeStart(node), nodeEnd(node)))) {
+            parser.nextToken();
+            return mapper.readValue(parser, valueType);
+        }
+    }
+
+    /**
+     * Walks a pointer through the index.
+     *
+     * @return node number of the target, or -1 if it does not exist
+     */
+    private int find(JsonPointer pointer) throws IOException {
+        int node = 0;
+        for (JsonPointer tail = pointer; !tail.matches(); tail = tail.tail()) {
+            byte kind = nodeKind(node);
+            if (kind == OBJECT) {
+                node = findMember(node, tail.getMatchingProperty());
+            } else if (kind == ARRAY) {
+                int position = tail.getMatchingIndex();
+                node = position >= 0 && position < childCount(node) ? entryNode(childStart(node) + position) : -1;
+            } else {
+                node = -1;
+            }
+            if (node < 0) {
+                return -1;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Binary-searches the members of an object by name hash, then confirms the name
+     * against the source. The last of duplicate names wins, as in {@code readTree}.
+     */
+    private int findMember(int object, String name) throws IOException {
+        long hash = nameHash(name);
+        int low = childStart(object);
+        int high = low + childCount(object) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (entryHash(mid) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        int match = -1;
+        int end = childStart(object) + childCount(object);
+        for (int entry = low; entry < end && entryHash(entry) == hash; entry++) {
+            int child = entryNode(entry);
+            if (name.equals(readName(entryNameOffset(entry), nodeStart(child)))) {
+                match = child;
+            }
+        }
+        return match;
+    }
+
+    private String readName(long from, long to) throws IOException {
+        try (JsonParser parser = mapper.createIndexParser(new RangeInputStream(sourceChannel, from, to))) {
+            parser.nextToken();
+            return parser.getText();
+        }
+    }
+
+    private long nodeStart(int node) {
+        return index.getLong(HEADER_SIZE + node * NODE_SIZE);
+    }
+
+    private long nodeEnd(int node) {
+        return index.getLong(HEADER_SIZE + node * NODE_SIZE + 8);
+    }
+
+    private int childStart(int node) {
+        return index.getInt(HEADER_SIZE + node * NODE_SIZE + 16);
+    }
+
+    private int childCount(int node) {
+        return index.getInt(HEADER_SIZE + node * NODE_SIZE + 20);
+    }
+
+    private byte nodeKind(int node) {
+        return (byte) index.getInt(HEADER_SIZE + node * NODE_SIZE + 24);
+    }
+
+    private long entryHash(int entry) {
+        return index.getLong(entriesStart + entry * ENTRY_SIZE);
+    }
+
+    private long entryNameOffset(int entry) {
+        return index.getLong(entriesStart + entry * ENTRY_SIZE + 8);
+    }
+
+    private int entryNode(int entry) {
+        return index.getInt(entriesStart + entry * ENTRY_SIZE + 16);
+    }
+
+    /**
+     * Opens an index after checking that it belongs to the source in its current state.
+     */
+    static JsoncOffsetIndex open(JsoncMapper mapper, Path source, Path indexFile) throws IOException {
+        MappedByteBuffer index;
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a JSONC offset index: " + indexFile);
+            }
+            index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (index.getInt(0) != MAGIC || index.getInt(4) != VERSION) {
+            throw new IOException("Not a JSONC offset index: " + indexFile);
+        }
+        if (index.getLong(8) != Files.size(source)
+                || index.getLong(16) != Files.getLastModifiedTime(source).toMillis()) {
+            throw new IOException("Offset index " + indexFile + " is stale for " + source);
+        }
+        return new JsoncOffsetIndex(mapper, source, FileChannel.open(source, StandardOpenOption.READ), index);
+    }
+
+    /**
+     * Scans a source file and writes its index.
+     *
+     * @param hex the hex-converting stream the parser reads, or null if it reads the file itself
+     */
+    static void build(Path source, JsonParser parser, HexNumberInputStream hex, Path indexFile) throws IOException {
+        long length = Files.size(source);
+        long modified = Files.getLastModifiedTime(source).toMillis();
+        Builder builder = new Builder(hex);
+        try (JsonParser p = parser) {
+            if (p.nextToken() == null) {
+                throw new JsonParseException(p, "No content to index");
+            }
+            builder.value(p, 0L, -1L);
+        }
+        long[] hash = hashSource(source);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(length).putLong(modified)
+              .putLong(hash[0]).putLong(hash[1]).putInt(builder.size).putInt(builder.entryCount);
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        try (OutputStream out = Files.newOutputStream(indexFile)) {
+            out.write(header.array());
+            for (int i = 0; i < builder.size; i++) {
+                if (buffer.remaining() < NODE_SIZE) {
+                    flush(buffer, out);
+                }
+                buffer.putLong(builder.start[i]).putLong(builder.end[i])
+                      .putInt(builder.childStart[i]).putInt(builder.childCount[i])
+                      .putInt(builder.kind[i]).putInt(0);
+            }
+            for (int i = 0; i < builder.entryCount; i++) {
+                if (buffer.remaining() < ENTRY_SIZE) {
+                    flush(buffer, out);
+                }
+                buffer.putLong(builder.entryHash[i]).putLong(builder.entryNameOffset[i])
+                      .putInt(builder.entryNode[i]).putInt(0);
+            }
+            flush(buffer, out);
+        }
+    }
+
+    private static void flush(ByteBuffer buffer, OutputStream out) throws IOException {
+        out.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+
+    private static long nameHash(String name) {
+        StructuralHasher hasher = new StructuralHasher(false);
+        hasher.reset();
+        hasher.string(name);
+        hasher.finish();
+        return hasher.high();
+    }
+
+    private static long[] hashSource(Path source) throws IOException {
+        StructuralHasher hasher = new StructuralHasher(false);
+        hasher.reset();
+        byte[] buffer = new byte[65536];
+        long total = 0L;
+        long block = 0L;
+        try (InputStream in = Files.newInputStream(source)) {
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                for (int i = 0; i < read; i++) {
+                    block = (block << 8) | (buffer[i] & 0xFF);
+                    if ((++total & 7) == 0) {
+                        hasher.mix(block);
+                        block = 0L;
+                    }
+                }
+            }
+        }
+        hasher.mix(block);
+        hasher.mix(total);
+        hasher.finish();
+        return new long[] { hasher.high(), hasher.low() };
+    }
+
+    /**
+     * Reads a byte range of the source with positional reads, which leave the channel
+     * position alone so that concurrent lookups do not interfere.
+     */
+    private static final class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+
+        RangeInputStream(FileChannel channel, long from, long to) {
+            this.channel = channel;
+            this.position = from;
+            this.end = to;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= end) {
+                return -1;
+            }
+            int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+            if (n < 0) {
+                throw new EOFException("Source ended before the indexed range");
+            }
+            position += n;
+            return n;
+        }
+    }
+
+    /**
+     * In-memory form of the index while scanning, in parallel primitive arrays. Children of
+     * one container are written contiguously when the container ends.
+     */
+    private static final class Builder {
+        private final HexNumberInputStream hex;
+
+        int size;
+        long[] start = new long[64];
+        long[] end = new long[64];
+        int[] childStart = new int[64];
+        int[] childCount = new int[64];
+        byte[] kind = new byte[64];
+
+        int entryCount;
+        long[] entryHash = new long[64];
+        long[] entryNameOffset = new long[64];
+        int[] entryNode = new int[64];
+
+        int pending;
+        long[] pendingHash = new long[64];
+        long[] pendingNameOffset = new long[64];
+        int[] pendingNode = new int[64];
+
+        Builder(HexNumberInputStream hex) {
+            this.hex = hex;
+        }
+
+        void value(JsonParser p, long nameHash, long nameOffset) throws IOException {
+            int node = allocate(offset(p.currentTokenLocation().getByteOffset()));
+            push(nameHash, nameOffset, node);
+            JsonToken token = p.currentToken();
+            if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+                // Completes lazily decoded tokens so the location is just past the value
+                p.finishToken();
+                long offset = p.currentLocation().getByteOffset();
+                // Cover the whole of a converted hex literal, so the range spans the original
+                end[node] = hex == null ? offset : hex.originalEnd(offset);
+                return;
+            }
+
+            boolean object = token == JsonToken.START_OBJECT;
+            kind[node] = object ? OBJECT : ARRAY;
+            JsonToken endToken = object ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+            int mark = pending;
+            for (JsonToken t = p.nextToken(); t != endToken; t = p.nextToken()) {
+                long hash = 0L;
+                long offset = -1L;
+                if (object) {
+                    hash = nameHash(p.currentName());
+                    offset = offset(p.currentTokenLocation().getByteOffset());
+                    p.nextToken();
+                }
+                value(p, hash, offset);
+            }
+            end[node] = offset(p.currentLocation().getByteOffset());
+            int count = pending - mark;
+            if (object) {
+                sortByHash(mark, count);
+            }
+            ensureEntries(count);
+            System.arraycopy(pendingHash, mark, entryHash, entryCount, count);
+            System.arraycopy(pendingNameOffset, mark, entryNameOffset, entryCount, count);
+            System.arraycopy(pendingNode, mark, entryNode, entryCount, count);
+            childStart[node] = entryCount;
+            childCount[node] = count;
+            entryCount += count;
+            pending = mark;
+        }
+
+        /**
+         * Maps a byte offset reported by the parser to the source file.
+         */
+        private long offset(long parsed) {
+            return hex == null ? parsed : hex.originalOffset(parsed);
+        }
+
+        private int allocate(long offset) {
+            if (size == start.length) {
+                int capacity = size << 1;
+                start = Arrays.copyOf(start, capacity);
+                end = Arrays.copyOf(end, capacity);
+                childStart = Arrays.copyOf(childStart, capacity);
+                childCount = Arrays.copyOf(childCount, capacity);
+                kind = Arrays.copyOf(kind, capacity);
+            }
+            int node = size++;
+            start[node] = offset;
+            kind[node] = SCALAR;
+            return node;
+        }
+
+        private void push(long hash, long nameOffset, int node) {
+            if (node == 0) {
+                // The root is nobody's child
+                return;
+            }
+            if (pending == pendingNode.length) {
+                int capacity = pending << 1;
+                pendingHash = Arrays.copyOf(pendingHash, capacity);
+                pendingNameOffset = Arrays.copyOf(pendingNameOffset, capacity);
+                pendingNode = Arrays.copyOf(pendingNode, capacity);
+            }
+            pendingHash[pending] = hash;
+            pendingNameOffset[pending] = nameOffset;
+            pendingNode[pending] = node;
+            pending++;
+        }
+
+        private void ensureEntries(int count) {
+            if (entryCount + count > entryNode.length) {
+                int capacity = Math.max(entryNode.length << 1, entryCount + count);
+                entryHash = Arrays.copyOf(entryHash, capacity);
+                entryNameOffset = Arrays.copyOf(entryNameOffset, capacity);
+                entryNode = Arrays.copyOf(entryNode, capacity);
+            }
+        }
+
+        /**
+         * Sorts pending members by name hash; the sort is stable, so duplicates keep
+         * document order.
+         */
+        private void sortByHash(int from, int count) {
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = from + i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(pendingHash[a], pendingHash[b]));
+            long[] hashes = new long[count];
+            long[] offsets = new long[count];
+            int[] nodes = new int[count];
+            for (int i = 0; i < count; i++) {
+                hashes[i] = pendingHash[order[i]];
+                offsets[i] = pendingNameOffset[order[i]];
+                nodes[i] = pendingNode[order[i]];
+            }
+            System.arraycopy(hashes, 0, pendingHash, from, count);
+            System.arraycopy(offsets, 0, pendingNameOffset, from, count);
+            System.arraycopy(nodes, 0, pendingNode, from, count);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package jp.vemi.jsoncmapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.UnaryOperator;
+
+/**
+ * Text preprocessing of a {@link JsoncMapper}, specialized for its feature combination when
+ * the mapper is built.
+ *
+ * <p>The common configurations get a dedicated single-scan implementation with no feature
+ * tests in its loop: comments only, minify, and either of those with trailing commas.
+ * Custom {@link JsoncRewriteRule}s run inside the comment-removal scan, which also removes
+ * trailing commas when nothing else is enabled. Other combinations run the enabled JSON5
+ * conversions as a chain composed once, followed by a fused comment and trailing comma scan
+ * when trailing commas are enabled. With a pool, comment (and trailing comma) removal of large
+ * inputs is split into chunks scanned in parallel; minify and custom rules stay sequential.
+ */
+abstract class JsoncPreprocessor {
+
+    /**
+     * Preprocesses JSONC content into plain JSON.
+     */
+    abstract String apply(String content);
+
+    /**
+     * Preprocesses JSONC content, writing the result to {@code out}. The last pass writes to
+     * {@code out} directly where possible.
+     */
+    abstract void apply(String content, JsoncUtils.CharOutput out);
+
+    /**
+     * Selects the preprocessor for a feature combination.
+     *
+     * @param rules custom rewrite rules, or null if there are none
+     * @param pool pool for parallel comment removal, or null to scan sequentially
+     */
+    static JsoncPreprocessor forFeatures(boolean removeTrailingCommas, boolean allowSingleQuotes,
+                                         boolean allowHexNumbers, boolean allowMultilineStrings,
+                                         boolean allowUnescapedControlChars, boolean minify,
+                                         RewriteRules rules, ForkJoinPool pool) {
+        List<UnaryOperator<String>> conversions = new ArrayList<>();
+        if (allowSingleQuotes) {
+            conversions.add(JsoncUtils::convertSingleQuotes);
+        }
+        if (allowHexNumbers) {
+            conversions.add(JsoncUtils::convertHexNumbers);
+        }
+        if (allowMultilineStrings) {
+            conversions.add(JsoncUtils::convertMultilineStrings);
+        }
+        if (allowUnescapedControlChars) {
+            conversions.add(JsoncUtils::escapeControlChars);
+        }
+
+        if (rules != null) {
+            if (conversions.isEmpty() && !minify) {
+                return new RuleScan(rules, removeTrailingCommas);
+            }
+            UnaryOperator<String> first = content -> {
+                StringBuilder result = new StringBuilder(content.length());
+                JsoncUtils.removeCommentsWithRules(content, rules, allowSingleQuotes, false, result::append);
+                return minify ? JsoncUtils.minify(result.toString(), allowSingleQuotes) : result.toString();
+            };
+            return new Chain(first, conversions, removeTrailingCommas, pool);
+        }
+        if (!conversions.isEmpty()) {
+            UnaryOperator<String> first = minify ? content -> JsoncUtils.minify(content, allowSingleQuotes)
+                    : pool != null ? content -> JsoncUtils.removeComments(content, pool) : JsoncUtils::removeComments;
+            return new Chain(first, conversions, removeTrailingCommas, pool);
+        }
+        if (minify) {
+            return removeTrailingCommas ? new MinifyAndTrailingCommas() : new Minify();
+        }
+        if (pool != null) {
+            return new ParallelComments(pool, removeTrailingCommas);
+        }
+        return removeTrailingCommas ? new CommentsAndTrailingCommas() : new CommentsOnly();
+    }
+
+    /**
+     * Copies a string to an output.
+     */
+    private static void copy(String text, JsoncUtils.CharOutput out) {
+        for (int i = 0, length = text.length(); i < length; i++) {
+            out.append(text.charAt(i));
+        }
+    }
+
+    private static final class CommentsOnly extends JsoncPreprocessor {
+        @Override
+        String apply(String content) {
+            return JsoncUtils.removeComments(content);
+        }
+
+        @Override
+        void apply(String content, JsoncUtils.CharOutput out) {
+            JsoncUtils.removeComments(content, out);
+        }
+    }
+
+    private static final class CommentsAndTrailingCommas extends JsoncPreprocessor {
+        @Override
+        String apply(String content) {
+            return JsoncUtils.removeCommentsAndTrailingCommas(content);
+        }
+
+        @Override
+        void apply(String content, JsoncUtils.CharOutput out) {
+            JsoncUtils.removeCommentsAndTrailingCommas(content, out);
+        }
+    }
+
+    private static final class Minify extends JsoncPreprocessor {
+        @Override
+        String apply(String content) {
+            return JsoncUtils.minify(content, false);
+        }
+
+        @Override
+        void apply(String content, JsoncUtils.CharOutput out) {
+            JsoncUtils.minify(content, false, false, out);
+        }
+    }
+
+    private static final class MinifyAndTrailingCommas extends JsoncPreprocessor {
+        @Override
+        String apply(String content) {
+            if (content.isEmpty()) {
+                return content;
+            }
+            StringBuilder result = new StringBuilder(content.length());
+            JsoncUtils.minify(content, false, true, result::append);
+            return result.toString();
+        }
+
+        @Override
+        void apply(String content, JsoncUtils.CharOutput out) {
+            JsoncUtils.minify(content, false, true, out);
+        }
+    }
+
+    /**
+     * Comment removal, and trailing comma removal if enabled, over chunks in parallel.
+     */
+    private static final class ParallelComments extends JsoncPreprocessor {
+        private final ForkJoinPool pool;
+        private final boolean removeTrailingCommas;
+
+        ParallelComments(ForkJoinPool pool, boolean removeTrailingCommas) {
+            this.pool = pool;
+            this.removeTrailingCommas = removeTrailingCommas;
+        }
+
+        @Override
+        String apply(String content) {
+            return removeTrailingCommas ? JsoncUtils.removeCommentsAndTrailingCommas(content, pool)
+                    : JsoncUtils.removeComments(content, pool);
+        }
+
+        @Override
+        void apply(String content, JsoncUtils.CharOutput out) {
+            ParallelCommentScan.apply(content, removeTrailingCommas, pool, out);
+        }
+    }
+
+    /**
+     * Comment removal with custom rules, and trailing comma removal if enabled, in one scan.
+     */
+    private static final class RuleScan extends JsoncPreprocessor {
+        private final RewriteRules rules;
+        private final boolean removeTrailingCommas;
+
+        RuleScan(RewriteRules rules, boolean removeTrailingCommas) {
+            this.rules = rules;
+            this.removeTrailingCommas = removeTrailingCommas;
+        }
+
+        @Override
+        String apply(String content) {
+            if (content.isEmpty()) {
+                return content;
+            }
+            StringBuilder result = new StringBuilder(content.length());
+            JsoncUtils.removeCommentsWithRules(content, rules, false, removeTrailingCommas, result::append);
+            return result.toString();
+        }
+
+        @Override
+        void apply(String content, JsoncUtils.CharOutput out) {
+            JsoncUtils.removeCommentsWithRules(content, rules, false, removeTrailingCommas, out);
+        }
+    }
+
+    /**
+     * Comment removal, the enabled JSON5 conversions in their fixed order, then trailing
+     * comma removal if enabled.
+     */
+    private static final class Chain extends JsoncPreprocessor {
+        private final UnaryOperator<String> first;
+        private final UnaryOperator<String>[] conversions;
+        private final boolean removeTrailingCommas;
+        private final ForkJoinPool pool;
+
+        /**
+         * @param first pass that removes comments (and applies minify and custom rules)
+         * @param pool pool for the parallel trailing comma pass, or null
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Chain(UnaryOperator<String> first, List<UnaryOperator<String>> conversions, boolean removeTrailingCommas,
+              ForkJoinPool pool) {
+            this.first = first;
+            this.conversions = conversions.toArray(new UnaryOperator[0]);
+            this.removeTrailingCommas = removeTrailingCommas;
+            this.pool = pool;
+        }
+
+        private String convert(String content) {
+            String result = first.apply(content);
+            for (UnaryOperator<String> conversion : conversions) {
+                result = conversion.apply(result);
+            }
+            return result;
+        }
+
+        @Override
+        String apply(String content) {
+            String result = convert(content);
+            // Trailing commas last, after all other transformations; the text has no comments left
+            if (!removeTrailingCommas) {
+                return result;
+            }
+            return pool != null ? JsoncUtils.removeCommentsAndTrailingCommas(result, pool)
+                    : JsoncUtils.removeCommentsAndTrailingCommas(result);
+        }
+
+        @Override
+        void apply(String content, JsoncUtils.CharOutput out) {
+            if (removeTrailingCommas && pool != null) {
+                ParallelCommentScan.apply(convert(content), true, pool, out);
+            } else if (removeTrailingCommas) {
+                JsoncUtils.removeCommentsAndTrailingCommas(convert(content), out);
+            } else {
+                copy(convert(content), out);
+            }
+        }
+    }
+}
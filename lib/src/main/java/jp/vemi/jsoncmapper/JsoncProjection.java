@@ -0,0 +1,140 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Path-based projection for filtered reads such as
+ * {@link JsoncMapper#readTree(String, TokenFilter)}.
+ *
+ * <p>A projection either keeps only the given paths (plus the containers leading to them)
+ * or drops the given paths and keeps everything else. Paths use JSON Pointer syntax, for
+ * example {@code /services/auth/timeoutMs}; a segment such as {@code 0} matches both an
+ * object member named {@code "0"} and the first array element. As with any Jackson
+ * {@link TokenFilter}, containers left without accepted content are dropped; a projection
+ * that matches nothing yields no content at all.
+ *
+ * <p>Projections are immutable and can be shared between threads and reads.
+ *
+ * <pre>{@code
+ * JsonNode node = mapper.readTree(jsonc, JsoncProjection.include("/name", "/services/auth"));
+ * }</pre>
+ *
+ * @since 1.1.0
+ */
+public final class JsoncProjection extends TokenFilter {
+
+    private final boolean exclude;
+    private final String path;
+    private boolean terminal;
+    private Map<String, JsoncProjection> properties;
+    private Map<Integer, JsoncProjection> indexes;
+
+    private JsoncProjection(boolean exclude, String path) {
+        this.exclude = exclude;
+        this.path = path;
+    }
+
+    /**
+     * Creates a projection that keeps only the given paths.
+     *
+     * @param paths JSON Pointer paths to keep
+     * @return projection filter
+     * @throws IllegalArgumentException if paths is null, contains null or an invalid pointer
+     */
+    public static JsoncProjection include(String... paths) {
+        return create(false, paths);
+    }
+
+    /**
+     * Creates a projection that drops the given paths and keeps everything else.
+     *
+     * @param paths JSON Pointer paths to drop
+     * @return projection filter
+     * @throws IllegalArgumentException if paths is null, contains null or an invalid pointer
+     */
+    public static JsoncProjection exclude(String... paths) {
+        return create(true, paths);
+    }
+
+    private static JsoncProjection create(boolean exclude, String[] paths) {
+        if (paths == null) {
+            throw new IllegalArgumentException("Paths cannot be null");
+        }
+        JsoncProjection root = new JsoncProjection(exclude, "");
+        for (String path : paths) {
+            if (path == null) {
+                throw new IllegalArgumentException("Paths cannot contain null");
+            }
+            JsoncProjection node = root;
+            for (JsonPointer tail = JsonPointer.compile(path); !tail.matches(); tail = tail.tail()) {
+                node = node.child(tail);
+            }
+            node.terminal = true;
+        }
+        return root;
+    }
+
+    private JsoncProjection child(JsonPointer tail) {
+        String property = tail.getMatchingProperty();
+        if (properties == null) {
+            properties = new HashMap<>();
+        }
+        JsoncProjection child = properties.get(property);
+        if (child == null) {
+            child = new JsoncProjection(exclude, path + '/' + property);
+            properties.put(property, child);
+        }
+        int index = tail.getMatchingIndex();
+        if (index >= 0) {
+            if (indexes == null) {
+                indexes = new HashMap<>();
+            }
+            indexes.put(index, child);
+        }
+        return child;
+    }
+
+    /**
+     * Maps a child node to the filter Jackson should apply below it.
+     */
+    private TokenFilter filterFor(JsoncProjection child) {
+        if (child == null) {
+            // Not mentioned by any path
+            return exclude ? TokenFilter.INCLUDE_ALL : null;
+        }
+        if (child.terminal) {
+            return exclude ? null : TokenFilter.INCLUDE_ALL;
+        }
+        return child;
+    }
+
+    @Override
+    public TokenFilter includeRootValue(int index) {
+        return terminal ? filterFor(this) : this;
+    }
+
+    @Override
+    public TokenFilter includeProperty(String name) {
+        return filterFor(properties == null ? null : properties.get(name));
+    }
+
+    @Override
+    public TokenFilter includeElement(int index) {
+        return filterFor(indexes == null ? null : indexes.get(index));
+    }
+
+    @Override
+    protected boolean _includeScalar() {
+        // A scalar where an included path expects a container is not part of the projection
+        return exclude;
+    }
+
+    @Override
+    public String toString() {
+        return "JsoncProjection[" + (exclude ? "exclude" : "include") + " below '" + path + "']";
+    }
+}
@@ -0,0 +1,90 @@
+package jp.vemi.jsoncmapper;
+
+/**
+ * Custom rewrite applied by {@link JsoncMapper} during its comment-removal scan, registered
+ * with {@link JsoncMapper.Builder#addRewriteRule(JsoncRewriteRule)}.
+ *
+ * <p>Whenever the scan meets the {@link #trigger()} character outside comments (and, if
+ * {@link #appliesInStrings()} returns true, inside strings), it calls
+ * {@link #rewrite(String, int, Output)}, which either consumes the construct starting there
+ * and writes its replacement to the scan's output, or declines. Custom syntax therefore adds
+ * no pass and no intermediate buffer. The replacement is not scanned again, so it must be
+ * valid JSON for its position, escaped as needed inside strings.
+ *
+ * <p>Example: vendor-specific {@code #} line comments.
+ * <pre>{@code
+ * JsoncRewriteRule hashComments = new JsoncRewriteRule() {
+ *     public char trigger() {
+ *         return '#';
+ *     }
+ *
+ *     public int rewrite(String input, int index, Output out) {
+ *         int end = index;
+ *         while (end < input.length() && input.charAt(end) != '\n') {
+ *             end++;
+ *         }
+ *         return end;
+ *     }
+ * };
+ * }</pre>
+ *
+ * <p>Implementations must be thread-safe, as a mapper is shared between threads.
+ *
+ * @since 1.1.0
+ * @see JsoncMapper.Builder#addRewriteRule(JsoncRewriteRule)
+ */
+public interface JsoncRewriteRule {
+
+    /**
+     * @return character that may start the construct handled by this rule
+     */
+    char trigger();
+
+    /**
+     * Whether the rule is also tried inside double-quoted (and, with single quotes enabled,
+     * single-quoted) strings, for example for {@code ${NAME}} interpolation in string values.
+     * Escaped characters never trigger a rule.
+     *
+     * @return true to try the rule inside strings as well; false by default
+     */
+    default boolean appliesInStrings() {
+        return false;
+    }
+
+    /**
+     * Rewrites the construct starting at {@code input.charAt(index)}, which is the trigger
+     * character.
+     *
+     * @param input whole content being scanned
+     * @param index position of the trigger character
+     * @param out output of the scan, to write the replacement to
+     * @return position right after the consumed construct (greater than {@code index}), or -1
+     *         to decline without writing anything, in which case the character is kept or
+     *         handed to the next rule with the same trigger
+     */
+    int rewrite(String input, int index, Output out);
+
+    /**
+     * Output of the scan that runs the rules.
+     */
+    interface Output {
+
+        /**
+         * Appends a character.
+         *
+         * @param c character to append
+         */
+        void append(char c);
+
+        /**
+         * Appends the characters of a sequence.
+         *
+         * @param text characters to append
+         */
+        default void append(CharSequence text) {
+            for (int i = 0, length = text.length(); i < length; i++) {
+                append(text.charAt(i));
+            }
+        }
+    }
+}
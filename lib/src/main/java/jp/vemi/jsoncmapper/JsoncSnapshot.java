@@ -0,0 +1,475 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Immutable, flattened view of a JSONC document for frequent lookups of individual values.
+ *
+ * <p>Every value of the document, containers included, is stored under its path in one
+ * open-addressing table. Scalars are kept in primitive form (a {@code long} slot per value
+ * holding the integer, the bits of the double or the boolean) and strings in a string table,
+ * so lookups and the typed getters neither walk a tree nor allocate.
+ *
+ * <p>Paths may be given as JSON Pointers ({@code "/limits/http/maxBodyBytes"}) or, when they
+ * do not start with {@code '/'}, as dotted paths ({@code "limits.http.maxBodyBytes"});
+ * array elements are addressed by their index in both forms ({@code "servers.0.host"}).
+ * Names containing {@code '.'} can only be reached with a JSON Pointer. The empty string
+ * denotes the root value. When an object has duplicate names, the path of the name
+ * resolves to the last value, as with {@code readTree}: earlier values and their
+ * descendants are dropped and the name is counted once.
+ *
+ * <p>Snapshots are created by {@link JsoncMapper#readSnapshot(String)} and are safe to share
+ * between threads.
+ *
+ * @since 1.1.0
+ */
+public final class JsoncSnapshot {
+
+    private static final byte NULL = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte STRING = 4;
+    private static final byte OBJECT = 5;
+    private static final byte ARRAY = 6;
+
+    /** Hash contribution of a segment boundary; outside the range of {@code char}. */
+    private static final int SEGMENT = 0x10000;
+
+    /** Paths in JSON Pointer form. */
+    private final String[] paths;
+    private final int[] hashes;
+    private final byte[] kinds;
+    /** Integer, double bits, 0/1, string index or container size, depending on the kind. */
+    private final long[] values;
+    private final String[] strings;
+    /** Linear probing table of entry + 1 (0 marks a free slot). */
+    private final int[] table;
+
+    private JsoncSnapshot(String[] paths, int[] hashes, byte[] kinds, long[] values, String[] strings) {
+        this.paths = paths;
+        this.hashes = hashes;
+        this.kinds = kinds;
+        this.values = values;
+        this.strings = strings;
+        this.table = new int[Integer.highestOneBit(Math.max(1, paths.length * 2 - 1)) << 1];
+        int mask = table.length - 1;
+        for (int i = 0; i < paths.length; i++) {
+            int slot = hashes[i] & mask;
+            // Paths are unique: the builder drops the earlier value of a duplicate name
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+    }
+
+    /**
+     * Reads the single root value of a parser that has not been advanced yet.
+     *
+     * @param parser streaming parser; not closed
+     * @return snapshot of the value (empty if there is no content)
+     * @throws IOException if reading fails or the content is not valid JSONC
+     */
+    static JsoncSnapshot read(JsonParser parser) throws IOException {
+        Builder builder = new Builder();
+        if (parser.nextToken() != null) {
+            builder.value(parser, new StringBuilder());
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param path JSON Pointer or dotted path
+     * @return true if the document has a value (including null) at the path
+     * @throws IllegalArgumentException if path is null
+     */
+    public boolean has(String path) {
+        return find(path) >= 0;
+    }
+
+    /**
+     * @param path JSON Pointer or dotted path
+     * @return type of the value at the path, or null if there is none
+     * @throws IllegalArgumentException if path is null
+     */
+    public JsonNodeType getNodeType(String path) {
+        int entry = find(path);
+        if (entry < 0) {
+            return null;
+        }
+        switch (kinds[entry]) {
+            case BOOLEAN:
+                return JsonNodeType.BOOLEAN;
+            case LONG:
+            case DOUBLE:
+                return JsonNodeType.NUMBER;
+            case STRING:
+                return JsonNodeType.STRING;
+            case OBJECT:
+                return JsonNodeType.OBJECT;
+            case ARRAY:
+                return JsonNodeType.ARRAY;
+            default:
+                return JsonNodeType.NULL;
+        }
+    }
+
+    /**
+     * @param path JSON Pointer or dotted path
+     * @return number of members or elements of the object or array at the path, or -1 if
+     *         there is no container there
+     * @throws IllegalArgumentException if path is null
+     */
+    public int sizeOf(String path) {
+        int entry = find(path);
+        return entry >= 0 && (kinds[entry] == OBJECT || kinds[entry] == ARRAY) ? (int) values[entry] : -1;
+    }
+
+    /**
+     * Returns the number at the path as a long; doubles are truncated.
+     *
+     * @param path JSON Pointer or dotted path
+     * @param defaultValue value returned if there is no number at the path
+     * @return the number, or defaultValue
+     * @throws IllegalArgumentException if path is null
+     */
+    public long getLong(String path, long defaultValue) {
+        int entry = find(path);
+        if (entry >= 0) {
+            if (kinds[entry] == LONG) {
+                return values[entry];
+            }
+            if (kinds[entry] == DOUBLE) {
+                return (long) Double.longBitsToDouble(values[entry]);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Returns the number at the path as an int; doubles are truncated and longs narrowed.
+     *
+     * @param path JSON Pointer or dotted path
+     * @param defaultValue value returned if there is no number at the path
+     * @return the number, or defaultValue
+     * @throws IllegalArgumentException if path is null
+     */
+    public int getInt(String path, int defaultValue) {
+        int entry = find(path);
+        if (entry >= 0) {
+            if (kinds[entry] == LONG) {
+                return (int) values[entry];
+            }
+            if (kinds[entry] == DOUBLE) {
+                return (int) Double.longBitsToDouble(values[entry]);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Returns the number at the path as a double.
+     *
+     * @param path JSON Pointer or dotted path
+     * @param defaultValue value returned if there is no number at the path
+     * @return the number, or defaultValue
+     * @throws IllegalArgumentException if path is null
+     */
+    public double getDouble(String path, double defaultValue) {
+        int entry = find(path);
+        if (entry >= 0) {
+            if (kinds[entry] == DOUBLE) {
+                return Double.longBitsToDouble(values[entry]);
+            }
+            if (kinds[entry] == LONG) {
+                return values[entry];
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * @param path JSON Pointer or dotted path
+     * @param defaultValue value returned if there is no boolean at the path
+     * @return the boolean, or defaultValue
+     * @throws IllegalArgumentException if path is null
+     */
+    public boolean getBoolean(String path, boolean defaultValue) {
+        int entry = find(path);
+        return entry >= 0 && kinds[entry] == BOOLEAN ? values[entry] != 0 : defaultValue;
+    }
+
+    /**
+     * @param path JSON Pointer or dotted path
+     * @param defaultValue value returned if there is no string at the path
+     * @return the string, or defaultValue
+     * @throws IllegalArgumentException if path is null
+     */
+    public String getString(String path, String defaultValue) {
+        int entry = find(path);
+        return entry >= 0 && kinds[entry] == STRING ? strings[(int) values[entry]] : defaultValue;
+    }
+
+    /**
+     * @return number of values in the snapshot, containers included
+     */
+    public int size() {
+        return paths.length;
+    }
+
+    private int find(String path) {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+        boolean pointer = path.isEmpty() || path.charAt(0) == '/';
+        int mask = table.length - 1;
+        int hash = pointer ? hashPointer(path) : hashDotted(path);
+        for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (hashes[entry] == hash && (pointer ? paths[entry].equals(path) : matchesDotted(paths[entry], path))) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Hashes the unescaped segments of a JSON Pointer, so that it hashes like the
+     * equivalent dotted path.
+     */
+    private static int hashPointer(String pointer) {
+        int hash = 0;
+        for (int i = 0, length = pointer.length(); i < length; i++) {
+            char c = pointer.charAt(i);
+            if (c == '/') {
+                hash = hash * 31 + SEGMENT;
+                continue;
+            }
+            if (c == '~' && i + 1 < length) {
+                c = pointer.charAt(++i) == '1' ? '/' : '~';
+            }
+            hash = hash * 31 + c;
+        }
+        return spread(hash);
+    }
+
+    private static int hashDotted(String path) {
+        int hash = SEGMENT;
+        for (int i = 0, length = path.length(); i < length; i++) {
+            char c = path.charAt(i);
+            hash = hash * 31 + (c == '.' ? SEGMENT : c);
+        }
+        return spread(hash);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Compares a stored JSON Pointer with a non-empty dotted path segment by segment.
+     */
+    private static boolean matchesDotted(String pointer, String path) {
+        int i = 0;
+        int j = 0;
+        int pointerLength = pointer.length();
+        int pathLength = path.length();
+        // A dotted path starts with an implicit segment boundary
+        if (pointerLength == 0 || pointer.charAt(i++) != '/') {
+            return false;
+        }
+        while (i < pointerLength && j < pathLength) {
+            char c = pointer.charAt(i++);
+            char d = path.charAt(j++);
+            if (c == '/' || d == '.') {
+                if (c != '/' || d != '.') {
+                    return false;
+                }
+                continue;
+            }
+            if (c == '~' && i < pointerLength) {
+                c = pointer.charAt(i++) == '1' ? '/' : '~';
+            }
+            if (c != d) {
+                return false;
+            }
+        }
+        return i == pointerLength && j == pathLength;
+    }
+
+    /**
+     * Collects the entries of a document in document order.
+     */
+    private static final class Builder {
+        private String[] paths = new String[16];
+        private int[] hashes = new int[16];
+        private byte[] kinds = new byte[16];
+        private long[] values = new long[16];
+        private String[] strings = new String[8];
+        private int size;
+        private int stringCount;
+        /** Linear probing table of entry + 1 over the entries so far, to find duplicate names. */
+        private int[] table = new int[32];
+
+        /**
+         * Adds the value at the parser's current token and everything below it.
+         *
+         * @param path JSON Pointer of the value; restored to its original length on return
+         */
+        void value(JsonParser p, StringBuilder path) throws IOException {
+            int length = path.length();
+            switch (p.currentToken()) {
+                case START_OBJECT: {
+                    int entry = add(path, OBJECT, 0);
+                    int count = 0;
+                    for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+                        appendEscaped(path.append('/'), name);
+                        if (!removeEarlier(path.toString())) {
+                            count++;
+                        }
+                        p.nextToken();
+                        value(p, path);
+                        path.setLength(length);
+                    }
+                    values[entry] = count;
+                    return;
+                }
+                case START_ARRAY: {
+                    int entry = add(path, ARRAY, 0);
+                    int count = 0;
+                    while (p.nextToken() != JsonToken.END_ARRAY) {
+                        path.append('/').append(count++);
+                        value(p, path);
+                        path.setLength(length);
+                    }
+                    values[entry] = count;
+                    return;
+                }
+                case VALUE_STRING:
+                    if (stringCount == strings.length) {
+                        strings = Arrays.copyOf(strings, stringCount << 1);
+                    }
+                    strings[stringCount] = p.getText();
+                    add(path, STRING, stringCount++);
+                    return;
+                case VALUE_NUMBER_INT:
+                    if (p.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                        add(path, LONG, p.getLongValue());
+                        return;
+                    }
+                    // Integers beyond the long range are kept as (approximate) doubles
+                    add(path, DOUBLE, Double.doubleToRawLongBits(p.getDoubleValue()));
+                    return;
+                case VALUE_NUMBER_FLOAT:
+                    add(path, DOUBLE, Double.doubleToRawLongBits(p.getDoubleValue()));
+                    return;
+                case VALUE_TRUE:
+                    add(path, BOOLEAN, 1);
+                    return;
+                case VALUE_FALSE:
+                    add(path, BOOLEAN, 0);
+                    return;
+                default:
+                    add(path, NULL, 0);
+            }
+        }
+
+        private static void appendEscaped(StringBuilder path, String name) {
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (c == '~') {
+                    path.append("~0");
+                } else if (c == '/') {
+                    path.append("~1");
+                } else {
+                    path.append(c);
+                }
+            }
+        }
+
+        private int add(StringBuilder path, byte kind, long value) {
+            if (size == paths.length) {
+                int capacity = size << 1;
+                paths = Arrays.copyOf(paths, capacity);
+                hashes = Arrays.copyOf(hashes, capacity);
+                kinds = Arrays.copyOf(kinds, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            String pointer = path.toString();
+            paths[size] = pointer;
+            hashes[size] = hashPointer(pointer);
+            kinds[size] = kind;
+            values[size] = value;
+            if ((size + 1) << 1 > table.length) {
+                table = new int[table.length << 1];
+                for (int i = 0; i < size; i++) {
+                    index(i);
+                }
+            }
+            index(size);
+            return size++;
+        }
+
+        private void index(int entry) {
+            int mask = table.length - 1;
+            int slot = hashes[entry] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = entry + 1;
+        }
+
+        /**
+         * Removes the earlier value of a repeated name and everything below it, so that the
+         * path and its descendants resolve to the later value only, as in {@code readTree}.
+         * Duplicates are rare, so the entries after it are simply shifted down.
+         *
+         * @param pointer path of the member about to be added
+         * @return true if the name already had a value
+         */
+        private boolean removeEarlier(String pointer) {
+            int mask = table.length - 1;
+            int slot = hashPointer(pointer) & mask;
+            int earlier = -1;
+            for (int entry; (entry = table[slot]) != 0; slot = (slot + 1) & mask) {
+                if (paths[entry - 1].equals(pointer)) {
+                    earlier = entry - 1;
+                    break;
+                }
+            }
+            if (earlier < 0) {
+                return false;
+            }
+            // Descendants directly follow their container
+            int end = earlier + 1;
+            while (end < size && paths[end].length() > pointer.length() && paths[end].startsWith(pointer)
+                    && paths[end].charAt(pointer.length()) == '/') {
+                end++;
+            }
+            System.arraycopy(paths, end, paths, earlier, size - end);
+            System.arraycopy(hashes, end, hashes, earlier, size - end);
+            System.arraycopy(kinds, end, kinds, earlier, size - end);
+            System.arraycopy(values, end, values, earlier, size - end);
+            int removed = end - earlier;
+            Arrays.fill(paths, size - removed, size, null);
+            size -= removed;
+            Arrays.fill(table, 0);
+            for (int i = 0; i < size; i++) {
+                index(i);
+            }
+            return true;
+        }
+
+        JsoncSnapshot build() {
+            return new JsoncSnapshot(Arrays.copyOf(paths, size), Arrays.copyOf(hashes, size),
+                                     Arrays.copyOf(kinds, size), Arrays.copyOf(values, size),
+                                     Arrays.copyOf(strings, stringCount));
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Input of a {@link JsoncMapper} operation: a string or other character sequence, UTF-8
+ * bytes, a range of an array, a byte buffer, a reader, a UTF-8 stream or a file. Each operation is written once over a source and its public overloads only
+ * choose the source, so the null checks and the way each kind of input is opened, read and
+ * closed are defined here.
+ */
+abstract class JsoncSource {
+
+    private JsoncSource() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if content is null
+     */
+    static JsoncSource of(String content) {
+        if (content == null) {
+            throw new IllegalArgumentException("Content cannot be null");
+        }
+        return new StringSource(content);
+    }
+
+    /**
+     * @throws IllegalArgumentException if content is null
+     */
+    static JsoncSource of(byte[] content) {
+        if (content == null) {
+            throw new IllegalArgumentException("Source byte array cannot be null");
+        }
+        return new BytesSource(content, 0, content.length);
+    }
+
+    /**
+     * @throws IllegalArgumentException if content is null or the range is invalid
+     */
+    static JsoncSource of(byte[] content, int offset, int len) {
+        if (content == null) {
+            throw new IllegalArgumentException("Source byte array cannot be null");
+        }
+        checkRange(content.length, offset, len);
+        return new BytesSource(content, offset, len);
+    }
+
+    /**
+     * @throws IllegalArgumentException if content is null or the range is invalid
+     */
+    static JsoncSource of(char[] content, int offset, int len) {
+        if (content == null) {
+            throw new IllegalArgumentException("Source character array cannot be null");
+        }
+        checkRange(content.length, offset, len);
+        return new CharsSource(content, offset, len);
+    }
+
+    /**
+     * Creates a source over a character sequence. Strings and array-backed char buffers
+     * are read in place; other sequences are copied into a string.
+     *
+     * @throws IllegalArgumentException if content is null
+     */
+    static JsoncSource of(CharSequence content) {
+        if (content == null) {
+            throw new IllegalArgumentException("Content cannot be null");
+        }
+        if (content instanceof CharBuffer && ((CharBuffer) content).hasArray()) {
+            CharBuffer buffer = (CharBuffer) content;
+            return new CharsSource(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return new StringSource(content.toString());
+    }
+
+    /**
+     * Creates a source over the remaining bytes of a buffer, without moving its position.
+     *
+     * @throws IllegalArgumentException if buffer is null
+     */
+    static JsoncSource of(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Source buffer cannot be null");
+        }
+        if (buffer.hasArray()) {
+            return new BytesSource(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return new BufferSource(buffer.duplicate());
+    }
+
+    /**
+     * @throws IllegalArgumentException if reader is null
+     */
+    static JsoncSource of(Reader reader) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Source reader cannot be null");
+        }
+        return new ReaderSource(reader);
+    }
+
+    /**
+     * @throws IllegalArgumentException if inputStream is null
+     */
+    static JsoncSource of(InputStream inputStream) {
+        if (inputStream == null) {
+            throw new IllegalArgumentException("Source InputStream cannot be null");
+        }
+        return new StreamSource(inputStream);
+    }
+
+    /**
+     * @throws IllegalArgumentException if path is null
+     */
+    static JsoncSource of(Path path) {
+        if (path == null) {
+            throw new IllegalArgumentException("Source path cannot be null");
+        }
+        return new PathSource(path);
+    }
+
+    /**
+     * Creates a parser over the source, which owns (and eventually closes) any reader or
+     * stream.
+     */
+    abstract JsonParser createParser(JsonFactory factory) throws IOException;
+
+    /**
+     * Reads the whole source, closing any reader or stream.
+     */
+    abstract String readString() throws IOException;
+
+    private static void checkRange(int length, int offset, int len) {
+        if (offset < 0 || len < 0 || offset > length - len) {
+            throw new IllegalArgumentException(
+                    "Invalid range: offset " + offset + ", length " + len + " for array of length " + length);
+        }
+    }
+
+    /**
+     * Reads a reader to the end without closing it.
+     */
+    static String readFully(Reader reader) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[8192];
+        int length;
+        while ((length = reader.read(buffer)) != -1) {
+            sb.append(buffer, 0, length);
+        }
+        return sb.toString();
+    }
+
+    private static final class StringSource extends JsoncSource {
+        private final String content;
+
+        StringSource(String content) {
+            this.content = content;
+        }
+
+        @Override
+        JsonParser createParser(JsonFactory factory) throws IOException {
+            return factory.createParser(content);
+        }
+
+        @Override
+        String readString() {
+            return content;
+        }
+    }
+
+    private static final class BytesSource extends JsoncSource {
+        private final byte[] content;
+        private final int offset;
+        private final int len;
+
+        BytesSource(byte[] content, int offset, int len) {
+            this.content = content;
+            this.offset = offset;
+            this.len = len;
+        }
+
+        @Override
+        JsonParser createParser(JsonFactory factory) throws IOException {
+            return factory.createParser(content, offset, len);
+        }
+
+        @Override
+        String readString() {
+            return new String(content, offset, len, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class CharsSource extends JsoncSource {
+        private final char[] content;
+        private final int offset;
+        private final int len;
+
+        CharsSource(char[] content, int offset, int len) {
+            this.content = content;
+            this.offset = offset;
+            this.len = len;
+        }
+
+        @Override
+        JsonParser createParser(JsonFactory factory) throws IOException {
+            return factory.createParser(content, offset, len);
+        }
+
+        @Override
+        String readString() {
+            return new String(content, offset, len);
+        }
+    }
+
+    private static final class BufferSource extends JsoncSource {
+        private final ByteBuffer buffer;
+
+        BufferSource(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        JsonParser createParser(JsonFactory factory) throws IOException {
+            return factory.createParser(new ByteBufferBackedInputStream(buffer));
+        }
+
+        @Override
+        String readString() {
+            return StandardCharsets.UTF_8.decode(buffer).toString();
+        }
+    }
+
+    private static final class ReaderSource extends JsoncSource {
+        private final Reader reader;
+
+        ReaderSource(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        JsonParser createParser(JsonFactory factory) throws IOException {
+            return factory.createParser(reader);
+        }
+
+        @Override
+        String readString() throws IOException {
+            try (Reader source = reader) {
+                return readFully(source);
+            }
+        }
+    }
+
+    private static final class StreamSource extends JsoncSource {
+        private final InputStream inputStream;
+
+        StreamSource(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        JsonParser createParser(JsonFactory factory) throws IOException {
+            return factory.createParser(inputStream);
+        }
+
+        @Override
+        String readString() throws IOException {
+            try (Reader source = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+                return readFully(source);
+            }
+        }
+    }
+
+    private static final class PathSource extends JsoncSource {
+        private final Path path;
+
+        PathSource(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        JsonParser createParser(JsonFactory factory) throws IOException {
+            return factory.createParser(Files.newInputStream(path));
+        }
+
+        @Override
+        String readString() throws IOException {
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        }
+    }
+}
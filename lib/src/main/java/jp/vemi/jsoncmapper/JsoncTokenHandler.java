@@ -0,0 +1,129 @@
+package jp.vemi.jsoncmapper;
+
+/**
+ * Receives the tokens found by {@link JsoncLexer}, comments included, as positions in the
+ * input rather than as objects.
+ *
+ * <p>Offsets are indexes into the array passed to the lexer: characters for {@code char[]}
+ * input, bytes for UTF-8 {@code byte[]} input, and indexes into
+ * {@link JsoncLexer#getBuffer()} for {@code Reader} input. Strings and keys include their
+ * quotes, and escape sequences are not decoded. All methods do nothing by default, so a
+ * handler overrides only the events it needs.
+ *
+ * <p>Example: collecting the top-level keys of a document.
+ * <pre>{@code
+ * char[] text = jsonc.toCharArray();
+ * List<String> keys = new ArrayList<>();
+ * new JsoncLexer().lex(text, 0, text.length, new JsoncTokenHandler() {
+ *     int depth;
+ *     public void startObject(int offset) { depth++; }
+ *     public void endObject(int offset) { depth--; }
+ *     public void key(int offset, int length) {
+ *         if (depth == 1) {
+ *             keys.add(new String(text, offset + 1, length - 2));
+ *         }
+ *     }
+ * });
+ * }</pre>
+ *
+ * @since 1.1.0
+ * @see JsoncLexer
+ */
+public interface JsoncTokenHandler {
+
+    /**
+     * @param offset position of the '{'
+     */
+    default void startObject(int offset) {
+    }
+
+    /**
+     * @param offset position of the '}'
+     */
+    default void endObject(int offset) {
+    }
+
+    /**
+     * @param offset position of the '['
+     */
+    default void startArray(int offset) {
+    }
+
+    /**
+     * @param offset position of the ']'
+     */
+    default void endArray(int offset) {
+    }
+
+    /**
+     * An object property name: a quoted string, or a bare word (JSON5 identifier), where a
+     * name is expected.
+     *
+     * @param offset start position, at the opening quote if quoted
+     * @param length length including quotes
+     */
+    default void key(int offset, int length) {
+    }
+
+    /**
+     * A double- or single-quoted string value.
+     *
+     * @param offset position of the opening quote
+     * @param length length including quotes
+     */
+    default void string(int offset, int length) {
+    }
+
+    /**
+     * A value starting with a digit, sign or decimal point, such as {@code -1.5e3},
+     * {@code 0x1F} or {@code -Infinity}. The lexer does not check the number syntax.
+     *
+     * @param offset start position
+     * @param length length in input units
+     */
+    default void number(int offset, int length) {
+    }
+
+    /**
+     * Any other bare-word value, such as {@code true}, {@code false}, {@code null},
+     * {@code Infinity} or {@code NaN}.
+     *
+     * @param offset start position
+     * @param length length in input units
+     */
+    default void literal(int offset, int length) {
+    }
+
+    /**
+     * @param offset position of the ','
+     */
+    default void comma(int offset) {
+    }
+
+    /**
+     * @param offset position of the ':'
+     */
+    default void colon(int offset) {
+    }
+
+    /**
+     * A comment, delimiters included. A line comment ends before its line break; an unclosed
+     * block comment extends to the end of the input.
+     *
+     * @param offset position of the leading '/'
+     * @param length length including delimiters
+     * @param block true for a block comment, false for a line comment
+     */
+    default void comment(int offset, int length, boolean block) {
+    }
+
+    /**
+     * Input that is not a token: a stray character, or an unclosed string, which extends to
+     * the end of the input.
+     *
+     * @param offset start position
+     * @param length length in input units
+     */
+    default void invalid(int offset, int length) {
+    }
+}
@@ -1,5 +1,8 @@
 package jp.vemi.jsoncmapper;
 
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Utility class for JSONC comment removal and trailing comma processing.
  * 
@@ -11,6 +14,13 @@ package jp.vemi.jsoncmapper;
  */
 public class JsoncUtils {
     
+    /**
+     * Receives the characters written by a preprocessing pass, so that the output of the
+     * last pass can go somewhere other than a heap {@code String}.
+     */
+    interface CharOutput extends JsoncRewriteRule.Output {
+    }
+    
     /**
      * Removes trailing commas from JSON while preserving strings and handling edge cases securely.
      * This implementation protects against ReDoS attacks and properly handles commas
@@ -34,6 +44,14 @@ public class JsoncUtils {
         }
         
         StringBuilder result = new StringBuilder(jsonc.length());
+        removeTrailingCommas(jsonc, result::append);
+        return result.toString();
+    }
+    
+    /**
+     * Removes trailing commas like {@link #removeTrailingCommas(String)}, writing the result to {@code result}.
+     */
+    static void removeTrailingCommas(String jsonc, CharOutput result) {
         int length = jsonc.length();
         boolean inString = false;
         boolean escaped = false;
@@ -58,7 +76,7 @@ public class JsoncUtils {
                         result.append(current);
                     } else if (current == ',') {
                         // Check if this is a trailing comma by looking ahead
-                        boolean isTrailing = isTrailingCommaWithComments(jsonc, i);
+                        boolean isTrailing = isTrailingCommaSkippingComments(jsonc, i);
                         if (!isTrailing) {
                             result.append(current);
                         }
@@ -93,102 +111,151 @@ public class JsoncUtils {
                 result.append(current);
             }
         }
+    }
+    
+    /**
+     * Removes both JSON comments and trailing commas while preserving strings and handling edge cases securely.
+     * This is a combined operation that is more efficient than calling both methods separately:
+     * both are removed in a single scan.
+     * 
+     * @param jsonc JSON with comments and potential trailing commas
+     * @return JSON string with comments and trailing commas removed
+     * @throws IllegalArgumentException if input is null
+     */
+    public static String removeCommentsAndTrailingCommas(String jsonc) {
+        if (jsonc == null) {
+            throw new IllegalArgumentException("Input cannot be null");
+        }
+        
+        if (jsonc.isEmpty()) {
+            return jsonc;
+        }
         
+        StringBuilder result = new StringBuilder(jsonc.length());
+        removeCommentsAndTrailingCommas(jsonc, result::append);
         return result.toString();
     }
     
     /**
-     * Look-ahead function that checks if a comma is trailing, handling comments properly.
+     * Removes comments and trailing commas like {@link #removeCommentsAndTrailingCommas(String)},
+     * scanning chunks of large inputs in parallel on {@code pool}.
+     * 
+     * @param jsonc JSON with comments and potential trailing commas
+     * @param pool pool that scans the chunks
+     * @return JSON string with comments and trailing commas removed
+     * @throws IllegalArgumentException if input or pool is null
+     * @see #removeComments(String, ForkJoinPool)
      */
-    private static boolean isTrailingCommaWithComments(String jsonc, int commaIndex) {
+    public static String removeCommentsAndTrailingCommas(String jsonc, ForkJoinPool pool) {
+        return removeCommentsInParallel(jsonc, true, pool);
+    }
+    
+    /**
+     * Removes comments and trailing commas like {@link #removeCommentsAndTrailingCommas(String)},
+     * writing the result to {@code result}.
+     */
+    static void removeCommentsAndTrailingCommas(String jsonc, CharOutput result) {
         int length = jsonc.length();
         boolean inString = false;
         boolean escaped = false;
-        boolean inBlockComment = false;
-        boolean inLineComment = false;
         
-        // Look ahead from the comma to find the next significant character
-        for (int i = commaIndex + 1; i < length; i++) {
+        for (int i = 0; i < length; i++) {
             char current = jsonc.charAt(i);
-            char next = (i + 1 < length) ? jsonc.charAt(i + 1) : '\0';
             
-            // Track state from current position forward
-            if (!inBlockComment && !inLineComment) {
-                if (!inString) {
-                    if (current == '"') {
-                        inString = true;
-                    } else if (current == '/' && next == '*') {
-                        inBlockComment = true;
-                        i++; // Skip the '*'
-                        continue;
-                    } else if (current == '/' && next == '/') {
-                        inLineComment = true;
-                        i++; // Skip the second '/'
-                        continue;
-                    } else if (current == '}' || current == ']') {
-                        // Found closing bracket after comma - this is a trailing comma
-                        return true;
-                    } else if (!Character.isWhitespace(current)) {
-                        // Found non-whitespace character that's not a closing bracket
-                        return false;
-                    }
-                } else {
-                    // Inside string
-                    if (escaped) {
-                        escaped = false;
-                    } else if (current == '\\') {
-                        escaped = true;
-                    } else if (current == '"') {
-                        inString = false;
-                    }
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (current == '\\') {
+                    escaped = true;
+                } else if (current == '"') {
+                    inString = false;
                 }
-            } else if (inBlockComment) {
-                if (current == '*' && next == '/') {
-                    inBlockComment = false;
-                    i++; // Skip the '/'
-                    continue;
+                result.append(current);
+                continue;
+            }
+            
+            char next = (i + 1 < length) ? jsonc.charAt(i + 1) : '\0';
+            if (current == '/' && next == '*') {
+                i = skipBlockComment(jsonc, i);
+            } else if (current == '/' && next == '/') {
+                i = skipLineComment(jsonc, i);
+            } else if (current == ',') {
+                if (!isTrailingCommaSkippingComments(jsonc, i)) {
+                    result.append(current);
                 }
-            } else if (inLineComment) {
-                if (current == '\n' || current == '\r') {
-                    inLineComment = false;
+            } else {
+                if (current == '"') {
+                    inString = true;
                 }
+                result.append(current);
             }
         }
-        
-        // If we reached the end without finding anything, it's not trailing
-        return false;
     }
     
     /**
-     * Removes both JSON comments and trailing commas while preserving strings and handling edge cases securely.
-     * This is a combined operation that is more efficient than calling both methods separately.
-     * 
-     * @param jsonc JSON with comments and potential trailing commas
-     * @return JSON string with comments and trailing commas removed
-     * @throws IllegalArgumentException if input is null
+     * Removes comments like {@link #removeComments(String)} while applying rewrite rules,
+     * and optionally trailing commas, in the same scan.
+     *
+     * @param rules rules to apply at their trigger characters
+     * @param singleQuotes whether single-quoted strings are recognized as strings
+     * @param removeTrailingCommas whether trailing commas are removed
      */
-    public static String removeCommentsAndTrailingCommas(String jsonc) {
-        if (jsonc == null) {
-            throw new IllegalArgumentException("Input cannot be null");
-        }
+    static void removeCommentsWithRules(String jsonc, RewriteRules rules, boolean singleQuotes,
+                                        boolean removeTrailingCommas, CharOutput result) {
+        int length = jsonc.length();
+        char quote = 0;
+        boolean escaped = false;
         
-        if (jsonc.isEmpty()) {
-            return jsonc;
+        for (int i = 0; i < length; i++) {
+            char current = jsonc.charAt(i);
+            
+            if (quote != 0) {
+                if (escaped) {
+                    escaped = false;
+                } else if (current == '\\') {
+                    escaped = true;
+                } else if (current == quote) {
+                    quote = 0;
+                } else if (rules.isTrigger(current)) {
+                    int end = rules.apply(jsonc, i, true, result);
+                    if (end >= 0) {
+                        i = end - 1; // -1 because loop will increment
+                        continue;
+                    }
+                }
+                result.append(current);
+                continue;
+            }
+            
+            char next = (i + 1 < length) ? jsonc.charAt(i + 1) : '\0';
+            if (current == '/' && next == '*') {
+                i = skipBlockComment(jsonc, i);
+                continue;
+            } else if (current == '/' && next == '/') {
+                i = skipLineComment(jsonc, i);
+                continue;
+            }
+            if (rules.isTrigger(current)) {
+                int end = rules.apply(jsonc, i, false, result);
+                if (end >= 0) {
+                    i = end - 1; // -1 because loop will increment
+                    continue;
+                }
+            }
+            if (current == ',' && removeTrailingCommas && isTrailingCommaSkippingComments(jsonc, i)) {
+                continue;
+            }
+            if (current == '"' || (current == '\'' && singleQuotes)) {
+                quote = current;
+            }
+            result.append(current);
         }
-        
-        // First remove comments using the existing proven method
-        String withoutComments = removeComments(jsonc);
-        
-        // Then remove trailing commas from the result
-        return removeTrailingCommas(withoutComments);
     }
     
     /**
-     * Checks if a comma is trailing when comments are being removed in-process.
+     * Checks if a comma is trailing, skipping whitespace and comments after it.
      */
-    private static boolean isTrailingCommaInCleanJson(String cleanSoFar, String original, int commaIndex) {
-        // For the combined method, we need a simpler approach since we're processing comments simultaneously
-        // We'll append the comma tentatively and check the rest of the string
+    static boolean isTrailingCommaSkippingComments(String original, int commaIndex) {
         int length = original.length();
         
         // Look ahead from the comma to find the next significant character, skipping comments
@@ -238,6 +305,48 @@ public class JsoncUtils {
         }
         
         StringBuilder result = new StringBuilder(jsonc.length());
+        removeComments(jsonc, result::append);
+        return result.toString();
+    }
+    
+    /**
+     * Removes comments like {@link #removeComments(String)}, scanning chunks of large inputs
+     * in parallel on {@code pool}. The lexical state at each chunk start is not known in
+     * advance, so every chunk is first lexed speculatively from each possible state; the real
+     * states are then stitched together in one linear step before the chunks are written.
+     * Inputs shorter than a few hundred thousand characters, or a pool with a parallelism of
+     * one, are scanned sequentially. The result is identical to the sequential method.
+     * 
+     * @param jsonc JSON with comments string
+     * @param pool pool that scans the chunks, for example {@link ForkJoinPool#commonPool()}
+     * @return JSON string with comments removed
+     * @throws IllegalArgumentException if input or pool is null
+     */
+    public static String removeComments(String jsonc, ForkJoinPool pool) {
+        return removeCommentsInParallel(jsonc, false, pool);
+    }
+    
+    private static String removeCommentsInParallel(String jsonc, boolean removeTrailingCommas, ForkJoinPool pool) {
+        if (jsonc == null) {
+            throw new IllegalArgumentException("Input cannot be null");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        
+        if (jsonc.isEmpty()) {
+            return jsonc;
+        }
+        
+        StringBuilder result = new StringBuilder(jsonc.length());
+        ParallelCommentScan.apply(jsonc, removeTrailingCommas, pool, result::append);
+        return result.toString();
+    }
+    
+    /**
+     * Removes comments like {@link #removeComments(String)}, writing the result to {@code result}.
+     */
+    static void removeComments(String jsonc, CharOutput result) {
         int length = jsonc.length();
         boolean inString = false;
         boolean escaped = false;
@@ -275,10 +384,122 @@ public class JsoncUtils {
                 result.append(current);
             }
         }
-        
-        return result.toString();
     }
     
+    /**
+     * Removes JSON comments and insignificant whitespace in a single pass.
+     * Content inside double- and single-quoted strings is preserved exactly.
+     *
+     * <p>Whitespace (space, tab, CR, LF) outside strings is dropped, except that a single
+     * space is kept where removing it would join two literals (for example {@code 1 2} or
+     * {@code true false}), so invalid input is not turned into valid input. Comments are
+     * removed the same way as in {@link #removeComments(String)}.
+     *
+     * @param jsonc JSON with comments string
+     * @return compact JSON string with comments and whitespace removed
+     * @throws IllegalArgumentException if input is null
+     */
+    public static String minify(String jsonc) {
+        if (jsonc == null) {
+            throw new IllegalArgumentException("Input cannot be null");
+        }
+
+        if (jsonc.isEmpty()) {
+            return jsonc;
+        }
+
+        StringBuilder result = new StringBuilder(jsonc.length());
+        minify(jsonc, true, false, result::append);
+        return result.toString();
+    }
+
+    /**
+     * Removes JSON comments and insignificant whitespace like {@link #minify(String)}, with
+     * single-quoted strings preserved only if {@code singleQuotes} is true. Otherwise an
+     * apostrophe is an ordinary character, as in {@link #removeComments(String)}, so a stray
+     * one does not keep the comments and whitespace after it.
+     *
+     * @param jsonc JSON with comments string
+     * @param singleQuotes whether single-quoted strings are recognized
+     * @return compact JSON string with comments and whitespace removed
+     * @throws IllegalArgumentException if input is null
+     */
+    public static String minify(String jsonc, boolean singleQuotes) {
+        if (jsonc == null) {
+            throw new IllegalArgumentException("Input cannot be null");
+        }
+
+        if (jsonc.isEmpty()) {
+            return jsonc;
+        }
+
+        StringBuilder result = new StringBuilder(jsonc.length());
+        minify(jsonc, singleQuotes, false, result::append);
+        return result.toString();
+    }
+
+    /**
+     * Minifies like {@link #minify(String, boolean)}, writing the result to {@code result}.
+     *
+     * @param singleQuotes whether single-quoted strings are recognized
+     * @param removeTrailingCommas whether trailing commas are removed in the same scan
+     */
+    static void minify(String jsonc, boolean singleQuotes, boolean removeTrailingCommas, CharOutput result) {
+        int length = jsonc.length();
+        char quote = 0;
+        boolean escaped = false;
+        boolean pendingSpace = false;
+        // Last character written, 0 while nothing has been written
+        char last = 0;
+
+        for (int i = 0; i < length; i++) {
+            char current = jsonc.charAt(i);
+
+            if (quote != 0) {
+                // Inside string
+                if (escaped) {
+                    escaped = false;
+                } else if (current == '\\') {
+                    escaped = true;
+                } else if (current == quote) {
+                    quote = 0;
+                }
+                result.append(current);
+                last = current;
+                continue;
+            }
+
+            char next = (i + 1 < length) ? jsonc.charAt(i + 1) : '\0';
+            if (current == '/' && next == '*') {
+                i = skipBlockComment(jsonc, i);
+            } else if (current == '/' && next == '/') {
+                i = skipLineComment(jsonc, i);
+            } else if (current == ' ' || current == '\t' || current == '\n' || current == '\r') {
+                pendingSpace = last != 0;
+            } else if (current == ',' && removeTrailingCommas && isTrailingCommaSkippingComments(jsonc, i)) {
+                // Dropped; the next significant character is a closing bracket
+                continue;
+            } else {
+                if (pendingSpace && isLiteralChar(last) && isLiteralChar(current)) {
+                    result.append(' ');
+                }
+                pendingSpace = false;
+                if (current == '"' || (current == '\'' && singleQuotes)) {
+                    quote = current;
+                }
+                result.append(current);
+                last = current;
+            }
+        }
+    }
+
+    /**
+     * Checks if a character can be part of a number or bare-word literal.
+     */
+    private static boolean isLiteralChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '.' || c == '+' || c == '-' || c == '_' || c == '$';
+    }
+
     /**
      * Safely skips a block comment, handling unclosed comments.
      */
@@ -405,6 +626,8 @@ public class JsoncUtils {
     /**
      * Converts hexadecimal number literals to decimal format.
      * Handles 0x and 0X prefixes and preserves numbers inside strings.
+     * Literals wider than 63 bits are converted exactly as well, so that Jackson reads
+     * them as {@code BigInteger} values.
      * 
      * @param json5 JSON5 content with potential hexadecimal numbers
      * @return JSON content with hexadecimal numbers converted to decimal
@@ -437,15 +660,8 @@ public class JsoncUtils {
                     int hexEnd = findHexNumberEnd(json5, i + 2);
                     if (hexEnd > i + 2) {
                         // Valid hex number found
-                        String hexStr = json5.substring(i + 2, hexEnd);
-                        try {
-                            long decimal = Long.parseLong(hexStr, 16);
-                            result.append(decimal);
-                            i = hexEnd - 1; // -1 because loop will increment
-                        } catch (NumberFormatException e) {
-                            // Invalid hex number, keep as is
-                            result.append(current);
-                        }
+                        appendHexAsDecimal(json5, i + 2, hexEnd, result);
+                        i = hexEnd - 1; // -1 because loop will increment
                     } else {
                         result.append(current);
                     }
@@ -468,6 +684,146 @@ public class JsoncUtils {
         return result.toString();
     }
     
+    /**
+     * Converts hexadecimal number literals to decimal without moving any other character.
+     * Unlike {@link #convertHexNumbers(String)}, this works on raw JSONC (comments are
+     * skipped, not removed) and pads shorter decimal forms with spaces, so offsets, lines
+     * and columns stay those of the original input. Only literals whose decimal form is
+     * longer than the hex form (10 or more hex digits) shift later columns on their line.
+     *
+     * @param jsonc raw JSONC content
+     * @param singleQuotes whether single-quoted strings must be protected as well
+     * @return converted content, or the input itself if it contains no hex literal
+     */
+    static String convertHexNumbersPreservingOffsets(String jsonc, boolean singleQuotes) {
+        StringBuilder result = null;
+        int length = jsonc.length();
+        int copied = 0;
+        char quote = 0;
+        boolean escaped = false;
+
+        for (int i = 0; i < length; i++) {
+            char current = jsonc.charAt(i);
+
+            if (quote != 0) {
+                // Inside string
+                if (escaped) {
+                    escaped = false;
+                } else if (current == '\\') {
+                    escaped = true;
+                } else if (current == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+
+            char next = (i + 1 < length) ? jsonc.charAt(i + 1) : '\0';
+            if (current == '"' || (current == '\'' && singleQuotes)) {
+                quote = current;
+            } else if (current == '/' && next == '*') {
+                i = skipBlockComment(jsonc, i);
+            } else if (current == '/' && next == '/') {
+                i = skipLineComment(jsonc, i);
+            } else if (current == '0' && (next == 'x' || next == 'X')) {
+                int hexEnd = findHexNumberEnd(jsonc, i + 2);
+                if (hexEnd > i + 2) {
+                    if (result == null) {
+                        result = new StringBuilder(length);
+                    }
+                    result.append(jsonc, copied, i);
+                    int start = result.length();
+                    appendHexAsDecimal(jsonc, i + 2, hexEnd, result);
+                    for (int pad = hexEnd - i - (result.length() - start); pad > 0; pad--) {
+                        result.append(' ');
+                    }
+                    copied = hexEnd;
+                    i = hexEnd - 1; // -1 because loop will increment
+                }
+            }
+        }
+
+        if (result == null) {
+            return jsonc;
+        }
+        return result.append(jsonc, copied, length).toString();
+    }
+
+    /**
+     * Escapes the line breaks of multiline strings in raw JSONC, for parsers that read
+     * comments and single quotes natively. Like {@link #convertMultilineStrings(String)},
+     * only CR and LF are escaped, so other unescaped control characters are still rejected
+     * by the parser. Comments are skipped, not removed; offsets after an escaped line break
+     * move by one character per break.
+     *
+     * @param jsonc raw JSONC content
+     * @param singleQuotes whether single-quoted strings are converted as well
+     * @return converted content, or the input itself if no string spans lines
+     */
+    static String escapeLineBreaksInStrings(String jsonc, boolean singleQuotes) {
+        StringBuilder result = null;
+        int length = jsonc.length();
+        int copied = 0;
+        char quote = 0;
+        boolean escaped = false;
+
+        for (int i = 0; i < length; i++) {
+            char current = jsonc.charAt(i);
+
+            if (quote != 0) {
+                // Inside string
+                if (escaped) {
+                    escaped = false;
+                } else if (current == '\\') {
+                    escaped = true;
+                } else if (current == quote) {
+                    quote = 0;
+                } else if (current == '\r' || current == '\n') {
+                    if (result == null) {
+                        result = new StringBuilder(length + 16);
+                    }
+                    result.append(jsonc, copied, i).append(current == '\r' ? "\\r" : "\\n");
+                    copied = i + 1;
+                }
+                continue;
+            }
+
+            char next = (i + 1 < length) ? jsonc.charAt(i + 1) : '\0';
+            if (current == '"' || (current == '\'' && singleQuotes)) {
+                quote = current;
+            } else if (current == '/' && next == '*') {
+                i = skipBlockComment(jsonc, i);
+            } else if (current == '/' && next == '/') {
+                i = skipLineComment(jsonc, i);
+            }
+        }
+
+        if (result == null) {
+            return jsonc;
+        }
+        return result.append(jsonc, copied, length).toString();
+    }
+
+    /**
+     * Appends the decimal form of the hex digits {@code text[start, end)}. Values that fit
+     * in a {@code long} are accumulated digit by digit without a substring; wider values
+     * go through {@link BigInteger}.
+     */
+    static void appendHexAsDecimal(CharSequence text, int start, int end, StringBuilder result) {
+        int first = start;
+        while (first < end - 1 && text.charAt(first) == '0') {
+            first++;
+        }
+        if (end - first > 16 || (end - first == 16 && Character.digit(text.charAt(first), 16) > 7)) {
+            result.append(new BigInteger(text.subSequence(first, end).toString(), 16));
+            return;
+        }
+        long value = 0;
+        for (int i = first; i < end; i++) {
+            value = (value << 4) | Character.digit(text.charAt(i), 16);
+        }
+        result.append(value);
+    }
+
     /**
      * Helper method to find the end of a hexadecimal number.
      */
@@ -0,0 +1,94 @@
+package jp.vemi.jsoncmapper;
+
+/**
+ * Result of {@link JsoncMapper#validate(String)} and its overloads.
+ *
+ * <p>A valid result carries no further information and is shared between calls.
+ * An invalid result describes the first syntax error, with its position in the
+ * original (unprocessed) input as reported by Jackson's tokenizer (for an unexpected
+ * character, the position right after that character).
+ *
+ * @since 1.1.0
+ * @see JsoncMapper#validate(String)
+ */
+public final class JsoncValidationResult {
+
+    private static final JsoncValidationResult VALID = new JsoncValidationResult(true, null, -1, -1, -1L);
+
+    private final boolean valid;
+    private final String message;
+    private final int line;
+    private final int column;
+    private final long offset;
+
+    private JsoncValidationResult(boolean valid, String message, int line, int column, long offset) {
+        this.valid = valid;
+        this.message = message;
+        this.line = line;
+        this.column = column;
+        this.offset = offset;
+    }
+
+    /**
+     * Returns the shared result for valid input.
+     */
+    static JsoncValidationResult valid() {
+        return VALID;
+    }
+
+    /**
+     * Creates a result describing a syntax error.
+     */
+    static JsoncValidationResult invalid(String message, int line, int column, long offset) {
+        return new JsoncValidationResult(false, message, line, column, offset);
+    }
+
+    /**
+     * @return true if the input is a single well-formed JSONC document
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * @return description of the first error, or null if the input is valid
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return 1-based line of the first error, or -1 if valid or unknown
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * Column of the first error. Counted in characters for String and Reader input,
+     * and in bytes for byte[], InputStream and Path input (unless hexadecimal numbers
+     * are enabled, in which case byte input is decoded first).
+     *
+     * @return 1-based column of the first error, or -1 if valid or unknown
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Offset of the first error, in the same unit as {@link #getColumn()}.
+     *
+     * @return 0-based offset of the first error, or -1 if valid or unknown
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public String toString() {
+        if (valid) {
+            return "JsoncValidationResult[valid]";
+        }
+        return "JsoncValidationResult[invalid at line " + line + ", column " + column + ": " + message + "]";
+    }
+}
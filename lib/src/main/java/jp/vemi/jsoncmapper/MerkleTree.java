@@ -0,0 +1,218 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact per-subtree hash index of a JSON document, used by {@link JsoncMapper#diff(String, String)}.
+ *
+ * <p>Built in one streaming pass. Nodes are stored in pre-order in parallel primitive
+ * arrays (hash halves, kind, first child, next sibling) plus the member key of each node;
+ * scalar values themselves are not retained. Object hashes are order-independent, matching
+ * {@code ObjectNode.equals}.
+ */
+final class MerkleTree {
+
+    private static final byte SCALAR = 0;
+    private static final byte OBJECT = 1;
+    private static final byte ARRAY = 2;
+
+    private int size;
+    private long[] hashHigh = new long[64];
+    private long[] hashLow = new long[64];
+    private byte[] kind = new byte[64];
+    private int[] firstChild = new int[64];
+    private int[] nextSibling = new int[64];
+    private String[] key = new String[64];
+
+    private final StructuralHasher hasher = new StructuralHasher(true);
+
+    private MerkleTree() {
+    }
+
+    /**
+     * Builds the index for the single root value of a parser that has not been advanced yet.
+     */
+    static MerkleTree build(JsonParser parser) throws IOException {
+        if (parser.nextToken() == null) {
+            throw new JsonParseException(parser, "No content to diff");
+        }
+        MerkleTree tree = new MerkleTree();
+        tree.node(parser, null);
+        if (parser.nextToken() != null) {
+            throw new JsonParseException(parser, "Unexpected content after the root value");
+        }
+        return tree;
+    }
+
+    /**
+     * Adds the value at the parser's current token (and its descendants) and returns its index.
+     */
+    private int node(JsonParser p, String memberKey) throws IOException {
+        int index = allocate(memberKey);
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            boolean object = token == JsonToken.START_OBJECT;
+            kind[index] = object ? OBJECT : ARRAY;
+            int previous = -1;
+            int count = 0;
+            JsonToken end = object ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+            for (JsonToken t = p.nextToken(); t != end; t = p.nextToken()) {
+                String name = null;
+                if (object) {
+                    name = p.currentName();
+                    p.nextToken();
+                }
+                int child = node(p, name);
+                if (previous < 0) {
+                    firstChild[index] = child;
+                } else {
+                    nextSibling[previous] = child;
+                }
+                previous = child;
+                count++;
+            }
+            if (object) {
+                hashObject(index, count);
+            } else {
+                hashArray(index, count);
+            }
+        } else {
+            hasher.reset();
+            hasher.value(p);
+            hasher.finish();
+            hashHigh[index] = hasher.high();
+            hashLow[index] = hasher.low();
+        }
+        return index;
+    }
+
+    private void hashObject(int index, int count) {
+        long sum1 = 0L;
+        long sum2 = 0L;
+        for (int child = firstChild[index]; child >= 0; child = nextSibling[child]) {
+            hasher.reset();
+            hasher.mix(StructuralHasher.TAG_FIELD);
+            hasher.string(key[child]);
+            hasher.mix(hashHigh[child]);
+            hasher.mix(hashLow[child]);
+            hasher.finish();
+            sum1 += hasher.high();
+            sum2 += hasher.low();
+        }
+        hasher.reset();
+        hasher.mix(StructuralHasher.TAG_OBJECT);
+        hasher.mix(count);
+        hasher.mix(sum1);
+        hasher.mix(sum2);
+        hasher.finish();
+        hashHigh[index] = hasher.high();
+        hashLow[index] = hasher.low();
+    }
+
+    private void hashArray(int index, int count) {
+        hasher.reset();
+        hasher.mix(StructuralHasher.TAG_ARRAY);
+        for (int child = firstChild[index]; child >= 0; child = nextSibling[child]) {
+            hasher.mix(hashHigh[child]);
+            hasher.mix(hashLow[child]);
+        }
+        hasher.mix(count);
+        hasher.finish();
+        hashHigh[index] = hasher.high();
+        hashLow[index] = hasher.low();
+    }
+
+    private int allocate(String memberKey) {
+        if (size == kind.length) {
+            int capacity = size << 1;
+            hashHigh = Arrays.copyOf(hashHigh, capacity);
+            hashLow = Arrays.copyOf(hashLow, capacity);
+            kind = Arrays.copyOf(kind, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            key = Arrays.copyOf(key, capacity);
+        }
+        int index = size++;
+        kind[index] = SCALAR;
+        firstChild[index] = -1;
+        nextSibling[index] = -1;
+        key[index] = memberKey;
+        return index;
+    }
+
+    private boolean sameHash(int index, MerkleTree other, int otherIndex) {
+        return hashHigh[index] == other.hashHigh[otherIndex] && hashLow[index] == other.hashLow[otherIndex];
+    }
+
+    /**
+     * Compares two indexes, descending only into subtrees whose hashes differ.
+     */
+    static JsoncDiff diff(MerkleTree oldTree, MerkleTree newTree) {
+        JsoncDiff.Collector collector = new JsoncDiff.Collector();
+        compare(oldTree, 0, newTree, 0, JsonPointer.empty(), collector);
+        return collector.toDiff();
+    }
+
+    private static void compare(MerkleTree a, int ai, MerkleTree b, int bi, JsonPointer path,
+                                JsoncDiff.Collector collector) {
+        if (a.sameHash(ai, b, bi)) {
+            return;
+        }
+        byte kind = a.kind[ai];
+        if (kind != b.kind[bi] || kind == SCALAR) {
+            collector.changed.add(path);
+            return;
+        }
+
+        if (kind == ARRAY) {
+            int ac = a.firstChild[ai];
+            int bc = b.firstChild[bi];
+            int position = 0;
+            while (ac >= 0 && bc >= 0) {
+                if (!a.sameHash(ac, b, bc)) {
+                    compare(a, ac, b, bc, path.appendIndex(position), collector);
+                }
+                ac = a.nextSibling[ac];
+                bc = b.nextSibling[bc];
+                position++;
+            }
+            for (; ac >= 0; ac = a.nextSibling[ac], position++) {
+                collector.removed.add(path.appendIndex(position));
+            }
+            for (; bc >= 0; bc = b.nextSibling[bc], position++) {
+                collector.added.add(path.appendIndex(position));
+            }
+            return;
+        }
+
+        // Objects: match members by key, only for this differing object
+        Map<String, Integer> newMembers = new HashMap<>();
+        for (int bc = b.firstChild[bi]; bc >= 0; bc = b.nextSibling[bc]) {
+            newMembers.put(b.key[bc], bc);
+        }
+        for (int ac = a.firstChild[ai]; ac >= 0; ac = a.nextSibling[ac]) {
+            Integer match = newMembers.remove(a.key[ac]);
+            if (match == null) {
+                collector.removed.add(path.appendProperty(a.key[ac]));
+            } else if (!a.sameHash(ac, b, match)) {
+                compare(a, ac, b, match, path.appendProperty(a.key[ac]), collector);
+            }
+        }
+        if (!newMembers.isEmpty()) {
+            // Report additions in document order
+            for (int bc = b.firstChild[bi]; bc >= 0; bc = b.nextSibling[bc]) {
+                if (newMembers.containsKey(b.key[bc])) {
+                    collector.added.add(path.appendProperty(b.key[bc]));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package jp.vemi.jsoncmapper;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Weak, concurrent intern table for immutable values keyed by a precomputed 128-bit
+ * structural hash.
+ *
+ * <p>Entries hold their values through weak references, so a canonical value stays shared
+ * only while some document still uses it. Lookups compare the hash first and confirm a
+ * match with {@code equals}; because interned subtrees are built from already canonical
+ * children, that comparison usually stops at reference equality one level down.
+ *
+ * <p>The table is split into independently locked segments selected by the hash.
+ */
+final class NodeInterner {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    NodeInterner() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Returns the canonical instance equal to the given value, registering the value
+     * itself if there is none.
+     *
+     * @param value immutable value
+     * @param high upper half of the value's structural hash
+     * @param low lower half of the value's structural hash
+     * @return canonical instance
+     */
+    <T> T intern(T value, long high, long low) {
+        return segments[(int) (high >>> 60)].intern(value, high, low);
+    }
+
+    /**
+     * @return number of live canonical values (entries cleared by the GC may still count
+     *         until their segment is next used)
+     */
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private static final class Entry extends WeakReference<Object> {
+        final long high;
+        final long low;
+        Entry next;
+
+        Entry(Object value, long high, long low, ReferenceQueue<Object> queue, Entry next) {
+            super(value, queue);
+            this.high = high;
+            this.low = low;
+            this.next = next;
+        }
+    }
+
+    private static final class Segment {
+        private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+        private Entry[] table = new Entry[64];
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        synchronized <T> T intern(T value, long high, long low) {
+            expunge();
+            int slot = (int) low & (table.length - 1);
+            for (Entry e = table[slot]; e != null; e = e.next) {
+                if (e.high == high && e.low == low) {
+                    Object existing = e.get();
+                    if (existing != null && existing.equals(value)) {
+                        return (T) existing;
+                    }
+                }
+            }
+            table[slot] = new Entry(value, high, low, queue, table[slot]);
+            if (++size > table.length * 3 / 4) {
+                resize();
+            }
+            return value;
+        }
+
+        synchronized int size() {
+            expunge();
+            return size;
+        }
+
+        private void resize() {
+            Entry[] old = table;
+            table = new Entry[old.length << 1];
+            for (Entry head : old) {
+                for (Entry e = head; e != null; ) {
+                    Entry next = e.next;
+                    int slot = (int) e.low & (table.length - 1);
+                    e.next = table[slot];
+                    table[slot] = e;
+                    e = next;
+                }
+            }
+        }
+
+        /**
+         * Unlinks entries whose values have been collected.
+         */
+        private void expunge() {
+            for (Object cleared = queue.poll(); cleared != null; cleared = queue.poll()) {
+                Entry entry = (Entry) cleared;
+                int slot = (int) entry.low & (table.length - 1);
+                Entry previous = null;
+                for (Entry e = table[slot]; e != null; previous = e, e = e.next) {
+                    if (e == entry) {
+                        if (previous == null) {
+                            table[slot] = e.next;
+                        } else {
+                            previous.next = e.next;
+                        }
+                        size--;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package jp.vemi.jsoncmapper;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Comment removal, optionally with trailing comma removal, over chunks of a large input in
+ * parallel, with the same result as the sequential scans of {@link JsoncUtils}.
+ *
+ * <p>The lexical state at the start of a chunk (normal, in a string, after a backslash in a
+ * string, in a block comment, in a line comment) depends on everything before it. Each chunk
+ * is therefore first lexed speculatively from every possible starting state, recording only
+ * the state it ends in, so that memory stays proportional to the input. A linear walk over
+ * the chunks then stitches the real starting state of each chunk together from those
+ * transitions, and a second parallel pass writes the output of every chunk from its real
+ * starting state. Chunk boundaries never fall inside a {@code /*}, {@code *}{@code /} or
+ * {@code //} pair, and trailing comma look-ahead reads past the end of its chunk, so no
+ * construct is split.
+ */
+final class ParallelCommentScan {
+
+    /** Smallest chunk, in characters; shorter inputs are scanned sequentially. */
+    static final int MIN_CHUNK_LENGTH = 1 << 18;
+
+    /** Chunks per worker thread, so that uneven chunks still balance. */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private static final int NORMAL = 0;
+    private static final int STRING = 1;
+    private static final int STRING_ESCAPE = 2;
+    private static final int BLOCK_COMMENT = 3;
+    private static final int LINE_COMMENT = 4;
+    /** On the '*' of an opening "/*"; never a chunk's starting state. */
+    private static final int BLOCK_OPEN = 5;
+    /** On the '/' of a closing "*&#47;"; never a chunk's starting state. */
+    private static final int BLOCK_CLOSE = 6;
+
+    /** Number of states a chunk can start in. */
+    private static final int START_STATES = 5;
+
+    private ParallelCommentScan() {
+    }
+
+    /**
+     * Returns whether an input is long enough to be split for a pool.
+     */
+    static boolean isWorthSplitting(String jsonc, ForkJoinPool pool) {
+        return pool.getParallelism() > 1 && jsonc.length() >= 2 * MIN_CHUNK_LENGTH;
+    }
+
+    /**
+     * Removes comments, and trailing commas if enabled, writing the result to {@code out}.
+     */
+    static void apply(String jsonc, boolean removeTrailingCommas, ForkJoinPool pool, JsoncUtils.CharOutput out) {
+        if (!isWorthSplitting(jsonc, pool)) {
+            if (removeTrailingCommas) {
+                JsoncUtils.removeCommentsAndTrailingCommas(jsonc, out);
+            } else {
+                JsoncUtils.removeComments(jsonc, out);
+            }
+            return;
+        }
+        int[] bounds = chunkBounds(jsonc, pool.getParallelism());
+        int chunks = bounds.length - 1;
+
+        // Speculative pass: the end state of each chunk for every starting state
+        byte[][] transitions = new byte[chunks][];
+        pool.invoke(new ChunkTask(0, chunks, chunk -> {
+            byte[] ends = new byte[START_STATES];
+            for (int state = 0; state < START_STATES; state++) {
+                ends[state] = (byte) endState(jsonc, bounds[chunk], bounds[chunk + 1], state);
+            }
+            transitions[chunk] = ends;
+        }));
+
+        // Linear stitch of the real starting states
+        int[] starts = new int[chunks];
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            starts[chunk] = transitions[chunk - 1][starts[chunk - 1]];
+        }
+
+        StringBuilder[] parts = new StringBuilder[chunks];
+        pool.invoke(new ChunkTask(0, chunks, chunk -> {
+            StringBuilder part = new StringBuilder(bounds[chunk + 1] - bounds[chunk]);
+            write(jsonc, bounds[chunk], bounds[chunk + 1], starts[chunk], removeTrailingCommas, part);
+            parts[chunk] = part;
+        }));
+        for (StringBuilder part : parts) {
+            for (int i = 0, length = part.length(); i < length; i++) {
+                out.append(part.charAt(i));
+            }
+        }
+    }
+
+    /**
+     * Splits an input into chunks of similar length, moving each boundary forward until the
+     * character before it is neither '/' nor '*'.
+     *
+     * @return chunk start positions followed by the input length
+     */
+    private static int[] chunkBounds(String jsonc, int parallelism) {
+        int length = jsonc.length();
+        int chunks = (int) Math.min(length / MIN_CHUNK_LENGTH, (long) parallelism * CHUNKS_PER_THREAD);
+        int chunkLength = length / chunks;
+        int[] bounds = new int[chunks + 1];
+        int count = 1;
+        for (int i = 1; i < chunks; i++) {
+            int bound = Math.max(i * chunkLength, bounds[count - 1] + 1);
+            while (bound < length && (jsonc.charAt(bound - 1) == '/' || jsonc.charAt(bound - 1) == '*')) {
+                bound++;
+            }
+            if (bound >= length) {
+                break;
+            }
+            bounds[count++] = bound;
+        }
+        bounds[count] = length;
+        return count == chunks ? bounds : Arrays.copyOf(bounds, count + 1);
+    }
+
+    /**
+     * Returns the state after a character, given the character that follows it.
+     */
+    private static int next(int state, char c, char following) {
+        switch (state) {
+            case STRING:
+                return c == '\\' ? STRING_ESCAPE : c == '"' ? NORMAL : STRING;
+            case STRING_ESCAPE:
+                return STRING;
+            case BLOCK_COMMENT:
+                return c == '*' && following == '/' ? BLOCK_CLOSE : BLOCK_COMMENT;
+            case BLOCK_OPEN:
+                return BLOCK_COMMENT;
+            case LINE_COMMENT:
+                return c == '\n' || c == '\r' ? NORMAL : LINE_COMMENT;
+            default:
+                // NORMAL and BLOCK_CLOSE, which resumes normal text after the '/'
+                if (state == BLOCK_CLOSE) {
+                    return NORMAL;
+                }
+                if (c == '/' && following == '*') {
+                    return BLOCK_OPEN;
+                }
+                if (c == '/' && following == '/') {
+                    return LINE_COMMENT;
+                }
+                return c == '"' ? STRING : NORMAL;
+        }
+    }
+
+    /**
+     * Returns the state at the end of a chunk lexed from {@code state}.
+     */
+    private static int endState(String jsonc, int start, int end, int state) {
+        int length = jsonc.length();
+        for (int i = start; i < end; i++) {
+            char following = i + 1 < length ? jsonc.charAt(i + 1) : '\0';
+            state = next(state, jsonc.charAt(i), following);
+        }
+        return state;
+    }
+
+    /**
+     * Writes the output of a chunk lexed from its real starting state.
+     */
+    private static void write(String jsonc, int start, int end, int state, boolean removeTrailingCommas,
+                              StringBuilder out) {
+        int length = jsonc.length();
+        for (int i = start; i < end; i++) {
+            char c = jsonc.charAt(i);
+            char following = i + 1 < length ? jsonc.charAt(i + 1) : '\0';
+            int previous = state;
+            state = next(state, c, following);
+            switch (previous) {
+                case NORMAL:
+                    if (state == BLOCK_OPEN || state == LINE_COMMENT) {
+                        break;
+                    }
+                    if (c == ',' && removeTrailingCommas && JsoncUtils.isTrailingCommaSkippingComments(jsonc, i)) {
+                        break;
+                    }
+                    out.append(c);
+                    break;
+                case STRING:
+                case STRING_ESCAPE:
+                    out.append(c);
+                    break;
+                case LINE_COMMENT:
+                    if (state == NORMAL) {
+                        // The line break ending the comment is kept
+                        out.append(c);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Runs a per-chunk action over a range of chunks, splitting the range in halves.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final transient IntConsumer action;
+
+        ChunkTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                action.accept(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(from, middle, action), new ChunkTask(middle, to, action));
+        }
+    }
+}
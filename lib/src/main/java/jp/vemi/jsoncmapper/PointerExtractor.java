@@ -0,0 +1,191 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extracts the values at a set of JSON Pointers in one streaming pass, used by
+ * {@link JsoncMapper#readAt(String, Class, JsonPointer...)}.
+ *
+ * <p>The requested pointers are merged into a trie of path segments. While walking the
+ * token stream, members and elements that no pointer passes through are skipped with
+ * {@link JsonParser#skipChildren()}, so no nodes are created for them. Only the matched
+ * values are bound, and walking stops as soon as every pointer has been found.
+ *
+ * <p>Instances are not thread-safe; create one per extraction.
+ */
+final class PointerExtractor<T> {
+
+    private final ObjectMapper mapper;
+    private final Class<T> valueType;
+    private final Segment root = new Segment();
+    private final Map<JsonPointer, T> found = new HashMap<>();
+    private int remaining;
+
+    PointerExtractor(ObjectMapper mapper, Class<T> valueType, JsonPointer[] pointers) {
+        this.mapper = mapper;
+        this.valueType = valueType;
+        for (JsonPointer pointer : pointers) {
+            Segment segment = root;
+            for (JsonPointer tail = pointer; !tail.matches(); tail = tail.tail()) {
+                segment = segment.child(tail);
+            }
+            if (segment.pointer == null) {
+                segment.pointer = pointer;
+                remaining++;
+            }
+        }
+    }
+
+    /**
+     * Walks the single root value of a parser that has not been advanced yet.
+     *
+     * @param parser parser positioned before the first token
+     * @param pointers requested pointers, defining the iteration order of the result
+     * @return values of the pointers that were found, in request order
+     * @throws IOException if reading or binding fails
+     */
+    Map<JsonPointer, T> extract(JsonParser parser, JsonPointer[] pointers) throws IOException {
+        if (parser.nextToken() != null) {
+            walk(parser, root);
+        }
+        Map<JsonPointer, T> result = new LinkedHashMap<>();
+        for (JsonPointer pointer : pointers) {
+            if (found.containsKey(pointer)) {
+                result.put(pointer, found.get(pointer));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Processes the value at the parser's current token.
+     *
+     * @return true once every pointer has been found
+     */
+    private boolean walk(JsonParser p, Segment segment) throws IOException {
+        if (segment.pointer != null) {
+            return bind(p, segment);
+        }
+
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                Segment child = segment.properties == null ? null : segment.properties.get(p.currentName());
+                p.nextToken();
+                if (child == null) {
+                    p.skipChildren();
+                } else if (walk(p, child)) {
+                    return true;
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                Segment child = segment.indexes == null ? null : segment.indexes.get(index);
+                if (child == null) {
+                    p.skipChildren();
+                } else if (walk(p, child)) {
+                    return true;
+                }
+                index++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Binds a matched value. When other pointers continue below it, the value is read as a
+     * tree once and those pointers are resolved against it.
+     */
+    private boolean bind(JsonParser p, Segment segment) throws IOException {
+        if (segment.properties == null && segment.indexes == null) {
+            record(segment.pointer, mapper.readValue(p, valueType));
+            return remaining == 0;
+        }
+
+        JsonNode tree = mapper.readTree(p);
+        List<Segment> targets = new ArrayList<>();
+        collect(segment, targets);
+        for (Segment target : targets) {
+            JsonPointer relative = target.pointer;
+            for (int i = 0; i < segment.depth; i++) {
+                relative = relative.tail();
+            }
+            JsonNode node = tree.at(relative);
+            if (!node.isMissingNode()) {
+                record(target.pointer, mapper.treeToValue(node, valueType));
+            }
+        }
+        return remaining == 0;
+    }
+
+    private void record(JsonPointer pointer, T value) {
+        // The first occurrence wins for duplicate keys
+        if (!found.containsKey(pointer)) {
+            found.put(pointer, value);
+            remaining--;
+        }
+    }
+
+    private static void collect(Segment segment, List<Segment> targets) {
+        if (segment.pointer != null) {
+            targets.add(segment);
+        }
+        if (segment.properties != null) {
+            // Every child is registered by property; indexes only alias them
+            for (Segment child : segment.properties.values()) {
+                collect(child, targets);
+            }
+        }
+    }
+
+    /**
+     * Trie node for one pointer segment. A segment such as {@code 0} can match both an
+     * object member and an array element, so it is registered under both.
+     */
+    private static final class Segment {
+        final int depth;
+        JsonPointer pointer;
+        Map<String, Segment> properties;
+        Map<Integer, Segment> indexes;
+
+        Segment() {
+            this(0);
+        }
+
+        Segment(int depth) {
+            this.depth = depth;
+        }
+
+        Segment child(JsonPointer tail) {
+            String property = tail.getMatchingProperty();
+            if (properties == null) {
+                properties = new HashMap<>();
+            }
+            Segment child = properties.get(property);
+            if (child == null) {
+                child = new Segment(depth + 1);
+                properties.put(property, child);
+            }
+            int index = tail.getMatchingIndex();
+            if (index >= 0) {
+                if (indexes == null) {
+                    indexes = new HashMap<>();
+                }
+                indexes.put(index, child);
+            }
+            return child;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSONC content preprocessed once by {@link JsoncMapper#preprocess(String)}, which can be
+ * read any number of times without running the JSONC transformations again.
+ *
+ * <p>The cleaned content is held as UTF-8 bytes, which Jackson parses without decoding them
+ * first. Reads use the mapper that created the handle, with its configuration at the time of
+ * the read. Instances are immutable and thread-safe.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * PreprocessedJsonc message = mapper.preprocess(body);
+ * String route = message.readTree().path("type").asText();
+ * Order order = message.readValue(Order.class);
+ * }</pre>
+ *
+ * @since 1.1.0
+ * @see JsoncMapper#preprocess(String)
+ */
+public final class PreprocessedJsonc {
+
+    private final JsoncMapper mapper;
+    private final byte[] content;
+
+    PreprocessedJsonc(JsoncMapper mapper, byte[] content) {
+        this.mapper = mapper;
+        this.content = content;
+    }
+
+    /**
+     * Binds the content to a Java object.
+     *
+     * @param valueType target class type
+     * @return parsed object of type T
+     * @throws JsonProcessingException if the content cannot be parsed or mapped
+     * @throws IllegalArgumentException if valueType is null
+     */
+    public <T> T readValue(Class<T> valueType) throws JsonProcessingException {
+        if (valueType == null) {
+            throw new IllegalArgumentException("Value type cannot be null");
+        }
+        return mapper.readPreprocessed(content, mapper.getTypeFactory().constructType(valueType));
+    }
+
+    /**
+     * Binds the content to a Java object using TypeReference.
+     *
+     * @param valueTypeRef target type reference
+     * @return parsed object of type T
+     * @throws JsonProcessingException if the content cannot be parsed or mapped
+     * @throws IllegalArgumentException if valueTypeRef is null
+     */
+    public <T> T readValue(TypeReference<T> valueTypeRef) throws JsonProcessingException {
+        if (valueTypeRef == null) {
+            throw new IllegalArgumentException("Value type reference cannot be null");
+        }
+        return mapper.readPreprocessed(content, mapper.getTypeFactory().constructType(valueTypeRef));
+    }
+
+    /**
+     * Binds the content to a Java object using JavaType.
+     *
+     * @param valueType target JavaType
+     * @return parsed object of type T
+     * @throws JsonProcessingException if the content cannot be parsed or mapped
+     * @throws IllegalArgumentException if valueType is null
+     */
+    public <T> T readValue(JavaType valueType) throws JsonProcessingException {
+        if (valueType == null) {
+            throw new IllegalArgumentException("Value type cannot be null");
+        }
+        return mapper.readPreprocessed(content, valueType);
+    }
+
+    /**
+     * Reads the content into a JsonNode tree.
+     *
+     * @return JsonNode tree ({@code MissingNode} if the content is empty)
+     * @throws JsonProcessingException if the content cannot be parsed
+     */
+    public JsonNode readTree() throws JsonProcessingException {
+        return mapper.readPreprocessedTree(content);
+    }
+
+    /**
+     * Validates the content without building a tree or binding values.
+     *
+     * <p>The content is checked with the mapper's tokenizer, so JSON5 literals kept in the
+     * cleaned content (see {@link #getContent()}) are accepted when enabled. Error positions are byte positions in the cleaned content returned by {@link #getContent()},
+     * not in the original JSONC input; use {@link JsoncMapper#validate(String)} on the
+     * original input when those are needed.
+     *
+     * @return validation result describing the first syntax error, if any
+     */
+    public JsoncValidationResult validate() {
+        return mapper.validatePreprocessed(content);
+    }
+
+    /**
+     * Returns the cleaned content as text.
+     *
+     * <p>Comments, trailing commas and single quotes are removed and hexadecimal numbers are
+     * converted, but literals the tokenizer reads natively ({@code +1}, {@code Infinity},
+     * {@code NaN}, and unescaped control characters in strings) are kept as written. With those features
+     * enabled the text is therefore not standard JSON; use {@link #readTree()} and a plain
+     * {@code ObjectMapper} to produce it.
+     *
+     * @return the preprocessed text
+     */
+    public String getContent() {
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return size of the preprocessed content in UTF-8 bytes
+     */
+    public int size() {
+        return content.length;
+    }
+}
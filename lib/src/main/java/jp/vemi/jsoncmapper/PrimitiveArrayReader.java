@@ -0,0 +1,182 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads a numeric JSON array straight into a primitive Java array, used by
+ * {@link JsoncMapper#readPrimitiveArray(String, JsonPointer, Class)}.
+ *
+ * <p>Elements are taken from the streaming parser one token at a time and stored in a
+ * growing primitive buffer, so neither boxed values nor tree nodes are created. Integer
+ * elements are parsed from the parser's character buffer without an intermediate
+ * {@code String}. When a pointer is given, members and elements that do not lead to it are
+ * skipped at token level, and reading stops once the addressed array has been consumed.
+ *
+ * <p>Instances are not thread-safe; create one per read.
+ */
+final class PrimitiveArrayReader {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Class<?> arrayType;
+    private int size;
+
+    PrimitiveArrayReader(Class<?> arrayType) {
+        if (arrayType == null) {
+            throw new IllegalArgumentException("Array type cannot be null");
+        }
+        if (arrayType != int[].class && arrayType != long[].class
+                && arrayType != double[].class && arrayType != float[].class) {
+            throw new IllegalArgumentException("Array type must be one of int[], long[], double[] or float[]: "
+                    + arrayType.getName());
+        }
+        this.arrayType = arrayType;
+    }
+
+    /**
+     * Reads the array at the pointer from a parser that has not been advanced yet.
+     *
+     * @param parser parser positioned before the first token
+     * @param pointer location of the array ({@link JsonPointer#empty()} for the root value)
+     * @return the primitive array, or null if the pointer does not exist
+     * @throws IOException if reading fails or the value is not an array of matching numbers
+     */
+    Object read(JsonParser parser, JsonPointer pointer) throws IOException {
+        if (parser.nextToken() == null || !seek(parser, pointer)) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw MismatchedInputException.from(parser, arrayType,
+                    "Expected an array at '" + pointer + "' but found " + parser.currentToken());
+        }
+        if (arrayType == int[].class) {
+            return readInts(parser);
+        }
+        if (arrayType == long[].class) {
+            return readLongs(parser);
+        }
+        if (arrayType == double[].class) {
+            return readDoubles(parser);
+        }
+        return readFloats(parser);
+    }
+
+    /**
+     * Advances from the parser's current value to the value addressed by the pointer.
+     *
+     * @return false if the pointer does not exist
+     */
+    private static boolean seek(JsonParser p, JsonPointer pointer) throws IOException {
+        for (JsonPointer tail = pointer; !tail.matches(); tail = tail.tail()) {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                String name = tail.getMatchingProperty();
+                while (true) {
+                    if (p.nextToken() != JsonToken.FIELD_NAME) {
+                        return false;
+                    }
+                    boolean match = name.equals(p.currentName());
+                    p.nextToken();
+                    if (match) {
+                        break;
+                    }
+                    p.skipChildren();
+                }
+            } else if (token == JsonToken.START_ARRAY && tail.mayMatchElement()) {
+                int index = tail.getMatchingIndex();
+                for (int i = 0; ; i++) {
+                    if (p.nextToken() == JsonToken.END_ARRAY) {
+                        return false;
+                    }
+                    if (i == index) {
+                        break;
+                    }
+                    p.skipChildren();
+                }
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int[] readInts(JsonParser p) throws IOException {
+        int[] buffer = new int[INITIAL_CAPACITY];
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            requireInteger(p);
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, grow(size));
+            }
+            buffer[size++] = p.getIntValue();
+        }
+        return size == buffer.length ? buffer : Arrays.copyOf(buffer, size);
+    }
+
+    private long[] readLongs(JsonParser p) throws IOException {
+        long[] buffer = new long[INITIAL_CAPACITY];
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            requireInteger(p);
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, grow(size));
+            }
+            buffer[size++] = p.getLongValue();
+        }
+        return size == buffer.length ? buffer : Arrays.copyOf(buffer, size);
+    }
+
+    private double[] readDoubles(JsonParser p) throws IOException {
+        double[] buffer = new double[INITIAL_CAPACITY];
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            requireNumber(p);
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, grow(size));
+            }
+            buffer[size++] = p.getDoubleValue();
+        }
+        return size == buffer.length ? buffer : Arrays.copyOf(buffer, size);
+    }
+
+    private float[] readFloats(JsonParser p) throws IOException {
+        float[] buffer = new float[INITIAL_CAPACITY];
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            requireNumber(p);
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, grow(size));
+            }
+            buffer[size++] = p.getFloatValue();
+        }
+        return size == buffer.length ? buffer : Arrays.copyOf(buffer, size);
+    }
+
+    private static int grow(int capacity) {
+        int grown = capacity + (capacity >> 1);
+        if (grown < 0) {
+            throw new OutOfMemoryError("Array too large");
+        }
+        return grown;
+    }
+
+    private void requireInteger(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+            throw mismatch(p, "an integer");
+        }
+    }
+
+    private void requireNumber(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+            throw mismatch(p, "a number");
+        }
+    }
+
+    private MismatchedInputException mismatch(JsonParser p, String expected) {
+        return MismatchedInputException.from(p, arrayType,
+                "Expected " + expected + " at index " + size + " but found " + p.currentToken());
+    }
+}
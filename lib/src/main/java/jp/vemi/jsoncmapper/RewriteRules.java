@@ -0,0 +1,76 @@
+package jp.vemi.jsoncmapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@link JsoncRewriteRule}s of a mapper, indexed by trigger character for the scan.
+ */
+final class RewriteRules {
+
+    private static final JsoncRewriteRule[] NONE = new JsoncRewriteRule[0];
+
+    /** Rules by ASCII trigger, in registration order. */
+    private final JsoncRewriteRule[][] ascii = new JsoncRewriteRule[128][];
+    /** Rules with a non-ASCII trigger. */
+    private final JsoncRewriteRule[] others;
+
+    RewriteRules(List<JsoncRewriteRule> rules) {
+        List<JsoncRewriteRule> nonAscii = new ArrayList<>();
+        for (JsoncRewriteRule rule : rules) {
+            char trigger = rule.trigger();
+            if (trigger < 128) {
+                JsoncRewriteRule[] existing = ascii[trigger];
+                JsoncRewriteRule[] extended = existing == null
+                        ? new JsoncRewriteRule[1] : Arrays.copyOf(existing, existing.length + 1);
+                extended[extended.length - 1] = rule;
+                ascii[trigger] = extended;
+            } else {
+                nonAscii.add(rule);
+            }
+        }
+        this.others = nonAscii.toArray(NONE);
+    }
+
+    /**
+     * Returns whether some rule may start at the character.
+     */
+    boolean isTrigger(char c) {
+        return c < 128 ? ascii[c] != null : others.length > 0 && findOther(c);
+    }
+
+    private boolean findOther(char c) {
+        for (JsoncRewriteRule rule : others) {
+            if (rule.trigger() == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Applies the first rule that accepts the construct at {@code index}.
+     *
+     * @return position after the consumed construct, or -1 if no rule applied
+     */
+    int apply(String input, int index, boolean inString, JsoncRewriteRule.Output out) {
+        char c = input.charAt(index);
+        JsoncRewriteRule[] candidates = c < 128 ? ascii[c] : others;
+        for (JsoncRewriteRule rule : candidates) {
+            if (rule.trigger() != c || (inString && !rule.appliesInStrings())) {
+                continue;
+            }
+            int end = rule.rewrite(input, index, out);
+            if (end < 0) {
+                continue;
+            }
+            if (end <= index || end > input.length()) {
+                throw new IllegalStateException("Rewrite rule " + rule + " returned invalid end " + end
+                        + " for position " + index);
+            }
+            return end;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,267 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Streaming 128-bit hash over the canonical token stream of a JSON value.
+ *
+ * <p>Only tokens contribute to the hash, so comments, whitespace, trailing commas and
+ * the spelling of numbers ({@code 0x10} vs {@code 16}, {@code 1.50} vs {@code 1.5}) do
+ * not. Floating-point numbers are hashed by their exact decimal value rather than the
+ * nearest double. Each value is tagged with its type, so {@code "1"} and {@code 1} differ. When key
+ * order is ignored, object members are hashed independently and combined with a
+ * commutative sum.
+ *
+ * <p>The mixing steps follow MurmurHash3 (x64, 128-bit). The hash is not cryptographic.
+ *
+ * <p>Instances are not thread-safe; create one per computation.
+ */
+final class StructuralHasher {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final long SEED1 = 0x9e3779b97f4a7c15L;
+    private static final long SEED2 = 0xc2b2ae3d27d4eb4fL;
+
+    static final int TAG_OBJECT = 1;
+    static final int TAG_ARRAY = 2;
+    static final int TAG_END = 3;
+    static final int TAG_FIELD = 4;
+    private static final int TAG_STRING = 5;
+    private static final int TAG_INT = 6;
+    private static final int TAG_BIG_INT = 7;
+    private static final int TAG_FLOAT = 8;
+    private static final int TAG_TRUE = 9;
+    private static final int TAG_FALSE = 10;
+    private static final int TAG_NULL = 11;
+
+    private final boolean ignoreKeyOrder;
+    private long h1;
+    private long h2;
+
+    StructuralHasher(boolean ignoreKeyOrder) {
+        this.ignoreKeyOrder = ignoreKeyOrder;
+    }
+
+    /**
+     * Hashes the single root value of a parser that has not been advanced yet.
+     *
+     * @param parser parser positioned before the first token
+     * @return fingerprint of the root value
+     * @throws IOException if reading or parsing fails, or the input is empty or has more than
+     *         one root value
+     */
+    JsoncFingerprint hashRoot(JsonParser parser) throws IOException {
+        if (parser.nextToken() == null) {
+            throw new JsonParseException(parser, "No content to fingerprint");
+        }
+        reset();
+        value(parser);
+        finish();
+        if (parser.nextToken() != null) {
+            throw new JsonParseException(parser, "Unexpected content after the root value");
+        }
+        return new JsoncFingerprint(h1, h2);
+    }
+
+    /**
+     * Hashes the value starting at the parser's current token, leaving the parser on the
+     * value's last token.
+     */
+    void value(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        switch (token) {
+            case START_OBJECT:
+                object(p);
+                break;
+            case START_ARRAY:
+                mix(TAG_ARRAY);
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    value(p);
+                }
+                mix(TAG_END);
+                break;
+            case VALUE_STRING:
+                mix(TAG_STRING);
+                chars(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                break;
+            case VALUE_NUMBER_INT:
+                if (p.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                    mix(TAG_BIG_INT);
+                    string(p.getBigIntegerValue().toString());
+                } else {
+                    mix(TAG_INT);
+                    mix(p.getLongValue());
+                }
+                break;
+            case VALUE_NUMBER_FLOAT:
+                mix(TAG_FLOAT);
+                if (p.isNaN()) {
+                    // Infinity and NaN have no decimal form
+                    mix(Double.doubleToLongBits(p.getDoubleValue()));
+                } else {
+                    decimal(p.getDecimalValue());
+                }
+                break;
+            case VALUE_TRUE:
+                mix(TAG_TRUE);
+                break;
+            case VALUE_FALSE:
+                mix(TAG_FALSE);
+                break;
+            case VALUE_NULL:
+                mix(TAG_NULL);
+                break;
+            default:
+                throw new JsonParseException(p, "Unexpected token " + token);
+        }
+    }
+
+    private void object(JsonParser p) throws IOException {
+        if (!ignoreKeyOrder) {
+            mix(TAG_OBJECT);
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                member(p);
+            }
+            mix(TAG_END);
+            return;
+        }
+
+        // Hash every member on its own, then combine order-independently
+        long saved1 = h1;
+        long saved2 = h2;
+        long sum1 = 0L;
+        long sum2 = 0L;
+        int count = 0;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            reset();
+            member(p);
+            finish();
+            sum1 += h1;
+            sum2 += h2;
+            count++;
+        }
+        h1 = saved1;
+        h2 = saved2;
+        mix(TAG_OBJECT);
+        mix(count);
+        mix(sum1);
+        mix(sum2);
+        mix(TAG_END);
+    }
+
+    private void member(JsonParser p) throws IOException {
+        mix(TAG_FIELD);
+        string(p.currentName());
+        p.nextToken();
+        value(p);
+    }
+
+    /**
+     * Resets the state to the initial seed.
+     */
+    void reset() {
+        h1 = SEED1;
+        h2 = SEED2;
+    }
+
+    /**
+     * Applies the final avalanche; the state then holds the hash value.
+     */
+    void finish() {
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+    }
+
+    long high() {
+        return h1;
+    }
+
+    long low() {
+        return h2;
+    }
+
+    /**
+     * Mixes one 64-bit block into both lanes.
+     */
+    void mix(long k) {
+        long k1 = k * C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        h1 ^= k1;
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        long k2 = k * C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        h2 ^= k2;
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    private void chars(char[] buffer, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        for (; i + 4 <= end; i += 4) {
+            mix(((long) buffer[i] << 48) | ((long) buffer[i + 1] << 32) | ((long) buffer[i + 2] << 16) | buffer[i + 3]);
+        }
+        long tail = 0L;
+        for (; i < end; i++) {
+            tail = (tail << 16) | buffer[i];
+        }
+        mix(tail);
+        mix(length);
+    }
+
+    /**
+     * Mixes a decimal in normalized form, so that numerically equal spellings such as
+     * {@code 1.50} and {@code 1.5e0} hash alike while distinct values that round to the
+     * same double do not.
+     */
+    private void decimal(BigDecimal value) {
+        if (value.signum() == 0) {
+            mix(0L);
+            string("0");
+            return;
+        }
+        BigDecimal normalized = value.stripTrailingZeros();
+        mix(normalized.scale());
+        string(normalized.unscaledValue().toString());
+    }
+
+    void string(String text) {
+        int length = text.length();
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            mix(((long) text.charAt(i) << 48) | ((long) text.charAt(i + 1) << 32)
+                | ((long) text.charAt(i + 2) << 16) | text.charAt(i + 3));
+        }
+        long tail = 0L;
+        for (; i < length; i++) {
+            tail = (tail << 16) | text.charAt(i);
+        }
+        mix(tail);
+        mix(length);
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,538 @@
+package jp.vemi.jsoncmapper;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Structural index of a JSONC document backing the lazy trees returned by
+ * {@link JsoncMapper#readTreeLazily(String)}.
+ *
+ * <p>One streaming scan records, for every value, its kind and start offset in the source
+ * characters, the offset of its member name, and the range of its children in a shared
+ * child table, all in primitive arrays. No nodes or strings are created during the scan.
+ *
+ * <p>Containers are exposed as regular {@link ObjectNode} and {@link ArrayNode} instances
+ * whose member map or element list decodes names and values from the source only when
+ * they are accessed, caching each decoded child. A container that is modified is first
+ * copied into an ordinary map or list. Lazy trees are not safe for concurrent access,
+ * including concurrent reads.
+ */
+final class StructuralIndex {
+
+    private static final byte SCALAR = 0;
+    private static final byte OBJECT = 1;
+    private static final byte ARRAY = 2;
+
+    /** Objects with more distinct members than this get a hash lookup on first access. */
+    private static final int LINEAR_LOOKUP_LIMIT = 8;
+
+    private final char[] text;
+    private final JsoncFactory factory;
+    private final JsonNodeFactory nodeFactory;
+    private final boolean bigDecimalFloats;
+
+    private int size;
+    private byte[] kind = new byte[64];
+    private int[] start = new int[64];
+    private int[] keyStart = new int[64];
+    private int[] childStart = new int[64];
+    private int[] childCount = new int[64];
+
+    private int[] children = new int[64];
+    private int childrenSize;
+    private int[] scratch = new int[64];
+    private int scratchSize;
+
+    private StructuralIndex(char[] text, JsoncFactory factory, ObjectMapper mapper) {
+        this.text = text;
+        this.factory = factory;
+        this.nodeFactory = mapper.getNodeFactory();
+        this.bigDecimalFloats = mapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    }
+
+    /**
+     * Indexes the root value of the given characters and returns a lazy view of it.
+     *
+     * @param text source characters with hexadecimal numbers already converted (not copied;
+     *             must not be modified afterwards)
+     * @param factory factory creating parsers with the mapper's JSONC features
+     * @param mapper mapper supplying the node factory and number settings
+     * @return lazy tree, or a missing node if there is no content
+     * @throws IOException if the content is not valid JSONC
+     */
+    static JsonNode readTree(char[] text, JsoncFactory factory, ObjectMapper mapper) throws IOException {
+        StructuralIndex index = new StructuralIndex(text, factory, mapper);
+        try (JsonParser parser = factory.createConvertedParser(text, 0, text.length)) {
+            if (parser.nextToken() == null) {
+                return mapper.getNodeFactory().missingNode();
+            }
+            index.value(parser, -1);
+        }
+        index.scratch = null;
+        return index.node(0);
+    }
+
+    /**
+     * Indexes the value at the parser's current token (and its descendants).
+     */
+    private int value(JsonParser p, int nameOffset) throws IOException {
+        int index = allocate(nameOffset, (int) p.currentTokenLocation().getCharOffset());
+        JsonToken token = p.currentToken();
+        if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+            return index;
+        }
+
+        boolean object = token == JsonToken.START_OBJECT;
+        kind[index] = object ? OBJECT : ARRAY;
+        JsonToken end = object ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+        int mark = scratchSize;
+        for (JsonToken t = p.nextToken(); t != end; t = p.nextToken()) {
+            int name = -1;
+            if (object) {
+                name = (int) p.currentTokenLocation().getCharOffset();
+                p.nextToken();
+            }
+            int child = value(p, name);
+            if (scratchSize == scratch.length) {
+                scratch = Arrays.copyOf(scratch, scratchSize << 1);
+            }
+            scratch[scratchSize++] = child;
+        }
+
+        // Children of one container are stored contiguously for O(1) positional access
+        int count = scratchSize - mark;
+        if (childrenSize + count > children.length) {
+            children = Arrays.copyOf(children, Math.max(children.length << 1, childrenSize + count));
+        }
+        System.arraycopy(scratch, mark, children, childrenSize, count);
+        childStart[index] = childrenSize;
+        childCount[index] = count;
+        childrenSize += count;
+        scratchSize = mark;
+        return index;
+    }
+
+    private int allocate(int nameOffset, int valueOffset) {
+        if (size == kind.length) {
+            int capacity = size << 1;
+            kind = Arrays.copyOf(kind, capacity);
+            start = Arrays.copyOf(start, capacity);
+            keyStart = Arrays.copyOf(keyStart, capacity);
+            childStart = Arrays.copyOf(childStart, capacity);
+            childCount = Arrays.copyOf(childCount, capacity);
+        }
+        int index = size++;
+        kind[index] = SCALAR;
+        start[index] = valueOffset;
+        keyStart[index] = nameOffset;
+        return index;
+    }
+
+    private JsonNode node(int index) {
+        switch (kind[index]) {
+            case OBJECT:
+                return new ObjectNode(nodeFactory, new LazyMembers(index));
+            case ARRAY:
+                return new ArrayNode(nodeFactory, new LazyElements(index));
+            default:
+                return scalar(index);
+        }
+    }
+
+    /**
+     * Decodes a scalar. Numbers and literals are parsed from a range bounded at the next
+     * delimiter, since Jackson requires whitespace after root-level numbers.
+     */
+    private JsonNode scalar(int index) {
+        int from = start[index];
+        int to = from + 1;
+        if (text[from] != '"' && text[from] != '\'') {
+            while (to < text.length && !isDelimiter(text[to])) {
+                to++;
+            }
+        } else {
+            to = text.length;
+        }
+        try (JsonParser p = factory.createConvertedParser(text, from, to - from)) {
+            switch (p.nextToken()) {
+                case VALUE_STRING:
+                    return nodeFactory.textNode(p.getText());
+                case VALUE_NUMBER_INT:
+                    switch (p.getNumberType()) {
+                        case INT:
+                            return nodeFactory.numberNode(p.getIntValue());
+                        case LONG:
+                            return nodeFactory.numberNode(p.getLongValue());
+                        default:
+                            return nodeFactory.numberNode(p.getBigIntegerValue());
+                    }
+                case VALUE_NUMBER_FLOAT:
+                    // Infinity and NaN have no BigDecimal form and read as doubles, as in readTree
+                    return bigDecimalFloats && !p.isNaN() ? nodeFactory.numberNode(p.getDecimalValue())
+                                            : nodeFactory.numberNode(p.getDoubleValue());
+                case VALUE_TRUE:
+                    return nodeFactory.booleanNode(true);
+                case VALUE_FALSE:
+                    return nodeFactory.booleanNode(false);
+                default:
+                    return nodeFactory.nullNode();
+            }
+        } catch (IOException e) {
+            // The range was already validated by the index scan
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == ',' || c == ']' || c == '}' || c == '/' || c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    /**
+     * Decodes a member name, copying it directly when it contains no escapes.
+     */
+    private String name(int index) {
+        int from = keyStart[index];
+        char quote = text[from];
+        for (int i = from + 1; i < text.length; i++) {
+            char c = text[i];
+            if (c == quote) {
+                return new String(text, from + 1, i - from - 1);
+            }
+            if (c == '\\') {
+                break;
+            }
+        }
+        try (JsonParser p = factory.createConvertedParser(text, from, text.length - from)) {
+            p.nextToken();
+            return p.getText();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Member map of a lazy object. Names are decoded on first access; values on first
+     * access of each member. Duplicate names keep the first position and the last value,
+     * as {@code readTree} does.
+     */
+    private final class LazyMembers extends AbstractMap<String, JsonNode> {
+        private final int node;
+        private String[] names;
+        private int[] members;
+        private int unique;
+        private Map<String, Integer> positions;
+        private JsonNode[] values;
+        private Map<String, JsonNode> materialized;
+
+        LazyMembers(int node) {
+            this.node = node;
+        }
+
+        private void loadNames() {
+            if (names != null) {
+                return;
+            }
+            int count = childCount[node];
+            String[] loaded = new String[count];
+            int[] loadedMembers = new int[count];
+            if (count > LINEAR_LOOKUP_LIMIT) {
+                positions = new HashMap<>(count * 2);
+            }
+            names = loaded;
+            members = loadedMembers;
+            for (int i = 0; i < count; i++) {
+                int child = children[childStart[node] + i];
+                String name = name(child);
+                int position = find(name);
+                if (position < 0) {
+                    loaded[unique] = name;
+                    loadedMembers[unique] = child;
+                    if (positions != null) {
+                        positions.put(name, unique);
+                    }
+                    unique++;
+                } else {
+                    loadedMembers[position] = child;
+                }
+            }
+        }
+
+        private int find(Object name) {
+            if (positions != null) {
+                Integer position = positions.get(name);
+                return position == null ? -1 : position;
+            }
+            for (int i = 0; i < unique; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private JsonNode valueAt(int position) {
+            if (values == null) {
+                values = new JsonNode[unique];
+            }
+            JsonNode value = values[position];
+            if (value == null) {
+                value = node(members[position]);
+                values[position] = value;
+            }
+            return value;
+        }
+
+        private Map<String, JsonNode> materialize() {
+            if (materialized == null) {
+                loadNames();
+                Map<String, JsonNode> copy = new LinkedHashMap<>();
+                for (int i = 0; i < unique; i++) {
+                    copy.put(names[i], valueAt(i));
+                }
+                materialized = copy;
+            }
+            return materialized;
+        }
+
+        @Override
+        public int size() {
+            if (materialized != null) {
+                return materialized.size();
+            }
+            if (childCount[node] == 0) {
+                return 0;
+            }
+            loadNames();
+            return unique;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        @Override
+        public JsonNode get(Object key) {
+            if (materialized != null) {
+                return materialized.get(key);
+            }
+            loadNames();
+            int position = find(key);
+            return position < 0 ? null : valueAt(position);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            if (materialized != null) {
+                return materialized.containsKey(key);
+            }
+            loadNames();
+            return find(key) >= 0;
+        }
+
+        @Override
+        public JsonNode put(String key, JsonNode value) {
+            return materialize().put(key, value);
+        }
+
+        @Override
+        public JsonNode remove(Object key) {
+            return materialize().remove(key);
+        }
+
+        @Override
+        public void clear() {
+            materialized = new LinkedHashMap<>();
+        }
+
+        @Override
+        public Set<Map.Entry<String, JsonNode>> entrySet() {
+            if (materialized != null) {
+                return materialized.entrySet();
+            }
+            return new AbstractSet<Map.Entry<String, JsonNode>>() {
+                @Override
+                public int size() {
+                    return LazyMembers.this.size();
+                }
+
+                @Override
+                public Iterator<Map.Entry<String, JsonNode>> iterator() {
+                    loadNames();
+                    return new Iterator<Map.Entry<String, JsonNode>>() {
+                        private int next;
+                        private int last = -1;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < unique;
+                        }
+
+                        @Override
+                        public Map.Entry<String, JsonNode> next() {
+                            if (next >= unique) {
+                                throw new NoSuchElementException();
+                            }
+                            last = next++;
+                            return new Member(last);
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last < 0) {
+                                throw new IllegalStateException();
+                            }
+                            materialize().remove(names[last]);
+                            last = -1;
+                        }
+                    };
+                }
+            };
+        }
+
+        /**
+         * Entry view of one member; writing through it materializes the map.
+         */
+        private final class Member implements Map.Entry<String, JsonNode> {
+            private final int position;
+
+            Member(int position) {
+                this.position = position;
+            }
+
+            @Override
+            public String getKey() {
+                return names[position];
+            }
+
+            @Override
+            public JsonNode getValue() {
+                return valueAt(position);
+            }
+
+            @Override
+            public JsonNode setValue(JsonNode value) {
+                JsonNode previous = valueAt(position);
+                materialize().put(names[position], value);
+                values[position] = value;
+                return previous;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                if (!(obj instanceof Map.Entry)) {
+                    return false;
+                }
+                Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+                return getKey().equals(other.getKey()) && Objects.equals(getValue(), other.getValue());
+            }
+
+            @Override
+            public int hashCode() {
+                return getKey().hashCode() ^ Objects.hashCode(getValue());
+            }
+
+            @Override
+            public String toString() {
+                return getKey() + "=" + getValue();
+            }
+        }
+    }
+
+    /**
+     * Element list of a lazy array; each element is decoded on first access.
+     */
+    private final class LazyElements extends AbstractList<JsonNode> implements RandomAccess {
+        private final int node;
+        private JsonNode[] values;
+        private List<JsonNode> materialized;
+
+        LazyElements(int node) {
+            this.node = node;
+        }
+
+        private List<JsonNode> materialize() {
+            if (materialized == null) {
+                int count = childCount[node];
+                List<JsonNode> copy = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    copy.add(get(i));
+                }
+                materialized = copy;
+            }
+            return materialized;
+        }
+
+        @Override
+        public int size() {
+            return materialized != null ? materialized.size() : childCount[node];
+        }
+
+        @Override
+        public JsonNode get(int index) {
+            if (materialized != null) {
+                return materialized.get(index);
+            }
+            int count = childCount[node];
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+            }
+            if (values == null) {
+                values = new JsonNode[count];
+            }
+            JsonNode value = values[index];
+            if (value == null) {
+                value = node(children[childStart[node] + index]);
+                values[index] = value;
+            }
+            return value;
+        }
+
+        @Override
+        public JsonNode set(int index, JsonNode element) {
+            return materialize().set(index, element);
+        }
+
+        @Override
+        public void add(int index, JsonNode element) {
+            materialize().add(index, element);
+            modCount++;
+        }
+
+        @Override
+        public JsonNode remove(int index) {
+            JsonNode removed = materialize().remove(index);
+            modCount++;
+            return removed;
+        }
+
+        @Override
+        public void clear() {
+            materialized = new ArrayList<>();
+            modCount++;
+        }
+    }
+}
@@ -10,6 +10,18 @@
  *   <li>{@link jp.vemi.jsoncmapper.JsoncUtils} — Utilities for comment removal and JSON5
  *       compatibility transformations. All algorithms run in linear time with protection
  *       against ReDoS attacks.</li>
+ *   <li>{@link jp.vemi.jsoncmapper.JsoncValidationResult} — Outcome of the streaming,
+ *       allocation-light {@code JsoncMapper.validate(...)} check.</li>
+ *   <li>{@link jp.vemi.jsoncmapper.JsoncLazy} — Property type whose value is bound on first
+ *       access instead of while the enclosing object is read.</li>
+ *   <li>{@link jp.vemi.jsoncmapper.JsoncSnapshot} — Flattened, immutable document for
+ *       allocation-free lookups by dotted path or JSON Pointer.</li>
+ *   <li>{@link jp.vemi.jsoncmapper.JsoncRewriteRule} — SPI for custom syntax rewritten
+ *       during the comment-removal scan, such as interpolation or {@code #} comments.</li>
+ *   <li>{@link jp.vemi.jsoncmapper.JsoncLexer} — Push-style lexer reporting tokens and
+ *       comments to a {@link jp.vemi.jsoncmapper.JsoncTokenHandler} as primitive positions.</li>
+ *   <li>{@link jp.vemi.jsoncmapper.PreprocessedJsonc} — Content preprocessed once and read
+ *       as a tree, bound to several types or validated without repeating the transformations.</li>
  * </ul>
  *
  * <h2>Security and Input Validation</h2>
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.io.TempDir;
 
+import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JavaType;
@@ -735,8 +736,8 @@ public class JsoncMapperTest {
         TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
         Map<String, Object> result = mapper.readValue(json5, typeRef);
         
-        assertNull(result.get("inf"));  // Infinity becomes null in JSON
-        assertNull(result.get("nan"));  // NaN becomes null in JSON
+        assertEquals(Double.POSITIVE_INFINITY, result.get("inf"));
+        assertTrue(((Double) result.get("nan")).isNaN());
         assertEquals(42, result.get("value"));
     }
     
@@ -777,8 +778,8 @@ public class JsoncMapperTest {
         assertEquals("test", result.get("name"));
         assertEquals(255, result.get("hex"));
         assertEquals(123, result.get("plus"));
-        assertNull(result.get("inf"));
-        assertNull(result.get("nan"));
+        assertEquals(Double.POSITIVE_INFINITY, result.get("inf"));
+        assertTrue(((Double) result.get("nan")).isNaN());
     }
     
     @Test
@@ -974,6 +975,1372 @@ public class JsoncMapperTest {
         assertEquals(true, result.get("trailing"));
     }
 
+    @Test
+    public void testMultilineStringsStillRejectOtherControlChars(@TempDir Path tempDir) throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowMultilineStrings(true)
+                .build();
+        String multiline = "{ // \"quote in a comment\n \"a\": \"line 1\nline 2\r\nline 3\" }";
+        
+        assertEquals("line 1\nline 2\r\nline 3", mapper.readTree(multiline).get("a").asText());
+        assertTrue(mapper.validate(multiline).isValid());
+        assertEquals(mapper.readTree(multiline), mapper.readTreeCompact(multiline));
+        assertEquals(mapper.readTree(multiline), mapper.readTreeLazily(multiline));
+        assertEquals("line 1\nline 2\r\nline 3", mapper.readAt(multiline, JsonPointer.compile("/a"), String.class));
+        
+        for (String control : new String[] { "\t", "\u0001" }) {
+            String jsonc = "{\"a\":\"x" + control + "y\"}";
+            assertThrows(JsonProcessingException.class, () -> mapper.readTree(jsonc));
+            assertFalse(mapper.validate(jsonc).isValid());
+            assertThrows(JsonProcessingException.class, () -> mapper.readTreeCompact(jsonc));
+        }
+        
+        JsoncMapper controlChars = new JsoncMapper.Builder()
+                .allowMultilineStrings(true)
+                .allowUnescapedControlChars(true)
+                .build();
+        assertEquals("x\ty", controlChars.readTree("{\"a\":\"x\ty\"}").get("a").asText());
+        assertTrue(controlChars.validate("{\"a\":\"x\ty\"}").isValid());
+        
+        Path source = tempDir.resolve("multiline.jsonc");
+        java.nio.file.Files.write(source, multiline.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        Path indexFile = tempDir.resolve("multiline.idx");
+        mapper.buildOffsetIndex(source, indexFile);
+        try (JsoncOffsetIndex index = mapper.openOffsetIndex(source, indexFile)) {
+            assertEquals("line 1\nline 2\r\nline 3", index.readAt(JsonPointer.compile("/a"), String.class));
+        }
+    }
+
+    @Test
+    public void testValidateValidJsonc() throws Exception {
+        JsoncMapper mapper = new JsoncMapper();
+        String jsonc = "{\n  /* comment */\n  \"key\": [1, 2, 3] // trailing\n}";
+        
+        JsoncValidationResult result = mapper.validate(jsonc);
+        assertTrue(result.isValid());
+        assertNull(result.getMessage());
+        assertEquals(-1, result.getLine());
+        
+        assertTrue(mapper.validate(jsonc.getBytes("UTF-8")).isValid());
+        assertTrue(mapper.validate(new StringReader(jsonc)).isValid());
+        assertTrue(mapper.validate(new ByteArrayInputStream(jsonc.getBytes("UTF-8"))).isValid());
+    }
+
+    @Test
+    public void testValidateReportsOriginalPosition() throws Exception {
+        JsoncMapper mapper = new JsoncMapper();
+        // The error is on line 4, after a multi-line block comment that preprocessing would remove
+        String jsonc = "{\n  /* multi\n     line */ \"a\": 1,\n  \"b\": ]\n}";
+        
+        JsoncValidationResult result = mapper.validate(jsonc);
+        assertFalse(result.isValid());
+        assertNotNull(result.getMessage());
+        assertEquals(4, result.getLine());
+        // Jackson reports the location right after the offending character
+        assertEquals(9, result.getColumn());
+        assertEquals(jsonc.indexOf(']') + 1, result.getOffset());
+    }
+
+    @Test
+    public void testValidateRespectsFeatures() throws Exception {
+        String json5 = "{ 'key': 'value', \"hex\": 0xFF, \"plus\": +1, \"inf\": Infinity, \"list\": [1, 2,], }";
+        
+        assertFalse(new JsoncMapper().validate(json5).isValid());
+        
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .enableJson5Features(true)
+                .build();
+        assertTrue(mapper.validate(json5).isValid());
+        assertTrue(mapper.validate(json5.getBytes("UTF-8")).isValid());
+    }
+
+    @Test
+    public void testValidateHexNumbersKeepPositions() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowHexNumbers(true)
+                .build();
+        String jsonc = "{ \"a\": 0xFFFF, \"b\": ? }";
+        
+        JsoncValidationResult result = mapper.validate(jsonc);
+        assertFalse(result.isValid());
+        assertEquals(1, result.getLine());
+        assertEquals(jsonc.indexOf('?') + 2, result.getColumn());
+    }
+
+    @Test
+    public void testValidateRejectsEmptyAndTrailingContent() throws Exception {
+        JsoncMapper mapper = new JsoncMapper();
+        
+        assertFalse(mapper.validate("").isValid());
+        assertFalse(mapper.validate("  // only a comment\n").isValid());
+        
+        JsoncValidationResult result = mapper.validate("{} {}");
+        assertFalse(result.isValid());
+        assertEquals(4, result.getColumn());
+    }
+
+    @Test
+    public void testValidatePath(@TempDir Path tempDir) throws Exception {
+        JsoncMapper mapper = new JsoncMapper();
+        Path file = tempDir.resolve("test.jsonc");
+        java.nio.file.Files.write(file, "{ \"key\": \"value\" } // comment".getBytes("UTF-8"));
+        
+        assertTrue(mapper.validate(file).isValid());
+    }
+
+    @Test
+    public void testValidateNullInput() {
+        JsoncMapper mapper = new JsoncMapper();
+        assertThrows(IllegalArgumentException.class, () -> mapper.validate((String) null));
+        assertThrows(IllegalArgumentException.class, () -> mapper.validate((byte[]) null));
+        assertThrows(IllegalArgumentException.class, () -> mapper.validate((Reader) null));
+        assertThrows(IllegalArgumentException.class, () -> mapper.validate((InputStream) null));
+        assertThrows(IllegalArgumentException.class, () -> mapper.validate((Path) null));
+    }
+
+    @Test
+    public void testMinifyMode() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .minify(true)
+                .enableJson5Features(true)
+                .build();
+        String json5 = "{\n" +
+                "  // comment\n" +
+                "  'name': 'hello  world',\n" +
+                "  \"hex\": 0x10,\n" +
+                "  \"list\": [ 1, 2, ],\n" +
+                "}";
+        
+        Map<String, Object> result = mapper.readValue(json5, new TypeReference<Map<String, Object>>() {});
+        assertEquals("hello  world", result.get("name"));
+        assertEquals(16, result.get("hex"));
+        assertEquals(java.util.Arrays.asList(1, 2), result.get("list"));
+        
+        JsonNode plain = new JsoncMapper.Builder().enableJson5Features(true).build().readTree(json5);
+        assertEquals(plain, mapper.readTree(json5));
+    }
+
+    @Test
+    public void testFingerprintIgnoresFormatting() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowTrailingCommas(true)
+                .allowHexNumbers(true)
+                .build();
+        String a = "{\n  // comment\n  \"name\": \"test\",\n  \"size\": 0x10,\n  \"list\": [1.50, 2,],\n}";
+        String b = "{\"name\":\"test\",\"size\":16,\"list\":[1.5,2]}";
+        
+        JsoncFingerprint fingerprint = mapper.fingerprint(a);
+        assertEquals(fingerprint, mapper.fingerprint(b));
+        assertEquals(fingerprint, mapper.fingerprint(b.getBytes("UTF-8")));
+        assertEquals(fingerprint, mapper.fingerprint(new StringReader(a)));
+        assertEquals(fingerprint, mapper.fingerprint(new ByteArrayInputStream(a.getBytes("UTF-8"))));
+        assertEquals(fingerprint, JsoncFingerprint.fromHexString(fingerprint.toHexString()));
+        assertEquals(32, fingerprint.toHexString().length());
+    }
+
+    @Test
+    public void testFingerprintDetectsChanges() throws Exception {
+        JsoncMapper mapper = new JsoncMapper();
+        JsoncFingerprint base = mapper.fingerprint("{ \"a\": 1, \"b\": [true, null] }");
+        
+        assertNotEquals(base, mapper.fingerprint("{ \"a\": 2, \"b\": [true, null] }"));
+        assertNotEquals(base, mapper.fingerprint("{ \"a\": \"1\", \"b\": [true, null] }"));
+        assertNotEquals(base, mapper.fingerprint("{ \"a\": 1, \"b\": [null, true] }"));
+        assertNotEquals(base, mapper.fingerprint("{ \"a\": 1, \"b\": [true, null], \"c\": {} }"));
+        assertNotEquals(mapper.fingerprint("[\"ab\", \"c\"]"), mapper.fingerprint("[\"a\", \"bc\"]"));
+        // Decimals that round to the same double are still different values
+        assertNotEquals(mapper.fingerprint("[0.10000000000000000001]"), mapper.fingerprint("[0.1]"));
+        assertEquals(mapper.fingerprint("[1.5, 0.0]"), mapper.fingerprint("[1.50, -0.00]"));
+        assertEquals(mapper.fingerprint("[1.5]"), mapper.fingerprint("[15e-1]"));
+    }
+
+    @Test
+    public void testFingerprintKeyOrder() throws Exception {
+        JsoncMapper mapper = new JsoncMapper();
+        String a = "{ \"a\": 1, \"b\": { \"x\": [1, 2], \"y\": null } }";
+        String b = "{ \"b\": { \"y\": null, \"x\": [1, 2] }, \"a\": 1 }";
+        
+        assertNotEquals(mapper.fingerprint(a), mapper.fingerprint(b));
+        assertEquals(mapper.fingerprint(a, true), mapper.fingerprint(b, true));
+        // Array order stays significant
+        assertNotEquals(mapper.fingerprint(a, true), mapper.fingerprint(b.replace("[1, 2]", "[2, 1]"), true));
+    }
+
+    @Test
+    public void testFingerprintInvalidInput() {
+        JsoncMapper mapper = new JsoncMapper();
+        assertThrows(JsonProcessingException.class, () -> mapper.fingerprint("{ \"a\": }"));
+        assertThrows(JsonProcessingException.class, () -> mapper.fingerprint(""));
+        assertThrows(JsonProcessingException.class, () -> mapper.fingerprint("[1] [2]"));
+        assertThrows(JsonProcessingException.class, () -> mapper.fingerprint("[1] [2]".getBytes(java.nio.charset.StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class, () -> mapper.fingerprint((String) null));
+        assertThrows(IllegalArgumentException.class, () -> JsoncFingerprint.fromHexString("xyz"));
+    }
+
+    @Test
+    public void testDiff() throws Exception {
+        JsoncMapper mapper = new JsoncMapper();
+        String oldJsonc = "{\n" +
+                "  // services\n" +
+                "  \"services\": {\n" +
+                "    \"auth\": { \"timeoutMs\": 1000, \"hosts\": [\"a\", \"b\"] },\n" +
+                "    \"db\": { \"pool\": 10 }\n" +
+                "  },\n" +
+                "  \"legacy\": true,\n" +
+                "  \"mode\": \"x\"\n" +
+                "}";
+        String newJsonc = "{ \"mode\": [\"x\"], \"services\": { \"db\": { \"pool\": 10 }, " +
+                "\"auth\": { \"timeoutMs\": 2000, \"hosts\": [\"a\", \"b\", \"c\"] } }, \"featureFlag\": 1 }";
+        
+        JsoncDiff diff = mapper.diff(oldJsonc, newJsonc);
+        
+        assertFalse(diff.isEmpty());
+        assertEquals(java.util.Arrays.asList("/services/auth/hosts/2", "/featureFlag"), pointers(diff.getAdded()));
+        assertEquals(java.util.Arrays.asList("/legacy"), pointers(diff.getRemoved()));
+        assertEquals(java.util.Arrays.asList("/services/auth/timeoutMs", "/mode"), pointers(diff.getChanged()));
+    }
+
+    @Test
+    public void testDiffIgnoresFormattingAndKeyOrder() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowTrailingCommas(true)
+                .build();
+        String a = "{ /* c */ \"a\": 1, \"b\": [1, 2,], }";
+        String b = "{\"b\":[1,2],\"a\":1}";
+        
+        assertTrue(mapper.diff(a, b).isEmpty());
+        assertTrue(mapper.diff(a.getBytes("UTF-8"), b.getBytes("UTF-8")).isEmpty());
+        assertTrue(mapper.diff(new StringReader(a), new StringReader(b)).isEmpty());
+        
+        JsoncDiff rootChange = mapper.diff("[1]", "{}");
+        assertEquals(java.util.Arrays.asList(""), pointers(rootChange.getChanged()));
+    }
+
+    @Test
+    public void testDiffInvalidInput() {
+        JsoncMapper mapper = new JsoncMapper();
+        assertThrows(JsonProcessingException.class, () -> mapper.diff("{}", "{"));
+        assertThrows(JsonProcessingException.class, () -> mapper.diff("{}", "{} {}"));
+        assertThrows(JsonProcessingException.class, () -> mapper.diff("[1] 2", "[1]"));
+        assertThrows(IllegalArgumentException.class, () -> mapper.diff((String) null, "{}"));
+    }
+
+    private static List<String> pointers(List<JsonPointer> paths) {
+        List<String> result = new java.util.ArrayList<>();
+        for (JsonPointer path : paths) {
+            result.add(path.toString());
+        }
+        return result;
+    }
+
+    @Test
+    public void testReadAt() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowHexNumbers(true)
+                .build();
+        String jsonc = "{\n" +
+                "  \"metadata\": { \"items\": [1, 2, 3] }, // skipped\n" +
+                "  \"services\": {\n" +
+                "    \"auth\": { \"timeoutMs\": 0x3E8, \"hosts\": [\"a\", \"b\"] }\n" +
+                "  }\n" +
+                "}";
+        
+        assertEquals(Integer.valueOf(1000), mapper.readAt(jsonc, JsonPointer.compile("/services/auth/timeoutMs"), Integer.class));
+        assertEquals("b", mapper.readAt(jsonc, JsonPointer.compile("/services/auth/hosts/1"), String.class));
+        assertNull(mapper.readAt(jsonc, JsonPointer.compile("/services/db"), JsonNode.class));
+        
+        JsonPointer timeout = JsonPointer.compile("/services/auth/timeoutMs");
+        JsonPointer auth = JsonPointer.compile("/services/auth");
+        JsonPointer missing = JsonPointer.compile("/missing");
+        Map<JsonPointer, JsonNode> values = mapper.readAt(jsonc.getBytes("UTF-8"), JsonNode.class, timeout, missing, auth);
+        assertEquals(2, values.size());
+        assertEquals(java.util.Arrays.asList(timeout, auth), new java.util.ArrayList<>(values.keySet()));
+        assertEquals(1000, values.get(timeout).asInt());
+        assertEquals(2, values.get(auth).get("hosts").size());
+    }
+
+    @Test
+    public void testReadAtStopsAfterLastMatch() throws Exception {
+        JsoncMapper mapper = new JsoncMapper();
+        // The trailing garbage is never reached once both pointers are found
+        String jsonc = "{ \"a\": 1, \"b\": { \"c\": true }, \"rest\": [ !!! ";
+        
+        Map<JsonPointer, Object> values = mapper.readAt(new StringReader(jsonc), Object.class,
+                JsonPointer.compile("/b/c"), JsonPointer.compile("/a"));
+        assertEquals(Boolean.TRUE, values.get(JsonPointer.compile("/b/c")));
+        assertEquals(Integer.valueOf(1), values.get(JsonPointer.compile("/a")));
+        
+        assertThrows(JsonProcessingException.class,
+                () -> mapper.readAt(jsonc, JsonPointer.compile("/missing"), Object.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> mapper.readAt("{}", (JsonPointer) null, Object.class));
+    }
+
+    @Test
+    public void testReadTreeWithProjection() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowTrailingCommas(true)
+                .build();
+        String jsonc = "{\n" +
+                "  // inventory\n" +
+                "  \"name\": \"host-1\",\n" +
+                "  \"status\": { \"cpu\": 0.5, \"mem\": 0.25, },\n" +
+                "  \"disks\": [ { \"id\": \"sda\", \"size\": 100 }, { \"id\": \"sdb\", \"size\": 200 } ],\n" +
+                "  \"packages\": [\"a\", \"b\", \"c\"],\n" +
+                "}";
+        
+        JsonNode included = mapper.readTree(jsonc, JsoncProjection.include("/name", "/status/cpu", "/disks/1/id"));
+        assertEquals("{\"name\":\"host-1\",\"status\":{\"cpu\":0.5},\"disks\":[{\"id\":\"sdb\"}]}",
+                included.toString());
+        
+        JsonNode excluded = mapper.readTree(jsonc.getBytes("UTF-8"), JsoncProjection.exclude("/packages", "/status/mem"));
+        assertEquals("{\"name\":\"host-1\",\"status\":{\"cpu\":0.5},\"disks\":[{\"id\":\"sda\",\"size\":100},{\"id\":\"sdb\",\"size\":200}]}",
+                excluded.toString());
+        
+        assertTrue(mapper.readTree(jsonc, JsoncProjection.include("/missing")).isMissingNode());
+    }
+
+    @Test
+    public void testReadValueWithProjection() throws Exception {
+        JsoncMapper mapper = new JsoncMapper();
+        String jsonc = "{ /* c */ \"extra\": { \"big\": [1, 2, 3] }, \"key\": \"test\", \"key2\": \"dropped\" }";
+        
+        MyClassWithTwoKeys result = mapper.readValue(new StringReader(jsonc), JsoncProjection.include("/key"), MyClassWithTwoKeys.class);
+        assertEquals("test", result.getKey());
+        assertNull(result.getKey2());
+        
+        assertThrows(IllegalArgumentException.class, () -> JsoncProjection.include("no-slash"));
+        assertThrows(IllegalArgumentException.class, () -> mapper.readTree(jsonc, (com.fasterxml.jackson.core.filter.TokenFilter) null));
+    }
+
+    @Test
+    public void testReadTreeLazily() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowTrailingCommas(true)
+                .allowSingleQuotes(true)
+                .allowHexNumbers(true)
+                .build();
+        String jsonc = "{\n" +
+                "  // header\n" +
+                "  \"name\": 'lazy', \"count\": 0x10, \"ratio\": 1.5e3/* c */,\n" +
+                "  \"big\": 12345678901234567890, \"long\": 9876543210, \"neg\":-1,\n" +
+                "  \"esc\\u0041pe\": \"a\\\"b\", \"flags\": [true,false,null,],\n" +
+                "  \"nested\": { \"list\": [[1, 2], {\"k\": \"v\"}], \"empty\": {} },\n" +
+                "}";
+        
+        JsonNode lazy = mapper.readTreeLazily(jsonc);
+        assertEquals("v", lazy.at("/nested/list/1/k").asText());
+        assertEquals(16, lazy.get("count").intValue());
+        assertEquals("a\"b", lazy.get("escApe").asText());
+        assertTrue(lazy.get("big").isBigInteger());
+        assertTrue(lazy.get("long").isLong());
+        assertEquals(-1, lazy.get("neg").intValue());
+        assertEquals(1500.0, lazy.get("ratio").doubleValue(), 0.0);
+        assertTrue(lazy.path("missing").isMissingNode());
+        
+        assertEquals(mapper.readTree(jsonc), lazy);
+        assertEquals(mapper.readTree(jsonc).toString(), mapper.readTreeLazily(jsonc.getBytes("UTF-8")).toString());
+    }
+
+    @Test
+    public void testReadTreeLazilyMutationAndDuplicates() throws Exception {
+        JsoncMapper mapper = new JsoncMapper();
+        JsonNode lazy = mapper.readTreeLazily(new StringReader("{ \"a\": 1, \"b\": [1, 2, 3], \"a\": 2 }"));
+        assertEquals(2, lazy.size());
+        assertEquals(2, lazy.get("a").intValue());
+        assertEquals("{\"a\":2,\"b\":[1,2,3]}", lazy.toString());
+        
+        com.fasterxml.jackson.databind.node.ObjectNode object = (com.fasterxml.jackson.databind.node.ObjectNode) lazy;
+        object.put("c", "new");
+        object.remove("a");
+        ((com.fasterxml.jackson.databind.node.ArrayNode) object.get("b")).add(4).remove(0);
+        assertEquals("{\"b\":[2,3,4],\"c\":\"new\"}", object.toString());
+        
+        assertTrue(mapper.readTreeLazily("").isMissingNode());
+        assertEquals(42, mapper.readTreeLazily(" 42 ").intValue());
+        assertThrows(JsonProcessingException.class, () -> mapper.readTreeLazily("{ \"a\": [1, }"));
+    }
+
+    @Test
+    public void testOffsetIndex(@TempDir Path tempDir) throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowHexNumbers(true)
+                .build();
+        StringBuilder jsonc = new StringBuilder("{\n  // fixture \u65e5\u672c\n  \"items\": [\n");
+        for (int i = 0; i < 200; i++) {
+            jsonc.append("    { \"id\": ").append(i).append(", \"name\": \"item-").append(i).append("\" },\n");
+        }
+        jsonc.append("    { \"id\": 0xFF, \"tags\": [\"x\", \"y\"] }\n  ],\n");
+        jsonc.append("  \"dup\": 1, \"esc\\u0041\": true, \"dup\": 2\n}");
+        Path source = tempDir.resolve("fixture.jsonc");
+        Path indexFile = tempDir.resolve("fixture.jsonc.idx");
+        java.nio.file.Files.write(source, jsonc.toString().getBytes("UTF-8"));
+        
+        mapper.buildOffsetIndex(source, indexFile);
+        try (JsoncOffsetIndex index = mapper.openOffsetIndex(source, indexFile)) {
+            assertEquals("item-42", index.readAt(JsonPointer.compile("/items/42/name"), String.class));
+            assertEquals(Integer.valueOf(255), index.readAt(JsonPointer.compile("/items/200/id"), Integer.class));
+            assertEquals("[\"x\",\"y\"]", index.readTreeAt(JsonPointer.compile("/items/200/tags")).toString());
+            assertEquals(Integer.valueOf(2), index.readAt(JsonPointer.compile("/dup"), Integer.class));
+            assertEquals(Boolean.TRUE, index.readAt(JsonPointer.compile("/escA"), Boolean.class));
+            assertNull(index.readAt(JsonPointer.compile("/items/201"), Object.class));
+            assertTrue(index.readTreeAt(JsonPointer.compile("/items/0/missing")).isMissingNode());
+            assertEquals(201, index.readTreeAt(JsonPointer.compile("/items")).size());
+            assertTrue(index.verifySource());
+        }
+        
+        java.nio.file.Files.write(source, "{}".getBytes("UTF-8"));
+        assertThrows(IOException.class, () -> mapper.openOffsetIndex(source, indexFile));
+    }
+
+    @Test
+    public void testOffsetIndexWithWideHexNumbers(@TempDir Path tempDir) throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowHexNumbers(true)
+                .allowSingleQuotes(true)
+                .build();
+        StringBuilder jsonc = new StringBuilder("{\n  // 0x10 in a comment\n  \"items\": [\n");
+        for (int i = 0; i < 400; i++) {
+            jsonc.append("    { \"wide\": 0xFFFFFFFFFFFF, \"id\": 0x").append(Integer.toHexString(i))
+                 .append(", 'text': '0x1 \u00e9' },\n");
+        }
+        jsonc.append("    0x7FFFFFFFFFFFFFFFFF\n  ],\n  \"last\": 0x1F\n}");
+        Path source = tempDir.resolve("wide.jsonc");
+        Path indexFile = tempDir.resolve("wide.jsonc.idx");
+        java.nio.file.Files.write(source, jsonc.toString().getBytes("UTF-8"));
+        
+        mapper.buildOffsetIndex(source, indexFile);
+        try (JsoncOffsetIndex index = mapper.openOffsetIndex(source, indexFile)) {
+            assertEquals(Long.valueOf(0xFFFFFFFFFFFFL), index.readAt(JsonPointer.compile("/items/399/wide"), Long.class));
+            assertEquals(Integer.valueOf(399), index.readAt(JsonPointer.compile("/items/399/id"), Integer.class));
+            assertEquals("0x1 \u00e9", index.readAt(JsonPointer.compile("/items/250/text"), String.class));
+            assertEquals(new java.math.BigInteger("7FFFFFFFFFFFFFFFFF", 16),
+                    index.readTreeAt(JsonPointer.compile("/items/400")).bigIntegerValue());
+            assertEquals(Integer.valueOf(31), index.readAt(JsonPointer.compile("/last"), Integer.class));
+            assertEquals(401, index.readTreeAt(JsonPointer.compile("/items")).size());
+        }
+    }
+
+    @Test
+    public void testLazyProperty() throws Exception {
+        JsoncMapper mapper = new JsoncMapper();
+        String jsonc = "{\n" +
+                "  \"name\": \"config\", // eager\n" +
+                "  \"template\": { /* deferred */ \"key\": \"a\", \"key2\": \"b\" },\n" +
+                "  \"items\": [1, 2, 3]\n" +
+                "}";
+        
+        LazyHolder holder = mapper.readValue(jsonc, LazyHolder.class);
+        assertEquals("config", holder.name);
+        assertFalse(holder.template.isResolved());
+        assertEquals("{\"name\":\"config\",\"template\":{\"key\":\"a\",\"key2\":\"b\"},\"items\":[1,2,3]}",
+                mapper.writeValueAsString(holder));
+        assertFalse(holder.template.isResolved());
+        
+        MyClassWithTwoKeys template = holder.template.get();
+        assertTrue(holder.template.isResolved());
+        assertEquals("a", template.getKey());
+        assertEquals("b", template.getKey2());
+        assertSame(template, holder.template.get());
+        assertEquals(java.util.Arrays.asList(1, 2, 3), holder.items.get());
+        
+        LazyHolder empty = mapper.readValue("{ \"template\": null }", LazyHolder.class);
+        assertNull(empty.template);
+        assertEquals("x", JsoncLazy.of("x").get());
+    }
+
+    @Test
+    public void testLazyPropertyBindingFailure() throws Exception {
+        JsoncMapper mapper = new JsoncMapper();
+        LazyHolder holder = mapper.readValue("{ \"template\": { \"unknown\": 1 } }", LazyHolder.class);
+        
+        assertThrows(java.io.UncheckedIOException.class, () -> holder.template.get());
+        assertFalse(holder.template.isResolved());
+    }
+
+    @Test
+    public void testLazyPropertyIsNotPreprocessedTwice() throws Exception {
+        // The rule's output contains its own trigger, so a second preprocessing would change it
+        JsoncRewriteRule chained = new JsoncRewriteRule() {
+            @Override
+            public char trigger() {
+                return '$';
+            }
+
+            @Override
+            public boolean appliesInStrings() {
+                return true;
+            }
+
+            @Override
+            public int rewrite(String input, int index, Output out) {
+                if (input.startsWith("${A}", index)) {
+                    out.append("${B}");
+                    return index + 4;
+                }
+                if (input.startsWith("${B}", index)) {
+                    out.append("resolved-B");
+                    return index + 4;
+                }
+                return -1;
+            }
+        };
+        JsoncMapper mapper = new JsoncMapper.Builder().addRewriteRule(chained).build();
+        String jsonc = "{ \"template\": { \"key\": \"${A}\" }, \"items\": [] }";
+        
+        assertEquals("${B}", mapper.readTree(jsonc).get("template").get("key").asText());
+        LazyHolder holder = mapper.readValue(jsonc, LazyHolder.class);
+        assertEquals("${B}", holder.template.get().getKey());
+    }
+
+    static class LazyHolder {
+        public String name;
+        public JsoncLazy<MyClassWithTwoKeys> template;
+        public JsoncLazy<List<Integer>> items;
+    }
+
+    @Test
+    public void testReadTreeCompact() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowTrailingCommas(true)
+                .build();
+        StringBuilder jsonc = new StringBuilder("{\n  // compact\n  \"ints\": [1, -2, 3],\n");
+        jsonc.append("  \"longs\": [1, 9876543210],\n  \"doubles\": [0.5, 1.25,],\n");
+        jsonc.append("  \"mixed\": [1, 2.5, \"x\", true, null, [], {}],\n  \"dup\": 1,\n");
+        for (int i = 0; i < 20; i++) {
+            jsonc.append("  \"k").append(i).append("\": { \"v\": ").append(i).append(" },\n");
+        }
+        jsonc.append("  \"dup\": 2\n}");
+        
+        JsonNode compact = mapper.readTreeCompact(jsonc.toString());
+        JsonNode regular = mapper.readTree(jsonc.toString());
+        assertEquals(regular, compact);
+        assertEquals(compact, regular);
+        assertEquals(regular.toString(), compact.toString());
+        assertEquals(regular.hashCode(), compact.hashCode());
+        
+        assertEquals(2, compact.get("dup").intValue());
+        assertEquals(17, compact.at("/k17/v").intValue());
+        assertTrue(compact.get("longs").get(1).isLong());
+        assertTrue(compact.get("longs").get(0).isInt());
+        assertEquals(1.25, compact.get("doubles").get(1).doubleValue(), 0.0);
+        assertSame(compact.at("/mixed/3"), mapper.readTreeCompact("[true]").get(0));
+        assertNull(compact.get("absent"));
+    }
+
+    @Test
+    public void testReadTreeCompactIsImmutable() throws Exception {
+        JsoncMapper mapper = new JsoncMapper();
+        JsonNode compact = mapper.readTreeCompact(new StringReader("{ \"a\": [1, 2], \"b\": { \"c\": \"d\" } }"));
+        
+        assertThrows(UnsupportedOperationException.class,
+                () -> ((com.fasterxml.jackson.databind.node.ObjectNode) compact).put("x", 1));
+        assertThrows(UnsupportedOperationException.class,
+                () -> ((com.fasterxml.jackson.databind.node.ArrayNode) compact.get("a")).add(3));
+        
+        com.fasterxml.jackson.databind.node.ObjectNode copy = (com.fasterxml.jackson.databind.node.ObjectNode) compact.deepCopy();
+        copy.put("x", 1);
+        assertEquals(3, copy.size());
+        assertTrue(mapper.readTreeCompact("").isMissingNode());
+    }
+
+    @Test
+    public void testCanonicalizedCompactTrees() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .canonicalizeTrees(true)
+                .build();
+        String shared = "\"defaults\": { \"timeoutMs\": 1000, \"hosts\": [\"a\", \"b\"], \"ratios\": [0.5, 1.5] }";
+        JsonNode tenantA = mapper.readTreeCompact("{ \"tenant\": \"a\", /* c */ " + shared + ", \"region\": \"eu-west\" }");
+        JsonNode tenantB = mapper.readTreeCompact("{\n  " + shared + ",\n  \"tenant\": \"b\",\n  \"region\": \"eu-west\"\n}");
+        
+        assertSame(tenantA.get("defaults"), tenantB.get("defaults"));
+        assertSame(tenantA.get("region"), tenantB.get("region"));
+        assertNotSame(tenantA.get("tenant"), tenantB.get("tenant"));
+        assertEquals(mapper.readTree("{ \"tenant\": \"a\", " + shared + ", \"region\": \"eu-west\" }"), tenantA);
+        
+        // Same members in a different order are not merged, so member order is preserved
+        JsonNode reordered = mapper.readTreeCompact("{ \"b\": 1, \"a\": 2 }");
+        assertEquals("{\"b\":1,\"a\":2}", reordered.toString());
+        assertEquals("{\"a\":2,\"b\":1}", mapper.readTreeCompact("{ \"a\": 2, \"b\": 1 }").toString());
+        
+        JsoncMapper plain = new JsoncMapper();
+        assertNotSame(plain.readTreeCompact("{\"x\": [\"y\"]}").get("x"), plain.readTreeCompact("{\"x\": [\"y\"]}").get("x"));
+    }
+
+    @Test
+    public void testReadPrimitiveArray() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowTrailingCommas(true)
+                .allowHexNumbers(true)
+                .build();
+        String json = "{\n"
+                + "  \"name\": \"sensor\", // comment\n"
+                + "  \"skipped\": { \"values\": [9, 9, 9] },\n"
+                + "  \"calibration\": {\n"
+                + "    \"offsets\": [1, -2, /* inline */ 0x10, 2147483647,],\n"
+                + "    \"weights\": [0.5, 2, -1.25e2]\n"
+                + "  }\n"
+                + "}";
+        
+        assertArrayEquals(new int[] {1, -2, 16, 2147483647},
+                mapper.readPrimitiveArray(json, JsonPointer.compile("/calibration/offsets"), int[].class));
+        assertArrayEquals(new long[] {1L, -2L, 16L, 2147483647L},
+                mapper.readPrimitiveArray(json.getBytes("UTF-8"), JsonPointer.compile("/calibration/offsets"), long[].class));
+        assertArrayEquals(new double[] {0.5, 2.0, -125.0},
+                mapper.readPrimitiveArray(new StringReader(json), JsonPointer.compile("/calibration/weights"), double[].class));
+        assertArrayEquals(new float[] {0.5f, 2.0f, -125.0f},
+                mapper.readPrimitiveArray(new ByteArrayInputStream(json.getBytes("UTF-8")), JsonPointer.compile("/calibration/weights"), float[].class));
+        assertNull(mapper.readPrimitiveArray(json, JsonPointer.compile("/calibration/missing"), int[].class));
+        
+        int[] large = new int[1000];
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < large.length; i++) {
+            large[i] = i * 7;
+            builder.append(large[i]).append(", // element\n");
+        }
+        assertArrayEquals(large, mapper.readPrimitiveArray(builder.append(']').toString(), int[].class));
+        assertEquals(0, mapper.readPrimitiveArray("[]", double[].class).length);
+        
+        assertThrows(JsonProcessingException.class, () -> mapper.readPrimitiveArray("[1, 2.5]", int[].class));
+        assertThrows(JsonProcessingException.class, () -> mapper.readPrimitiveArray("[1, null]", double[].class));
+        assertThrows(JsonProcessingException.class, () -> mapper.readPrimitiveArray("[2147483648]", int[].class));
+        assertThrows(JsonProcessingException.class, () -> mapper.readPrimitiveArray(json, JsonPointer.compile("/name"), int[].class));
+        assertThrows(IllegalArgumentException.class, () -> mapper.readPrimitiveArray("[1]", Integer[].class));
+        assertThrows(IllegalArgumentException.class, () -> mapper.readPrimitiveArray((String) null, int[].class));
+        assertThrows(IllegalArgumentException.class, () -> mapper.readPrimitiveArray("[1]", null, int[].class));
+    }
+
+    @Test
+    public void testCompactUntypedValues() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowTrailingCommas(true)
+                .compactUntypedValues(true)
+                .build();
+        StringBuilder members = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            members.append("\"k").append(i).append("\": ").append(i).append(", ");
+        }
+        String json = "{\n"
+                + "  // service settings\n"
+                + "  \"name\": \"config\",\n"
+                + "  \"ports\": [80, 443, 3000000000,],\n"
+                + "  \"limits\": { " + members + "\"k3\": \"dup\" },\n"
+                + "  \"empty\": {},\n"
+                + "}";
+        
+        Map<String, Object> map = mapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        assertEquals(mapper.readValue(json, Map.class), map);
+        assertEquals(new JsoncMapper.Builder().allowTrailingCommas(true).build().readValue(json, Map.class), map);
+        assertEquals(java.util.Arrays.asList("name", "ports", "limits", "empty"), new java.util.ArrayList<>(map.keySet()));
+        assertEquals(java.util.Arrays.asList(80, 443, 3000000000L), map.get("ports"));
+        
+        Map<?, ?> limits = (Map<?, ?>) map.get("limits");
+        assertEquals(20, limits.size());
+        assertEquals("dup", limits.get("k3"));
+        assertEquals(19, limits.get("k19"));
+        assertNull(limits.get("k20"));
+        assertEquals("k3", limits.keySet().toArray()[3]);
+        assertTrue(((Map<?, ?>) map.get("empty")).isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> map.put("x", 1));
+        assertThrows(UnsupportedOperationException.class, () -> ((List<?>) map.get("ports")).clear());
+        assertEquals(mapper.readTree(json), mapper.readTree(mapper.writeValueAsString(map)));
+        
+        Object untyped = mapper.readValue("[{\"a\": [1]}, 2]", Object.class);
+        assertEquals(java.util.Arrays.asList(java.util.Collections.singletonMap("a", java.util.Arrays.asList(1)), 2), untyped);
+        assertEquals(java.util.Arrays.asList("x", 2), mapper.readValue("[\"x\", 2]", List.class));
+        
+        // Concrete and typed targets keep Jackson's own collections
+        assertEquals(java.util.HashMap.class, mapper.readValue("{\"a\": 1}", java.util.HashMap.class).getClass());
+        Map<String, Integer> typed = mapper.readValue("{\"a\": 1}", new TypeReference<Map<String, Integer>>() {});
+        typed.put("b", 2);
+        assertEquals(2, typed.size());
+    }
+
+    @Test
+    public void testReadSnapshot() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowHexNumbers(true)
+                .build();
+        String json = "{\n"
+                + "  // request limits\n"
+                + "  \"limits\": { \"http\": { \"maxBodyBytes\": 0x100000, \"ratio\": 0.75, \"gzip\": true } },\n"
+                + "  \"servers\": [ { \"host\": \"a.example\" }, { \"host\": \"b.example\" } ],\n"
+                + "  \"a/b\": 1, \"c.d\": 2, \"empty\": null\n"
+                + "}";
+        JsoncSnapshot snapshot = mapper.readSnapshot(json);
+        
+        assertEquals(1048576L, snapshot.getLong("limits.http.maxBodyBytes", -1));
+        assertEquals(1048576L, snapshot.getLong("/limits/http/maxBodyBytes", -1));
+        assertEquals(0.75, snapshot.getDouble("limits.http.ratio", 0), 0.0);
+        assertEquals(1048576.0, snapshot.getDouble("limits.http.maxBodyBytes", 0), 0.0);
+        assertTrue(snapshot.getBoolean("limits.http.gzip", false));
+        assertEquals("b.example", snapshot.getString("servers.1.host", null));
+        assertEquals("a.example", snapshot.getString("/servers/0/host", null));
+        assertEquals(1, snapshot.getInt("/a~1b", 0));
+        assertEquals(1, snapshot.getInt("a/b", 0));
+        assertEquals(2, snapshot.getInt("/c.d", 0));
+        assertFalse(snapshot.has("c.d"));
+        
+        assertEquals(2, snapshot.sizeOf("servers"));
+        assertEquals(5, snapshot.sizeOf(""));
+        assertEquals(-1, snapshot.sizeOf("limits.http.gzip"));
+        assertEquals(com.fasterxml.jackson.databind.node.JsonNodeType.NULL, snapshot.getNodeType("empty"));
+        assertEquals(com.fasterxml.jackson.databind.node.JsonNodeType.OBJECT, snapshot.getNodeType("limits.http"));
+        assertNull(snapshot.getNodeType("limits.https"));
+        assertEquals(7, snapshot.getLong("limits.http.missing", 7));
+        assertEquals("fallback", snapshot.getString("limits.http.ratio", "fallback"));
+        assertEquals(14, snapshot.size());
+        
+        assertEquals(snapshot.getString("servers.0.host", null),
+                mapper.readSnapshot(new ByteArrayInputStream(json.getBytes("UTF-8"))).getString("servers.0.host", null));
+        assertEquals(0, mapper.readSnapshot("").size());
+        assertThrows(IllegalArgumentException.class, () -> snapshot.has(null));
+        assertThrows(IllegalArgumentException.class, () -> mapper.readSnapshot((String) null));
+    }
+
+    @Test
+    public void testSnapshotDuplicateNamesKeepLastValue() throws Exception {
+        JsoncMapper mapper = new JsoncMapper();
+        JsoncSnapshot snapshot = mapper.readSnapshot("{\"a\": {\"x\": 1, \"y\": [2]}, \"b\": 3, \"a\": 2}");
+        
+        assertEquals(2, snapshot.getInt("a", 0));
+        assertFalse(snapshot.has("a.x"));
+        assertFalse(snapshot.has("a.y.0"));
+        assertEquals(3, snapshot.getInt("b", 0));
+        assertEquals(2, snapshot.sizeOf(""));
+        assertEquals(3, snapshot.size());
+        
+        JsoncSnapshot nested = mapper.readSnapshot("{\"o\": {\"a\": 1, \"a\": {\"x\": 1}, \"a\": {\"z\": 2}}}");
+        assertFalse(nested.has("o.a.x"));
+        assertEquals(2, nested.getInt("o.a.z", 0));
+        assertEquals(1, nested.sizeOf("o"));
+        assertEquals(1, nested.sizeOf("o.a"));
+    }
+
+    @Test
+    public void testObjectReaderPreprocessesJsonc() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowTrailingCommas(true)
+                .allowSingleQuotes(true)
+                .build();
+        String json = "{\n  // comment\n  'key': 'value', /* block */\n  \"key2\": \"value2\",\n}";
+        
+        com.fasterxml.jackson.databind.ObjectReader reader = mapper.readerFor(MyClassWithTwoKeys.class);
+        MyClassWithTwoKeys fromString = reader.readValue(json);
+        assertEquals("value", fromString.getKey());
+        assertEquals("value2", fromString.getKey2());
+        MyClassWithTwoKeys fromBytes = reader.readValue(json.getBytes("UTF-8"));
+        assertEquals("value2", fromBytes.getKey2());
+        MyClassWithTwoKeys fromStream = reader.readValue(new ByteArrayInputStream(json.getBytes("UTF-8")));
+        assertEquals("value", fromStream.getKey());
+        
+        // Derived readers keep preprocessing
+        com.fasterxml.jackson.databind.ObjectReader derived = reader
+                .without(com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .forType(MyClass.class);
+        MyClass partial = derived.readValue(new StringReader(json));
+        assertEquals("value", partial.getKey());
+        assertEquals("value2", mapper.reader().at("/key2").readValue(json, String.class));
+        assertEquals("value", mapper.reader().readTree(json).get("key").asText());
+        
+        MyClassWithTwoKeys existing = new MyClassWithTwoKeys();
+        existing.setKey2("kept");
+        mapper.readerForUpdating(existing).readValue("{ 'key': 'updated' /* only key */ }");
+        assertEquals("updated", existing.getKey());
+        assertEquals("kept", existing.getKey2());
+        
+        List<Integer> values = new java.util.ArrayList<>();
+        try (com.fasterxml.jackson.databind.MappingIterator<Integer> iterator =
+                mapper.readerFor(Integer.class).readValues("1 // one\n2 /* two */ 3")) {
+            iterator.forEachRemaining(values::add);
+        }
+        assertEquals(java.util.Arrays.asList(1, 2, 3), values);
+    }
+
+    @Test
+    public void testCreateParserReadsJsonc() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowTrailingCommas(true)
+                .allowSingleQuotes(true)
+                .allowHexNumbers(true)
+                .build();
+        String json = "{\n  // comment\n  'key': 'value', /* block */\n  \"key2\": \"value2\",\n}";
+        
+        try (com.fasterxml.jackson.core.JsonParser parser = mapper.createParser(json)) {
+            MyClassWithTwoKeys value = mapper.readValue(parser, MyClassWithTwoKeys.class);
+            assertEquals("value", value.getKey());
+            assertEquals("value2", value.getKey2());
+        }
+        try (com.fasterxml.jackson.core.JsonParser parser = mapper.getFactory().createParser("[0x10, 0xff, /* c */ 3,]".getBytes("UTF-8"))) {
+            assertEquals(com.fasterxml.jackson.core.JsonToken.START_ARRAY, parser.nextToken());
+            assertEquals(com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT, parser.nextToken());
+            assertEquals(16, parser.getIntValue());
+            parser.nextToken();
+            assertEquals(255, parser.getIntValue());
+            parser.nextToken();
+            assertEquals(3, parser.getIntValue());
+            assertEquals(com.fasterxml.jackson.core.JsonToken.END_ARRAY, parser.nextToken());
+        }
+        JsonNode tree = mapper.readTree(mapper.createParser(new StringReader("{ 'a': [1, 0x2,], }")));
+        assertEquals(2, tree.get("a").get(1).asInt());
+        assertEquals("value2", mapper.treeToValue(mapper.readTree(json), MyClassWithTwoKeys.class).getKey2());
+    }
+
+    @Test
+    public void testMapperFeaturesReachItsFactory() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowHexNumbers(true)
+                .build();
+        assertSame(mapper.getFactory(), mapper.tokenStreamFactory());
+        
+        mapper.enable(com.fasterxml.jackson.core.JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+        assertTrue(mapper.getFactory().isEnabled(com.fasterxml.jackson.core.JsonParser.Feature.STRICT_DUPLICATE_DETECTION));
+        assertThrows(JsonProcessingException.class, () -> mapper.readTree("{ \"a\": 1, // c\n \"a\": 0x2 }"));
+        try (com.fasterxml.jackson.core.JsonParser parser = mapper.createParser("{ \"a\": 1, \"a\": 2 }")) {
+            assertThrows(JsonProcessingException.class, () -> mapper.readTree(parser));
+        }
+        
+        mapper.getFactory().enable(com.fasterxml.jackson.core.json.JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES.mappedFeature());
+        assertEquals(16, mapper.readTree("{ a: 0x10 }").get("a").intValue());
+        
+        mapper.enable(com.fasterxml.jackson.core.JsonGenerator.Feature.WRITE_NUMBERS_AS_STRINGS);
+        StringWriter writer = new StringWriter();
+        try (com.fasterxml.jackson.core.JsonGenerator generator = mapper.getFactory().createGenerator(writer)) {
+            generator.writeNumber(1);
+        }
+        assertEquals("\"1\"", writer.toString());
+    }
+
+    @Test
+    public void testCreateParserDetectsEncodingWithHexNumbers() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowHexNumbers(true)
+                .build();
+        String json = "{ \"n\": 0x10, // c\n \"s\": \"\u00e9\" }";
+        
+        for (String charset : new String[] {"UTF-8", "UTF-16BE", "UTF-16LE", "UTF-32BE"}) {
+            byte[] bytes = json.getBytes(charset);
+            try (com.fasterxml.jackson.core.JsonParser parser = mapper.createParser(bytes)) {
+                JsonNode tree = mapper.readTree(parser);
+                assertEquals(16, tree.get("n").intValue(), charset);
+                assertEquals("\u00e9", tree.get("s").textValue(), charset);
+            }
+            try (com.fasterxml.jackson.core.JsonParser parser = mapper.createParser(new java.io.ByteArrayInputStream(bytes))) {
+                JsonNode tree = mapper.readTree(parser);
+                assertEquals(16, tree.get("n").intValue(), charset);
+            }
+        }
+    }
+
+    @Test
+    public void testReadSlicesAndBuffers() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowTrailingCommas(true)
+                .allowSingleQuotes(true)
+                .build();
+        String body = "{ // comment\n 'key': 'value', \"key2\": \"value2\", }";
+        String framed = "HDR" + body + "TRAILER";
+        byte[] bytes = framed.getBytes("UTF-8");
+        
+        MyClassWithTwoKeys fromBytes = mapper.readValue(bytes, 3, body.length(), MyClassWithTwoKeys.class);
+        assertEquals("value", fromBytes.getKey());
+        assertEquals("value2", mapper.readTree(bytes, 3, body.length()).get("key2").asText());
+        
+        MyClassWithTwoKeys fromChars = mapper.readValue(framed.toCharArray(), 3, body.length(), MyClassWithTwoKeys.class);
+        assertEquals("value2", fromChars.getKey2());
+        
+        java.nio.CharBuffer chars = java.nio.CharBuffer.wrap(framed, 3, 3 + body.length());
+        assertEquals("value", mapper.readValue(chars, MyClassWithTwoKeys.class).getKey());
+        assertEquals("value2", mapper.readTree(new StringBuilder(body)).get("key2").asText());
+        
+        java.nio.ByteBuffer heap = java.nio.ByteBuffer.wrap(bytes, 3, body.length()).slice();
+        assertEquals("value", mapper.readValue(heap, MyClassWithTwoKeys.class).getKey());
+        java.nio.ByteBuffer direct = java.nio.ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).position(3).limit(3 + body.length());
+        Map<String, String> map = mapper.readValue(direct, new TypeReference<Map<String, String>>() {});
+        assertEquals("value2", map.get("key2"));
+        assertEquals(3, direct.position());
+        
+        assertThrows(IllegalArgumentException.class, () -> mapper.readValue(bytes, 5, bytes.length, MyClass.class));
+        assertThrows(IllegalArgumentException.class, () -> mapper.readValue((java.nio.ByteBuffer) null, MyClass.class));
+        
+        char[] invalid = "HDR{ // comment\n  'key': }".toCharArray();
+        JsonProcessingException error = assertThrows(JsonProcessingException.class,
+                () -> mapper.readTree(invalid, 3, invalid.length - 3));
+        assertEquals(2, error.getLocation().getLineNr());
+        
+        JsoncMapper hex = new JsoncMapper.Builder()
+                .allowHexNumbers(true)
+                .allowMultilineStrings(true)
+                .build();
+        byte[] converted = "HDR{ \"n\": 0x10, /* c */ \"s\": \"a\nb\" }TRAILER".getBytes("UTF-8");
+        JsonNode tree = hex.readTree(converted, 3, converted.length - 10);
+        assertEquals(16, tree.get("n").intValue());
+        assertEquals("a\nb", tree.get("s").asText());
+        assertEquals(tree, hex.readTree(java.nio.CharBuffer.wrap(new String(converted, "UTF-8").toCharArray(), 3, converted.length - 10)));
+    }
+
+    @Test
+    public void testOffHeapPreprocessing() throws Exception {
+        StringBuilder json = new StringBuilder("{ // header\n \"items\": [");
+        for (int i = 0; i < 5000; i++) {
+            json.append("\n  /* item */ {\"id\": ").append(i).append(", \"name\": \"café あ 😀 ").append(i).append("\"},");
+        }
+        json.append("\n ],\n}");
+        String content = json.toString();
+        
+        JsoncMapper heap = new JsoncMapper.Builder().allowTrailingCommas(true).build();
+        JsoncMapper offHeap = new JsoncMapper.Builder().allowTrailingCommas(true).offHeapPreprocessing(true).build();
+        assertEquals(heap.readTree(content), offHeap.readTree(content));
+        Map<String, List<Map<String, Object>>> value = offHeap.readValue(content.getBytes("UTF-8"),
+                new TypeReference<Map<String, List<Map<String, Object>>>>() {});
+        assertEquals(5000, value.get("items").size());
+        assertEquals("café あ 😀 4999", value.get("items").get(4999).get("name"));
+        
+        JsoncMapper minifying = new JsoncMapper.Builder().minify(true).offHeapPreprocessing(true).build();
+        assertEquals("b", minifying.readValue("{ \"key\" : /* c */ \"b\" }", MyClass.class).getKey());
+        assertEquals(heap.readTree("[1, 2 // two\n]"), minifying.readTree("[1, 2 // two\n]"));
+        assertThrows(JsonProcessingException.class, () -> offHeap.readTree("{ \"a\": }"));
+        
+        DirectBufferArena arena = new DirectBufferArena();
+        java.nio.ByteBuffer buffer = arena.acquire(100);
+        assertTrue(buffer.isDirect());
+        assertEquals(1 << 16, buffer.capacity());
+        arena.release(buffer);
+        assertSame(buffer, arena.acquire(1 << 16));
+    }
+
+    @Test
+    public void testPreprocessOnceReadMany() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowTrailingCommas(true)
+                .allowSingleQuotes(true)
+                .build();
+        PreprocessedJsonc message = mapper.preprocess("{\n  // comment\n  'key': 'value', /* block */\n  \"key2\": \"café\",\n}");
+        
+        assertEquals("value", message.readTree().get("key").asText());
+        MyClassWithTwoKeys value = message.readValue(MyClassWithTwoKeys.class);
+        assertEquals("café", value.getKey2());
+        Map<String, String> map = message.readValue(new TypeReference<Map<String, String>>() {});
+        assertEquals(2, map.size());
+        assertTrue(message.validate().isValid());
+        assertEquals(message.getContent().getBytes("UTF-8").length, message.size());
+        
+        PreprocessedJsonc fromStream = mapper.preprocess(new ByteArrayInputStream("[1, 2, // c\n]".getBytes("UTF-8")));
+        assertEquals("[1, 2 \n]", fromStream.getContent());
+        
+        JsoncValidationResult invalid = mapper.preprocess("{ /* c */ \"a\": }").validate();
+        assertFalse(invalid.isValid());
+        assertEquals(1, invalid.getLine());
+        assertThrows(JsonProcessingException.class, () -> mapper.preprocess("{ \"a\": }").readTree());
+        assertThrows(IllegalArgumentException.class, () -> mapper.preprocess((String) null));
+    }
+
+    @Test
+    public void testPreprocessToWriter(@TempDir Path tempDir) throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowTrailingCommas(true)
+                .allowSingleQuotes(true)
+                .build();
+        StringBuilder jsonc = new StringBuilder("[\n");
+        for (int i = 0; i < 2000; i++) {
+            jsonc.append("  { 'id': ").append(i).append(" }, // item\n");
+        }
+        jsonc.append("]");
+        Path source = tempDir.resolve("items.jsonc");
+        java.nio.file.Files.write(source, jsonc.toString().getBytes("UTF-8"));
+        
+        StringWriter writer = new StringWriter();
+        mapper.preprocess(source, writer);
+        assertEquals(mapper.preprocess(source).getContent(), writer.toString());
+        assertEquals(2000, mapper.readTree(writer.toString()).size());
+        assertThrows(IllegalArgumentException.class, () -> mapper.preprocess(source, null));
+        assertThrows(IllegalArgumentException.class, () -> mapper.preprocess((Path) null, writer));
+    }
+
+    @Test
+    public void testLazyAndCompactTreesReadInfinityAndNaN() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .allowInfinityAndNaN(true)
+                .allowPlusNumbers(true)
+                .build();
+        String jsonc = "{ \"inf\": Infinity, \"nan\": NaN, // c\n"
+                + " \"values\": [1.5, -Infinity, NaN, +Infinity], \"mixed\": [1, NaN] }";
+        
+        JsonNode tree = mapper.readTree(jsonc);
+        assertEquals(Double.POSITIVE_INFINITY, tree.get("inf").doubleValue());
+        assertEquals(tree, mapper.readTreeLazily(jsonc));
+        assertEquals(tree.toString(), mapper.readTreeLazily(jsonc).toString());
+        assertEquals(tree, mapper.readTreeCompact(jsonc));
+        assertEquals(tree.toString(), mapper.readTreeCompact(jsonc).toString());
+        assertTrue(mapper.readTreeCompact(jsonc).at("/values/2").isDouble());
+        
+        JsoncMapper bigDecimals = new JsoncMapper.Builder()
+                .allowInfinityAndNaN(true)
+                .build();
+        bigDecimals.enable(com.fasterxml.jackson.databind.DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        String values = "[1.5, NaN, -Infinity]";
+        for (JsonNode node : java.util.Arrays.asList(bigDecimals.readTreeLazily(values), bigDecimals.readTreeCompact(values))) {
+            assertTrue(node.get(0).isBigDecimal());
+            assertTrue(Double.isNaN(node.get(1).doubleValue()));
+            assertEquals(Double.NEGATIVE_INFINITY, node.get(2).doubleValue());
+        }
+    }
+    
+    @Test
+    public void testNumericLiteralsKeepTheirValues() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .enableJson5Features(true)
+                .build();
+        String json5 = "{ 'wide': 0xFFFFFFFFFFFFFFFF, 'long': 0x7FFFFFFFFFFFFFFF, 'plus': +1.5e2,\n"
+                + " 'inf': +Infinity, 'negInf': -Infinity, 'nan': NaN, }";
+        
+        Map<String, Object> result = mapper.readValue(json5, new TypeReference<Map<String, Object>>() {});
+        assertEquals(new java.math.BigInteger("18446744073709551615"), result.get("wide"));
+        assertEquals(Long.MAX_VALUE, result.get("long"));
+        assertEquals(150.0, result.get("plus"));
+        assertEquals(Double.POSITIVE_INFINITY, result.get("inf"));
+        assertEquals(Double.NEGATIVE_INFINITY, result.get("negInf"));
+        
+        JsonNode tree = mapper.readTree(json5);
+        assertTrue(tree.get("wide").isBigInteger());
+        assertTrue(Double.isNaN(tree.get("nan").doubleValue()));
+        assertEquals(tree, mapper.preprocess(json5).readTree());
+        
+        try (com.fasterxml.jackson.core.JsonParser parser = mapper.createParser("[0x1FFFFFFFFFFFFFFFF]")) {
+            parser.nextToken();
+            assertEquals(com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT, parser.nextToken());
+            assertEquals(new java.math.BigInteger("1FFFFFFFFFFFFFFFF", 16), parser.getBigIntegerValue());
+        }
+    }
+
+    @Test
+    public void testPreprocessorPerFeatureCombination() throws Exception {
+        String jsonc = "{ // comment\n  \"list\": [\"x\", \"y\", /* c */],\n  \"obj\": { \"a\": 1, },\n}";
+        JsonNode expected = new JsoncMapper().readTree("{ \"list\": [\"x\", \"y\"], \"obj\": { \"a\": 1 } }");
+        
+        assertEquals(expected, new JsoncMapper.Builder().allowTrailingCommas(true).build().readTree(jsonc));
+        assertEquals(expected, new JsoncMapper.Builder().allowTrailingCommas(true).minify(true).build().readTree(jsonc));
+        assertEquals(expected, new JsoncMapper.Builder().allowTrailingCommas(true).allowHexNumbers(true)
+                .build().readTree(jsonc.replace("1", "0x1")));
+        assertEquals(expected, new JsoncMapper.Builder().enableJson5Features(true).minify(true)
+                .build().readTree(jsonc.replace("\"x\"", "'x'")));
+        
+        JsoncMapper minifying = new JsoncMapper.Builder().allowTrailingCommas(true).minify(true).build();
+        assertEquals("{\"list\":[\"x\",\"y\"],\"obj\":{\"a\":1}}", minifying.preprocess(jsonc).getContent());
+        assertEquals("[1 2]", minifying.preprocess("[1 /* c */ 2]").getContent());
+    }
+
+    @Test
+    public void testRewriteRulesRunInCommentScan() throws Exception {
+        JsoncRewriteRule hashComments = new JsoncRewriteRule() {
+            @Override
+            public char trigger() {
+                return '#';
+            }
+
+            @Override
+            public int rewrite(String input, int index, Output out) {
+                int end = index;
+                while (end < input.length() && input.charAt(end) != '\n') {
+                    end++;
+                }
+                return end;
+            }
+        };
+        JsoncRewriteRule properties = new JsoncRewriteRule() {
+            @Override
+            public char trigger() {
+                return '$';
+            }
+
+            @Override
+            public boolean appliesInStrings() {
+                return true;
+            }
+
+            @Override
+            public int rewrite(String input, int index, Output out) {
+                int end = input.indexOf('}', index);
+                if (index + 1 >= input.length() || input.charAt(index + 1) != '{' || end < 0) {
+                    return -1;
+                }
+                out.append(System.getProperty(input.substring(index + 2, end), ""));
+                return end + 1;
+            }
+        };
+        System.setProperty("jsonc.test.host", "example.org");
+        try {
+            String jsonc = "{ # vendor comment\n \"key\": \"${jsonc.test.host}\", // c\n \"key2\": \"$5 #1\", }";
+            JsoncMapper mapper = new JsoncMapper.Builder()
+                    .allowTrailingCommas(true)
+                    .addRewriteRule(hashComments)
+                    .addRewriteRule(properties)
+                    .build();
+            MyClassWithTwoKeys value = mapper.readValue(jsonc, MyClassWithTwoKeys.class);
+            assertEquals("example.org", value.getKey());
+            assertEquals("$5 #1", value.getKey2());
+            
+            JsoncMapper json5 = new JsoncMapper.Builder()
+                    .enableJson5Features(true)
+                    .addRewriteRule(hashComments)
+                    .addRewriteRule(properties)
+                    .build();
+            Map<String, Object> map = json5.readValue("{ 'host': '${jsonc.test.host}', # c\n 'n': 0x10, }",
+                    new TypeReference<Map<String, Object>>() {});
+            assertEquals("example.org", map.get("host"));
+            assertEquals(16, map.get("n"));
+        } finally {
+            System.clearProperty("jsonc.test.host");
+        }
+        assertThrows(IllegalArgumentException.class, () -> new JsoncMapper.Builder().addRewriteRule(null));
+    }
+
+    @Test
+    public void testRewriteRulesApplyToStreamingReads(@TempDir Path tempDir) throws Exception {
+        JsoncRewriteRule hashComments = new JsoncRewriteRule() {
+            @Override
+            public char trigger() {
+                return '#';
+            }
+
+            @Override
+            public int rewrite(String input, int index, Output out) {
+                int end = index;
+                while (end < input.length() && input.charAt(end) != '\n') {
+                    end++;
+                }
+                return end;
+            }
+        };
+        // Not idempotent, so content preprocessed twice would show it
+        JsoncRewriteRule doubleDollar = new JsoncRewriteRule() {
+            @Override
+            public char trigger() {
+                return '$';
+            }
+
+            @Override
+            public boolean appliesInStrings() {
+                return true;
+            }
+
+            @Override
+            public int rewrite(String input, int index, Output out) {
+                out.append("$$");
+                return index + 1;
+            }
+        };
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .enableJson5Features(true)
+                .addRewriteRule(hashComments)
+                .addRewriteRule(doubleDollar)
+                .build();
+        String jsonc = "{ # vendor comment\n \"a\": { \"n\": 0x10, \"s\": '$' }, # c\n \"b\": [1, 2,], }";
+        JsonNode expected = new JsoncMapper().readTree("{ \"a\": { \"n\": 16, \"s\": \"$$\" }, \"b\": [1, 2] }");
+        byte[] bytes = jsonc.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        
+        assertEquals(expected, mapper.readTree(jsonc));
+        assertTrue(mapper.validate(jsonc).isValid());
+        assertTrue(mapper.validate(new ByteArrayInputStream(bytes)).isValid());
+        assertEquals(expected.get("a"), mapper.readTree(jsonc, JsoncProjection.include("/a")).get("a"));
+        assertEquals(expected.get("a"), mapper.readTree(bytes, JsoncProjection.include("/a")).get("a"));
+        assertEquals("$$", mapper.readAt(jsonc, JsonPointer.compile("/a/s"), String.class));
+        assertArrayEquals(new int[] { 1, 2 }, mapper.readPrimitiveArray(jsonc, JsonPointer.compile("/b"), int[].class));
+        assertEquals(new JsoncMapper().fingerprint(expected.toString()), mapper.fingerprint(new StringReader(jsonc)));
+        assertEquals(expected, mapper.readTreeLazily(jsonc));
+        assertEquals(expected, mapper.readTreeCompact(jsonc));
+        assertEquals(16, mapper.readSnapshot(jsonc).getInt("a.n", 0));
+        assertEquals(expected, mapper.readTree(mapper.createParser(bytes)));
+        assertEquals(expected, mapper.readTree(mapper.getFactory().createParser(new StringReader(jsonc))));
+        assertEquals(expected, mapper.readerFor(JsonNode.class).readValue(jsonc));
+        assertEquals(expected, mapper.preprocess(jsonc).readTree());
+        
+        Path source = tempDir.resolve("rules.jsonc");
+        java.nio.file.Files.write(source, bytes);
+        assertThrows(UnsupportedOperationException.class,
+                () -> mapper.buildOffsetIndex(source, tempDir.resolve("rules.idx")));
+    }
+
+    @Test
+    public void testParallelPreprocessing() throws Exception {
+        StringBuilder jsonc = new StringBuilder("[\n");
+        int count = 0;
+        while (jsonc.length() < 1 << 20) {
+            jsonc.append("  { \"id\": ").append(count++).append(", /* c */ \"s\": \"// x\", }, // row\n");
+        }
+        jsonc.append("]");
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        try {
+            JsoncMapper parallel = new JsoncMapper.Builder()
+                    .allowTrailingCommas(true)
+                    .parallelPreprocessing(pool)
+                    .build();
+            JsoncMapper sequential = new JsoncMapper.Builder().allowTrailingCommas(true).build();
+            JsonNode tree = parallel.readTree(jsonc.toString());
+            assertEquals(count, tree.size());
+            assertEquals(count - 1, tree.get(count - 1).get("id").asInt());
+            assertEquals(sequential.readTree(jsonc.toString()), tree);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testLexerReportsTokensWithPositions() throws Exception {
+        String jsonc = "// header\n{ \"a\": [1, -2.5e3, 0x1F, true, null], /* block */ b: 'x\\'y', \"s\": \"// no\", }";
+        StringBuilder events = new StringBuilder();
+        JsoncTokenHandler recorder = new JsoncTokenHandler() {
+            @Override
+            public void startObject(int offset) {
+                events.append("{@").append(offset).append(' ');
+            }
+
+            @Override
+            public void endObject(int offset) {
+                events.append("}@").append(offset).append(' ');
+            }
+
+            @Override
+            public void startArray(int offset) {
+                events.append("[ ");
+            }
+
+            @Override
+            public void endArray(int offset) {
+                events.append("] ");
+            }
+
+            @Override
+            public void key(int offset, int length) {
+                events.append("K").append(offset).append('+').append(length).append(' ');
+            }
+
+            @Override
+            public void string(int offset, int length) {
+                events.append("S").append(offset).append('+').append(length).append(' ');
+            }
+
+            @Override
+            public void number(int offset, int length) {
+                events.append("N").append(length).append(' ');
+            }
+
+            @Override
+            public void literal(int offset, int length) {
+                events.append("L").append(length).append(' ');
+            }
+
+            @Override
+            public void comma(int offset) {
+                events.append(", ");
+            }
+
+            @Override
+            public void comment(int offset, int length, boolean block) {
+                events.append(block ? "B" : "C").append(offset).append('+').append(length).append(' ');
+            }
+
+            @Override
+            public void invalid(int offset, int length) {
+                events.append("!").append(offset).append(' ');
+            }
+        };
+
+        JsoncLexer lexer = new JsoncLexer();
+        char[] chars = jsonc.toCharArray();
+        lexer.lex(chars, 0, chars.length, recorder);
+        String fromChars = events.toString();
+        assertEquals("C0+9 {@10 K12+3 [ N1 , N6 , N4 , L4 , L4 ] , B48+11 K60+1 S63+6 , K71+3 S76+7 , }@85 ",
+                     fromChars);
+
+        events.setLength(0);
+        byte[] bytes = jsonc.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        lexer.lex(bytes, 0, bytes.length, recorder);
+        assertEquals(fromChars, events.toString());
+
+        events.setLength(0);
+        lexer.lex(new java.io.StringReader(jsonc), recorder);
+        assertEquals(fromChars, events.toString());
+
+        // Tokens straddling buffer refills, including a comment longer than the initial buffer
+        StringBuilder large = new StringBuilder("[");
+        for (int i = 0; i < 3000; i++) {
+            large.append("{\"k\": \"v").append(i).append("\"}, // row\n");
+        }
+        large.append("/*");
+        for (int i = 0; i < 20000; i++) {
+            large.append('*');
+        }
+        large.append("*/ 1]");
+        char[] largeChars = large.toString().toCharArray();
+        long[] sums = new long[2];
+        JsoncTokenHandler positions = new JsoncTokenHandler() {
+            int pass;
+
+            @Override
+            public void key(int offset, int length) {
+                sums[pass] += offset + (pass == 1 ? lexer.getBufferPosition() : 0);
+            }
+
+            @Override
+            public void comment(int offset, int length, boolean block) {
+                sums[pass] += 31L * length;
+            }
+
+            @Override
+            public void endArray(int offset) {
+                pass = 1;
+            }
+        };
+        lexer.lex(largeChars, 0, largeChars.length, positions);
+        lexer.lex(new java.io.StringReader(large.toString()), positions);
+        assertEquals(sums[0], sums[1]);
+        assertTrue(lexer.getBufferPosition() > 0);
+
+        events.setLength(0);
+        lexer.lex("[1 # \"open".toCharArray(), 0, 10, recorder);
+        assertEquals("[ N1 !3 !5 ", events.toString());
+        assertThrows(IllegalArgumentException.class, () -> lexer.lex(chars, 5, chars.length, recorder));
+        assertThrows(IllegalArgumentException.class, () -> lexer.lex((java.io.Reader) null, recorder));
+    }
+
+    @Test
+    public void testMapperSurvivesJavaSerialization() throws Exception {
+        JsoncMapper mapper = new JsoncMapper.Builder()
+                .enableJson5Features(true)
+                .minify(true)
+                .canonicalizeTrees(true)
+                .compactUntypedValues(true)
+                .offHeapPreprocessing(true)
+                .parallelPreprocessing(true)
+                .build();
+        String jsonc = "{ // comment\n 'key': 'value', \"n\": 0x10, \"list\": [1, 2,], }";
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(mapper);
+        }
+        JsoncMapper copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (JsoncMapper) in.readObject();
+        }
+        
+        assertEquals(mapper.readTree(jsonc), copy.readTree(jsonc));
+        assertEquals(mapper.preprocess(jsonc).getContent(), copy.preprocess(jsonc).getContent());
+        assertSame(copy.readTreeCompact("[\"a\"]").get(0), copy.readTreeCompact("{ \"b\": \"a\" }").get("b"));
+        assertEquals(16, copy.readValue(jsonc, Map.class).get("n"));
+        
+        JsoncMapper plain = new JsoncMapper();
+        bytes.reset();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(plain);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals("value", ((JsoncMapper) in.readObject()).readValue("{ /* c */ \"key\": \"value\" }", MyClass.class).getKey());
+        }
+    }
+
     static class MyClass {
         private String key;
         public String getKey() { return key; }
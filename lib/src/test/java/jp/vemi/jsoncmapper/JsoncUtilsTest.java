@@ -318,6 +318,15 @@ public class JsoncUtilsTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    public void testCommaBeforeLastStringIsKept() {
+        // The look-ahead stops at the string, so brackets after or inside it are not considered
+        assertEquals("[\"x\", \"y\"]", JsoncUtils.removeTrailingCommas("[\"x\", \"y\"]"));
+        assertEquals("[1, \"]\"]", JsoncUtils.removeTrailingCommas("[1, \"]\"]"));
+        assertEquals("[1, /* c */ \"]\"]", JsoncUtils.removeTrailingCommas("[1, /* c */ \"]\"]"));
+        assertEquals("[1, \n \"]\"]", JsoncUtils.removeCommentsAndTrailingCommas("[1, // c\n \"]\"]"));
+    }
+
     @Test
     public void testNoTrailingCommas() {
         String jsonc = "{ \"key1\": \"value1\", \"key2\": \"value2\" }";
@@ -376,6 +385,12 @@ public class JsoncUtilsTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    public void testRemoveCommentsAndTrailingCommasBeforeStrings() {
+        String jsonc = "[\"x\", /* c */ \"y\", // z\n]";
+        assertEquals("[\"x\",  \"y\" \n]", JsoncUtils.removeCommentsAndTrailingCommas(jsonc));
+    }
+
     @Test
     public void testCombinedComplexExample() {
         String jsonc = "{\n" +
@@ -494,6 +509,13 @@ public class JsoncUtilsTest {
         assertEquals(expected, result);
     }
     
+    @Test
+    public void testConvertHexNumbersWiderThanLong() {
+        String json5 = "[0x7FFFFFFFFFFFFFFF, 0xFFFFFFFFFFFFFFFF, 0x000000000000000000FF, -0x10000000000000000]";
+        String expected = "[9223372036854775807, 18446744073709551615, 255, -18446744073709551616]";
+        assertEquals(expected, JsoncUtils.convertHexNumbers(json5));
+    }
+    
     @Test
     public void testConvertHexNumbersNullInput() {
         assertThrows(IllegalArgumentException.class, () -> {
@@ -644,4 +666,105 @@ public class JsoncUtilsTest {
         String result = JsoncUtils.convertMultilineStrings(json5);
         assertEquals(expected, result);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testConvertHexNumbersPreservingOffsets() {
+        String jsonc = "{ /* 0x10 */ \"a\": 0xFF, \"s\": \"0x10\", \"b\": 0x1 }";
+        String expected = "{ /* 0x10 */ \"a\": 255 , \"s\": \"0x10\", \"b\": 1   }";
+        String result = JsoncUtils.convertHexNumbersPreservingOffsets(jsonc, false);
+        assertEquals(expected, result);
+        assertEquals(jsonc.length(), result.length());
+    }
+
+    @Test
+    public void testEscapeLineBreaksInStrings() {
+        String jsonc = "{ // don't \"\n \"a\": \"x\ny\", 'b': 'p\r\nq', \"c\": \"\\\"\n\" }";
+        String expected = "{ // don't \"\n \"a\": \"x\\ny\", 'b': 'p\\r\\nq', \"c\": \"\\\"\\n\" }";
+        assertEquals(expected, JsoncUtils.escapeLineBreaksInStrings(jsonc, true));
+        String plain = "{\n \"a\": \"x\ty\"\n}";
+        assertSame(plain, JsoncUtils.escapeLineBreaksInStrings(plain, true));
+    }
+
+    @Test
+    public void testConvertHexNumbersPreservingOffsetsWithoutHex() {
+        String jsonc = "{ \"a\": 1 }";
+        assertSame(jsonc, JsoncUtils.convertHexNumbersPreservingOffsets(jsonc, false));
+    }
+
+    @Test
+    public void testMinify() {
+        String jsonc = "{\n  // comment\n  \"key\": \"value\",\n  /* block */ \"list\": [ 1, 2, 3 ]\n}";
+        String expected = "{\"key\":\"value\",\"list\":[1,2,3]}";
+        assertEquals(expected, JsoncUtils.minify(jsonc));
+    }
+
+    @Test
+    public void testMinifyPreservesStrings() {
+        String jsonc = "{ \"a b\": \"x  /* not a comment */  y\", 'c d': ' e \\' f ' }";
+        String expected = "{\"a b\":\"x  /* not a comment */  y\",'c d':' e \\' f '}";
+        assertEquals(expected, JsoncUtils.minify(jsonc));
+    }
+
+    @Test
+    public void testMinifyKeepsSeparatorBetweenLiterals() {
+        // Joining these would turn invalid input into a different, valid document
+        assertEquals("[1 2]", JsoncUtils.minify("[ 1 \n 2 ]"));
+        assertEquals("[true false]", JsoncUtils.minify("[true // c\n false]"));
+        assertEquals("[-1,+2]", JsoncUtils.minify("[ -1 , +2 ]"));
+    }
+
+    @Test
+    public void testMinifyWithoutSingleQuotes() {
+        String jsonc = "[1, x'y /* c */ 2]";
+        assertEquals("[1,x'y 2]", JsoncUtils.minify(jsonc, false));
+        assertEquals("[1,x'y /* c */ 2]", JsoncUtils.minify(jsonc, true));
+        assertEquals(JsoncUtils.minify(jsonc), JsoncUtils.minify(jsonc, true));
+    }
+
+    @Test
+    public void testMinifyEdgeCases() {
+        assertEquals("", JsoncUtils.minify(""));
+        assertEquals("", JsoncUtils.minify("  /* only comments */ // here\n"));
+        assertEquals("{}", JsoncUtils.minify("{} /* unclosed"));
+        assertThrows(IllegalArgumentException.class, () -> JsoncUtils.minify(null));
+    }
+
+    @Test
+    public void testRemoveCommentsInParallelMatchesSequential() {
+        String[] fragments = {
+            "{\"a\": 1, /* block, */ \"b\": [1, 2, ], }\n",
+            "// line \"comment\n",
+            "\"str // not /* comment \\\" still\", ",
+            "/* spans\n several \"lines\" */",
+            "\"\\\\\", ",
+            "/**/ /*/ x */ ***/ //",
+            "\n",
+            "[\"x\",\"y\"],\r",
+            "\"multi\nline\", // trailing\n",
+        };
+        StringBuilder builder = new StringBuilder();
+        java.util.Random random = new java.util.Random(42);
+        while (builder.length() < 3 * ParallelCommentScan.MIN_CHUNK_LENGTH) {
+            builder.append(fragments[random.nextInt(fragments.length)]);
+        }
+        // Long runs of '/' and '*' where chunk boundaries would fall
+        builder.insert(ParallelCommentScan.MIN_CHUNK_LENGTH - 5, "/*****////****/");
+        builder.append("\"unclosed /* string");
+        String jsonc = builder.toString();
+        String unclosedComment = jsonc + " /* unclosed";
+
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        try {
+            assertEquals(JsoncUtils.removeComments(jsonc), JsoncUtils.removeComments(jsonc, pool));
+            assertEquals(JsoncUtils.removeCommentsAndTrailingCommas(jsonc),
+                         JsoncUtils.removeCommentsAndTrailingCommas(jsonc, pool));
+            assertEquals(JsoncUtils.removeComments(unclosedComment),
+                         JsoncUtils.removeComments(unclosedComment, pool));
+            assertEquals("{}", JsoncUtils.removeCommentsAndTrailingCommas("{/**/}", pool));
+        } finally {
+            pool.shutdown();
+        }
+        assertThrows(IllegalArgumentException.class, () -> JsoncUtils.removeComments(jsonc, (java.util.concurrent.ForkJoinPool) null));
+        assertThrows(IllegalArgumentException.class, () -> JsoncUtils.removeComments(null, pool));
+    }
+}
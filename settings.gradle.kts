@@ -12,3 +12,4 @@ plugins {
 
 rootProject.name = "jackson-databind-jsonc"
 include("lib")
+include("cli")